@@ -0,0 +1,33 @@
+package flowchart;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Генерація Python-коду одного потоку (FlowchartPanel.generatePythonCode) на
+// схемах зростаючого розміру й глибини вкладеності.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class CodegenBenchmark {
+    @Param({"100", "1000", "10000"})
+    public int size;
+
+    @Param({"1", "4", "16"})
+    public int nesting;
+
+    private FlowchartPanel panel;
+
+    @Setup
+    public void setUp() {
+        panel = SyntheticFlowcharts.panel(size, nesting);
+    }
+
+    @Benchmark
+    public String generatePythonCode() {
+        return panel.generatePythonCode();
+    }
+}
@@ -0,0 +1,60 @@
+package flowchart;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+// Пошук з'єднань через ConnectionGraph: findConnectionFrom для кожного блоку
+// і кожної гілки та обхід усіх досяжних від старту блоків (те, що робив
+// collectReachable до структурної генерації).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class GraphBenchmark {
+    private static final Boolean[] BRANCHES = {null, true, false};
+
+    @Param({"100", "1000", "10000"})
+    public int size;
+
+    private List<Block> blocks;
+    private ConnectionGraph graph;
+
+    @Setup
+    public void setUp() {
+        FlowchartData data = SyntheticFlowcharts.build(size, 8);
+        blocks = data.getBlocks();
+        graph = new ConnectionGraph();
+        graph.rebuild(data.getConnections());
+    }
+
+    @Benchmark
+    public void findConnectionFrom(Blackhole bh) {
+        for (Block block : blocks) {
+            for (Boolean condition : BRANCHES) {
+                bh.consume(graph.first(block, condition));
+            }
+        }
+    }
+
+    @Benchmark
+    public int collectReachable() {
+        Set<Block> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        Deque<Block> stack = new ArrayDeque<>();
+        stack.push(blocks.get(0));
+        while (!stack.isEmpty()) {
+            Block block = stack.pop();
+            if (!visited.add(block)) continue;
+            for (Boolean condition : BRANCHES) {
+                for (Connection conn : graph.outgoing(block, condition)) {
+                    if (conn.getTo() != null) stack.push(conn.getTo());
+                }
+            }
+        }
+        return visited.size();
+    }
+}
@@ -0,0 +1,86 @@
+package flowchart;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.awt.event.InputEvent;
+import java.awt.event.MouseEvent;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+// Пошук блоку під курсором: напряму через BlockIndex і повним шляхом
+// натискання й відпускання миші на панелі. Половина точок — центри блоків,
+// решта — випадкові точки полотна, здебільшого порожні.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class HitTestBenchmark {
+    private static final int POINTS = 1024;
+
+    @Param({"100", "1000", "10000"})
+    public int size;
+
+    private FlowchartPanel panel;
+    private BlockIndex index;
+    private int[] xs;
+    private int[] ys;
+    private MouseEvent[] presses;
+    private MouseEvent[] releases;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        FlowchartData data = SyntheticFlowcharts.build(size, 8);
+        List<Block> blocks = data.getBlocks();
+        index = new BlockIndex();
+        index.rebuild(blocks);
+        panel = new FlowchartPanel(new ArrayList<>(SyntheticFlowcharts.VARIABLES));
+        panel.setFlowchartData(data);
+
+        Random random = new Random(42);
+        int width = 0, height = 0;
+        for (Block block : blocks) {
+            width = Math.max(width, block.getX() + Block.WIDTH);
+            height = Math.max(height, block.getY() + Block.HEIGHT);
+        }
+        xs = new int[POINTS];
+        ys = new int[POINTS];
+        presses = new MouseEvent[POINTS];
+        releases = new MouseEvent[POINTS];
+        for (int i = 0; i < POINTS; i++) {
+            if (i % 2 == 0) {
+                Block block = blocks.get(random.nextInt(blocks.size()));
+                xs[i] = block.getX() + Block.WIDTH / 2;
+                ys[i] = block.getY() + Block.HEIGHT / 2;
+            } else {
+                xs[i] = random.nextInt(width);
+                ys[i] = random.nextInt(height);
+            }
+            // Натискання лише в центри блоків: біля виходу воно почало б нове з'єднання.
+            Block block = blocks.get(random.nextInt(blocks.size()));
+            int x = block.getX() + Block.WIDTH / 2;
+            int y = block.getY() + Block.HEIGHT / 2;
+            presses[i] = new MouseEvent(panel, MouseEvent.MOUSE_PRESSED, 0, InputEvent.BUTTON1_DOWN_MASK,
+                    x, y, 1, false, MouseEvent.BUTTON1);
+            releases[i] = new MouseEvent(panel, MouseEvent.MOUSE_RELEASED, 0, 0,
+                    x, y, 1, false, MouseEvent.BUTTON1);
+        }
+    }
+
+    @Benchmark
+    public void blockAt(Blackhole bh) {
+        for (int i = 0; i < POINTS; i++) {
+            bh.consume(index.blockAt(xs[i], ys[i]));
+        }
+    }
+
+    @Benchmark
+    public void pressAndRelease() {
+        int i = next++ & (POINTS - 1);
+        panel.dispatchEvent(presses[i]);
+        panel.dispatchEvent(releases[i]);
+    }
+}
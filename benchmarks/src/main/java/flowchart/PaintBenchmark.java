@@ -0,0 +1,57 @@
+package flowchart;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+// paintComponent без екрана, у BufferedImage: увесь видимий фрагмент полотна
+// і мала ділянка навколо одного блоку, яку перемальовує перетягування.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class PaintBenchmark {
+    private static final int WIDTH = 1600;
+    private static final int HEIGHT = 1000;
+
+    @Param({"100", "1000", "10000"})
+    public int size;
+
+    private FlowchartPanel panel;
+    private BufferedImage image;
+    private Rectangle dragClip;
+
+    @Setup
+    public void setUp() {
+        panel = SyntheticFlowcharts.panel(size, 8);
+        panel.setSize(WIDTH, HEIGHT);
+        image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Block block = panel.getFlowchartData().getBlocks().get(Math.min(size, 60));
+        dragClip = new Rectangle(block.getX() - 20, block.getY() - 20, Block.WIDTH + 40, Block.HEIGHT + 40);
+    }
+
+    @Benchmark
+    public BufferedImage paintViewport() {
+        return paint(new Rectangle(0, 0, WIDTH, HEIGHT));
+    }
+
+    @Benchmark
+    public BufferedImage paintDragRegion() {
+        return paint(dragClip);
+    }
+
+    private BufferedImage paint(Rectangle clip) {
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setClip(clip);
+            panel.paintComponent(g);
+        } finally {
+            g.dispose();
+        }
+        return image;
+    }
+}
@@ -0,0 +1,94 @@
+package flowchart;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+// Збереження й відкриття проекту тим самим шляхом, що saveProject і
+// loadProject редактора, але без діалогів вибору файлу: знімки потоків
+// декодуються й пишуться в тимчасовий файл, що підміняє старий; відкриття
+// читає заголовок і розділи потоків з каналу за зсувом і декодує потоки (усі
+// або лише перший, як при показі першої вкладки).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class PersistenceBenchmark {
+    private static final int THREADS = 8;
+
+    @Param({"100", "1000", "10000"})
+    public int size;
+
+    private List<String> sharedVariables;
+    private List<Callable<FlowchartData>> snapshots;
+    private File dir;
+    private File file;
+
+    @Setup
+    public void setUp() throws Exception {
+        ProjectData project = SyntheticFlowcharts.project(THREADS, size, 8);
+        sharedVariables = project.getSharedVariables();
+        snapshots = new ArrayList<>();
+        for (FlowchartData flowchart : project.getFlowchartData()) {
+            snapshots.add(new FlowchartSnapshot(flowchart.getBlocks(), flowchart.getConnections()));
+        }
+        dir = Files.createTempDirectory("flowchart-bench").toFile();
+        file = new File(dir, "project.fchp");
+        saveProject();
+    }
+
+    @TearDown
+    public void tearDown() {
+        file.delete();
+        dir.delete();
+    }
+
+    @Benchmark
+    public File saveProject() throws Exception {
+        ProjectData data = new ProjectData();
+        data.setSharedVariables(sharedVariables);
+        data.setFlowchartData(new ArrayList<>());
+        for (Callable<FlowchartData> snapshot : snapshots) {
+            data.getFlowchartData().add(snapshot.call());
+        }
+        File temp = new File(file.getPath() + ".tmp");
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(temp))) {
+            ProjectFormat.write(data, out);
+        }
+        if (!temp.renameTo(file)) {
+            file.delete();
+            if (!temp.renameTo(file)) throw new IOException("Не вдалося записати " + file);
+        }
+        return file;
+    }
+
+    @Benchmark
+    public List<Object> loadProject() throws IOException {
+        try (ProjectFile project = ProjectFile.open(file)) {
+            List<Object> threads = new ArrayList<>(project.getThreadCount());
+            for (int i = 0; i < project.getThreadCount(); i++) {
+                threads.add(project.readThread(i));
+            }
+            return threads;
+        }
+    }
+
+    @Benchmark
+    public Object loadFirstThread() throws IOException {
+        try (ProjectFile project = ProjectFile.open(file)) {
+            return project.readThread(0);
+        }
+    }
+
+    @Benchmark
+    public List<Object> roundTrip() throws Exception {
+        saveProject();
+        return loadProject();
+    }
+}
@@ -0,0 +1,114 @@
+package flowchart;
+
+import java.util.*;
+
+// Структуровані схеми заданого розміру для бенчмарків: послідовності
+// присвоєнь і виводів, у яких кожен другий оператор — if/else або while з
+// вкладеною послідовністю, доки глибина не досягне nesting. Блоки
+// розкладаються сіткою в порядку створення, як на великому полотні.
+final class SyntheticFlowcharts {
+    static final List<String> VARIABLES = List.of("x", "y");
+    private static final int COLUMNS = 50;
+
+    // Кінець ділянки, що має з'єднатися з наступним блоком.
+    private static final class Exit {
+        final Block from;
+        final Boolean condition;
+
+        Exit(Block from, Boolean condition) {
+            this.from = from;
+            this.condition = condition;
+        }
+    }
+
+    private final int nesting;
+    private final List<Block> blocks = new ArrayList<>();
+    private final List<Connection> connections = new ArrayList<>();
+    private int statements;
+    private int structures;
+
+    private SyntheticFlowcharts(int nesting) {
+        this.nesting = nesting;
+    }
+
+    // Схема з size блоків між START і END.
+    static FlowchartData build(int size, int nesting) {
+        SyntheticFlowcharts chart = new SyntheticFlowcharts(nesting);
+        Block start = chart.block(BlockType.START, "");
+        List<Exit> ends = chart.sequence(List.of(new Exit(start, null)), size, 0);
+        chart.link(ends, chart.block(BlockType.END, ""));
+
+        FlowchartData data = new FlowchartData();
+        data.setBlocks(chart.blocks);
+        data.setConnections(chart.connections);
+        return data;
+    }
+
+    static FlowchartPanel panel(int size, int nesting) {
+        FlowchartPanel panel = new FlowchartPanel(new ArrayList<>(VARIABLES));
+        panel.setFlowchartData(build(size, nesting));
+        return panel;
+    }
+
+    static ProjectData project(int threads, int size, int nesting) {
+        List<FlowchartData> flowcharts = new ArrayList<>(threads);
+        for (int i = 0; i < threads; i++) {
+            flowcharts.add(build(size, nesting));
+        }
+        ProjectData project = new ProjectData();
+        project.setSharedVariables(new ArrayList<>(VARIABLES));
+        project.setFlowchartData(flowcharts);
+        return project;
+    }
+
+    private List<Exit> sequence(List<Exit> entry, int budget, int depth) {
+        List<Exit> ends = entry;
+        while (budget > 0) {
+            int n = statements++;
+            if (depth < nesting && budget >= 3 && n % 2 == 1) {
+                int chunk = Math.max(3, budget / 2);
+                ends = structure(ends, chunk, depth);
+                budget -= chunk;
+            } else {
+                Block block = n % 7 == 0
+                        ? block(BlockType.OUTPUT, "x")
+                        : block(BlockType.ASSIGNMENT, "x = x + " + n % 10);
+                link(ends, block);
+                ends = List.of(new Exit(block, null));
+                budget--;
+            }
+        }
+        return ends;
+    }
+
+    // if/else або while (по черзі) рівно з chunk блоків разом з умовою.
+    private List<Exit> structure(List<Exit> entry, int chunk, int depth) {
+        Block condition = block(BlockType.CONDITION, "x < " + blocks.size());
+        link(entry, condition);
+        int body = chunk - 1;
+        if (structures++ % 2 == 0) {
+            int thenSize = (body + 1) / 2;
+            List<Exit> ends = new ArrayList<>(sequence(List.of(new Exit(condition, true)), thenSize, depth + 1));
+            ends.addAll(sequence(List.of(new Exit(condition, false)), body - thenSize, depth + 1));
+            return ends;
+        }
+        link(sequence(List.of(new Exit(condition, true)), body, depth + 1), condition);
+        return List.of(new Exit(condition, false));
+    }
+
+    private Block block(BlockType type, String code) {
+        int index = blocks.size();
+        Block block = new Block(type, (index % COLUMNS) * 160 + 20, (index / COLUMNS) * 100 + 20);
+        block.setCode(code);
+        blocks.add(block);
+        return block;
+    }
+
+    private void link(List<Exit> ends, Block to) {
+        for (Exit end : ends) {
+            Connection conn = new Connection(end.from, to);
+            if (end.condition != null) conn.setCondition(end.condition);
+            connections.add(conn);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package flowchart;
+
+// Розподіляє випробування між тестами в адаптивному режимі: наступне
+// виконання отримує тест з найширшим довірчим інтервалом частки успіхів
+// (з урахуванням уже запущених, але ще не завершених виконань). Тест
+// припиняє вибірку, коли півширина інтервалу Вілсона не перевищує заданої
+// точності або вичерпано ліміт виконань. Для тестів, де всі виконання
+// однакові (0% чи 100%), інтервал звужується як z²/(n+z²), тож вони
+// зупиняються після кількох десятків виконань, а не сотень, як тест з
+// частотою біля 50%. Помилки запуску (наприклад, немає python) у частку не
+// входять, тож тест, що раз у раз падає з помилкою, зупиняється після
+// MAX_CONSECUTIVE_ERRORS таких виконань поспіль, а не крутиться до ліміту.
+class AdaptiveSampler {
+    enum StopReason { RUNNING, PRECISE, UNANIMOUS, LIMIT, ERROR }
+
+    static final int MAX_CONSECUTIVE_ERRORS = 5;
+
+    private final double targetHalfWidth;
+    private final int maxTrials;
+    private final double z;
+    private final int[] passed;
+    private final int[] completed;
+    private final int[] attempts;
+    private final int[] pending;
+    private final int[] consecutiveErrors;
+
+    public AdaptiveSampler(int testCount, double targetHalfWidth, int maxTrials) {
+        this.targetHalfWidth = targetHalfWidth;
+        this.maxTrials = maxTrials;
+        this.z = ConfidenceInterval.Z_95;
+        this.passed = new int[testCount];
+        this.completed = new int[testCount];
+        this.attempts = new int[testCount];
+        this.pending = new int[testCount];
+        this.consecutiveErrors = new int[testCount];
+    }
+
+    public double getTargetHalfWidth() {
+        return targetHalfWidth;
+    }
+
+    public int getMaxTrials() {
+        return maxTrials;
+    }
+
+    // Обирає тест для наступного виконання; -1, якщо жоден тест більше не
+    // потребує виконань (або всі потрібні вже запущені).
+    public int next() {
+        int best = -1;
+        double bestWidth = -1;
+        for (int i = 0; i < passed.length; i++) {
+            if (attempts[i] + pending[i] >= maxTrials) continue;
+            if (consecutiveErrors[i] >= MAX_CONSECUTIVE_ERRORS) continue;
+            double width = projectedHalfWidth(i);
+            if (width <= targetHalfWidth) continue;
+            if (width > bestWidth) {
+                bestWidth = width;
+                best = i;
+            }
+        }
+        if (best >= 0) {
+            pending[best]++;
+        }
+        return best;
+    }
+
+    // Півширина, яку матиме інтервал, коли завершаться вже запущені виконання,
+    // якщо частка успіхів не зміниться.
+    private double projectedHalfWidth(int test) {
+        int n = completed[test] + pending[test];
+        if (n == 0) return 1.0;
+        double rate = completed[test] > 0 ? (double) passed[test] / completed[test] : 0.5;
+        return ConfidenceInterval.wilson((int) Math.round(rate * n), n, z).getHalfWidth();
+    }
+
+    public void record(TrialResult result) {
+        int test = result.getTestIndex();
+        pending[test]--;
+        attempts[test]++;
+        if (result.isError()) {
+            consecutiveErrors[test]++;
+            return;
+        }
+        consecutiveErrors[test] = 0;
+        completed[test]++;
+        if (result.isPassed()) passed[test]++;
+    }
+
+    public ConfidenceInterval getInterval(int test) {
+        return ConfidenceInterval.wilson(passed[test], completed[test], z);
+    }
+
+    public StopReason getStopReason(int test) {
+        if (completed[test] > 0 && getInterval(test).getHalfWidth() <= targetHalfWidth) {
+            return passed[test] == 0 || passed[test] == completed[test] ? StopReason.UNANIMOUS : StopReason.PRECISE;
+        }
+        if (consecutiveErrors[test] >= MAX_CONSECUTIVE_ERRORS) return StopReason.ERROR;
+        return attempts[test] >= maxTrials ? StopReason.LIMIT : StopReason.RUNNING;
+    }
+}
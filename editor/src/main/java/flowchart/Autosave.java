@@ -0,0 +1,201 @@
+package flowchart;
+
+import javax.swing.*;
+import java.awt.*;
+import java.io.*;
+import java.util.*;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+// Автозбереження для відновлення після збою. Час від часу у фоні пишеться
+// повний знімок проекту, а між знімками кожна зміна дописується в журнал
+// коротким записом (ProjectEdit). Потік подій лише знімає незмінну копію
+// змінених потоків і ставить задачу в чергу — на диск він не чекає.
+//
+// Журнал починається з номера знімка, до якого належить; записи з довжиною
+// попереду, тож обірваний при збої останній запис просто відкидається.
+class Autosave {
+    private static final byte[] JOURNAL_MAGIC = {'F', 'C', 'H', 'J'};
+    private static final int RECORDS_PER_SNAPSHOT = 500;
+    private static final int SNAPSHOT_DELAY_MS = 30_000;
+
+    // Незмінний стан проекту; потоки схем декодуються вже у фоні.
+    static class Snapshot {
+        final List<String> sharedVariables;
+        final List<Callable<FlowchartData>> threads;
+
+        Snapshot(List<String> sharedVariables, List<Callable<FlowchartData>> threads) {
+            this.sharedVariables = sharedVariables;
+            this.threads = threads;
+        }
+    }
+
+    private final File snapshotFile;
+    private final File journalFile;
+    private final Component parent;
+    private final Supplier<Snapshot> source;
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "autosave");
+        t.setDaemon(true);
+        return t;
+    });
+    private final javax.swing.Timer timer;
+    // Стан потоку подій.
+    private long generation;
+    private int records;
+    // Стан потоку autosave.
+    private DataOutputStream journal;
+    private boolean failed;
+
+    public Autosave(File dir, Component parent, Supplier<Snapshot> source) {
+        this.snapshotFile = new File(dir, "autosave.fchp");
+        this.journalFile = new File(dir, "autosave.journal");
+        this.parent = parent;
+        this.source = source;
+        timer = new javax.swing.Timer(SNAPSHOT_DELAY_MS, e -> snapshot());
+        timer.setRepeats(false);
+    }
+
+    public static Autosave openDefault(Component parent, Supplier<Snapshot> source) {
+        return new Autosave(new File(System.getProperty("user.home"), ".flowchart-editor"), parent, source);
+    }
+
+    // Проект з останнього знімка з відтвореним журналом; null, якщо автозбереження немає.
+    // Викликається до першого snapshot().
+    public ProjectData recover() throws IOException {
+        if (!snapshotFile.isFile()) return null;
+        ProjectData project;
+        long snapshotGeneration;
+        try (InputStream in = new BufferedInputStream(new FileInputStream(snapshotFile))) {
+            snapshotGeneration = new DataInputStream(in).readLong();
+            project = ProjectFormat.read(in);
+        }
+        generation = snapshotGeneration;
+        if (!journalFile.isFile()) return project;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(journalFile)))) {
+            byte[] magic = new byte[JOURNAL_MAGIC.length];
+            in.readFully(magic);
+            // Журнал від старішого знімка вже врахований у знімку (збій між записом знімка й журналу).
+            if (!Arrays.equals(magic, JOURNAL_MAGIC) || in.readLong() != snapshotGeneration) return project;
+            while (true) {
+                byte[] record = new byte[ProjectFormat.readCount(in)];
+                in.readFully(record);
+                ProjectEdit.read(new DataInputStream(new ByteArrayInputStream(record))).apply(project);
+            }
+        } catch (IOException e) {
+            // Кінець журналу, обірваний або непридатний запис: відтворено все до нього.
+        }
+        return project;
+    }
+
+    public void record(ProjectEdit edit) {
+        writer.execute(() -> append(edit));
+        if (++records >= RECORDS_PER_SNAPSHOT) {
+            snapshot();
+        } else if (!timer.isRunning()) {
+            timer.start();
+        }
+    }
+
+    public void snapshot() {
+        Snapshot snapshot = source.get();
+        long current = ++generation;
+        records = 0;
+        timer.stop();
+        writer.execute(() -> writeSnapshot(current, snapshot));
+    }
+
+    // Дочікується запису всього, що вже поставлено в чергу (для тестів).
+    void awaitWrites() throws InterruptedException, ExecutionException {
+        writer.submit(() -> { }).get();
+    }
+
+    // Штатне завершення роботи: автозбереження більше не потрібне.
+    public void close() {
+        timer.stop();
+        writer.execute(() -> {
+            closeJournal();
+            journalFile.delete();
+            snapshotFile.delete();
+        });
+        writer.shutdown();
+        try {
+            writer.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void writeSnapshot(long current, Snapshot snapshot) {
+        try {
+            List<FlowchartData> flowcharts = new ArrayList<>(snapshot.threads.size());
+            for (Callable<FlowchartData> thread : snapshot.threads) {
+                flowcharts.add(thread.call());
+            }
+            ProjectData data = new ProjectData();
+            data.setSharedVariables(snapshot.sharedVariables);
+            data.setFlowchartData(flowcharts);
+
+            File dir = snapshotFile.getParentFile();
+            if (dir != null && !dir.isDirectory() && !dir.mkdirs()) {
+                throw new IOException("Не вдалося створити каталог " + dir);
+            }
+            File temp = new File(snapshotFile.getPath() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+                out.writeLong(current);
+                ProjectFormat.write(data, out);
+            }
+            if (!temp.renameTo(snapshotFile)) {
+                snapshotFile.delete();
+                if (!temp.renameTo(snapshotFile)) throw new IOException("Не вдалося записати " + snapshotFile);
+            }
+
+            // Записи до цього знімка вже в ньому; журнал починається заново.
+            closeJournal();
+            journal = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(journalFile)));
+            journal.write(JOURNAL_MAGIC);
+            journal.writeLong(current);
+            journal.flush();
+            failed = false;
+        } catch (Exception e) {
+            closeJournal();
+            report(e);
+        }
+    }
+
+    private void append(ProjectEdit edit) {
+        // Без вдалого знімка журнал не має до чого відтворюватися.
+        if (journal == null) return;
+        try {
+            ByteArrayOutputStream record = new ByteArrayOutputStream(32);
+            edit.write(new DataOutputStream(record));
+            ProjectFormat.writeVarint(journal, record.size());
+            record.writeTo(journal);
+            journal.flush();
+        } catch (IOException e) {
+            closeJournal();
+            report(e);
+        }
+    }
+
+    private void closeJournal() {
+        if (journal == null) return;
+        try {
+            journal.close();
+        } catch (IOException e) {
+            // Наступний знімок однаково перезапише журнал.
+        }
+        journal = null;
+    }
+
+    // Про збій повідомляється один раз, доки автозбереження знову не запрацює.
+    private void report(Exception e) {
+        if (failed) return;
+        failed = true;
+        SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(parent,
+                "Помилка автозбереження: " + e.getMessage(),
+                "Помилка", JOptionPane.ERROR_MESSAGE));
+    }
+}
@@ -0,0 +1,79 @@
+package flowchart;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Bit-state хешування (supertrace): кожен стан позначається двома бітами
+// у бітовому масиві заданого розміру. Пам'ять фіксована незалежно від кількості
+// станів, але колізія може помилково відсікти ще не відвіданий стан, тому
+// результат пошуку — наближений.
+class BitStateHashSet implements StateSet {
+    private final AtomicLongArray bits;
+    private final long bitMask;
+    private final AtomicLong size = new AtomicLong();
+
+    public BitStateHashSet(long memoryBytes) {
+        long words = Long.highestOneBit(Math.max(1024, memoryBytes / Long.BYTES));
+        words = Math.min(words, 1 << 30);
+        bits = new AtomicLongArray((int) words);
+        bitMask = words * Long.SIZE - 1;
+    }
+
+    @Override
+    public boolean add(long hash) {
+        boolean first = setBit(hash & bitMask);
+        boolean second = setBit(rehash(hash) & bitMask);
+        if (first || second) {
+            size.incrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean contains(long hash) {
+        return isSet(hash & bitMask) && isSet(rehash(hash) & bitMask);
+    }
+
+    private static long rehash(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        return hash ^ (hash >>> 33);
+    }
+
+    private boolean setBit(long bit) {
+        int word = (int) (bit >>> 6);
+        long mask = 1L << (bit & 63);
+        while (true) {
+            long current = bits.get(word);
+            if ((current & mask) != 0) return false;
+            if (bits.compareAndSet(word, current, current | mask)) return true;
+        }
+    }
+
+    private boolean isSet(long bit) {
+        return (bits.get((int) (bit >>> 6)) & (1L << (bit & 63))) != 0;
+    }
+
+    // Скільки станів має сенс класти в масив. Стан займає два біти; доки
+    // зайнято не більше чверті бітів (стан на 8 бітів масиву), помилково
+    // відсікається лише близько 5% нових станів.
+    public long capacity() {
+        return (long) bits.length() * Long.SIZE / 8;
+    }
+
+    @Override
+    public long size() {
+        return size.get();
+    }
+
+    @Override
+    public long memoryBytes() {
+        return (long) bits.length() * Long.BYTES;
+    }
+
+    @Override
+    public boolean isExact() {
+        return false;
+    }
+}
@@ -0,0 +1,149 @@
+package flowchart;
+
+import java.util.*;
+
+// Просторовий індекс блоків для пошуку під курсором: рівномірна сітка з
+// клітинками CELL_SIZE пікселів. Блок записано в одну клітинку — ту, де лежить
+// лівий верхній кут його прямокутника, розширеного на чутливість вихідних
+// портів. Клітинка більша за такий прямокутник, тож блоки, для яких contains()
+// чи isNearOutput() можуть спрацювати в точці, лежать у клітинці точки або в
+// сусідніх зліва й згори. Кандидати повертаються в порядку списку блоків панелі —
+// як при переборі списку.
+class BlockIndex {
+    private static final int CELL_SIZE = 256;
+    // Найбільша чутливість портів у Block.isNearOutput().
+    private static final int MARGIN = 15;
+    private static final Comparator<Entry> BY_ORDER = Comparator.comparingLong(e -> e.order);
+
+    private final Map<Long, List<Entry>> cells = new HashMap<>();
+    private final Map<Block, Entry> entries = new IdentityHashMap<>();
+    private long nextOrder;
+
+    private static class Entry {
+        final Block block;
+        final long order;
+        int cellX, cellY;
+
+        Entry(Block block, long order) {
+            this.block = block;
+            this.order = order;
+        }
+
+        // Точка в межах блоку, розширених на чутливість портів.
+        boolean near(int x, int y) {
+            int left = block.getX() - MARGIN;
+            int top = block.getY() - MARGIN;
+            return x >= left && x <= left + block.getWidth() + 2 * MARGIN
+                    && y >= top && y <= top + block.getHeight() + 2 * MARGIN;
+        }
+    }
+
+    public void rebuild(List<Block> blocks) {
+        cells.clear();
+        entries.clear();
+        nextOrder = 0;
+        for (Block block : blocks) {
+            add(block);
+        }
+    }
+
+    // Новий блок вважається останнім у списку.
+    public void add(Block block) {
+        Entry entry = new Entry(block, nextOrder++);
+        entries.put(block, entry);
+        place(entry);
+    }
+
+    public void remove(Block block) {
+        Entry entry = entries.remove(block);
+        if (entry != null) unplace(entry);
+    }
+
+    // Блоки, що вже в індексі, переміщуються лише через цей метод.
+    public void move(Block block, int dx, int dy) {
+        block.move(dx, dy);
+        Entry entry = entries.get(block);
+        if (entry == null) return;
+        if (cellOf(block.getX() - MARGIN) == entry.cellX && cellOf(block.getY() - MARGIN) == entry.cellY) return;
+        unplace(entry);
+        place(entry);
+    }
+
+    // Блоки, біля яких лежить точка (кандидати для contains/isNearOutput), у порядку списку.
+    public List<Block> at(int x, int y) {
+        List<Entry> found = null;
+        int cx = cellOf(x), cy = cellOf(y);
+        int sources = 0;
+        for (int i = cx - 1; i <= cx; i++) {
+            for (int j = cy - 1; j <= cy; j++) {
+                List<Entry> cell = cells.get(key(i, j));
+                if (cell == null) continue;
+                boolean added = false;
+                for (Entry entry : cell) {
+                    if (!entry.near(x, y)) continue;
+                    if (found == null) found = new ArrayList<>(4);
+                    found.add(entry);
+                    added = true;
+                }
+                if (added) sources++;
+            }
+        }
+        if (found == null) return Collections.emptyList();
+        // Кожна клітинка вже впорядкована; зливати треба лише кандидатів з кількох.
+        if (sources > 1) found.sort(BY_ORDER);
+        List<Block> result = new ArrayList<>(found.size());
+        for (Entry entry : found) {
+            result.add(entry.block);
+        }
+        return result;
+    }
+
+    // Перший у порядку списку блок, що містить точку.
+    public Block blockAt(int x, int y) {
+        Entry first = null;
+        int cx = cellOf(x), cy = cellOf(y);
+        for (int i = cx - 1; i <= cx; i++) {
+            for (int j = cy - 1; j <= cy; j++) {
+                List<Entry> cell = cells.get(key(i, j));
+                if (cell == null) continue;
+                for (Entry entry : cell) {
+                    if (first != null && entry.order > first.order) break;
+                    if (entry.block.contains(x, y)) {
+                        first = entry;
+                        break;
+                    }
+                }
+            }
+        }
+        return first != null ? first.block : null;
+    }
+
+    private void place(Entry entry) {
+        entry.cellX = cellOf(entry.block.getX() - MARGIN);
+        entry.cellY = cellOf(entry.block.getY() - MARGIN);
+        List<Entry> cell = cells.computeIfAbsent(key(entry.cellX, entry.cellY), k -> new ArrayList<>(4));
+        // Клітинка впорядкована за order, тож обхід іде в порядку списку блоків.
+        int i = cell.size();
+        while (i > 0 && cell.get(i - 1).order > entry.order) i--;
+        cell.add(i, entry);
+    }
+
+    private void unplace(Entry entry) {
+        Long key = key(entry.cellX, entry.cellY);
+        List<Entry> cell = cells.get(key);
+        if (cell == null) return;
+        cell.remove(entry);
+        if (cell.isEmpty()) cells.remove(key);
+    }
+
+    private static int cellOf(int coordinate) {
+        return Math.floorDiv(coordinate, CELL_SIZE);
+    }
+
+    // Множення на непарну константу взаємно однозначне, тож ключі не збігаються,
+    // а Long.hashCode() розподіляє сусідні клітинки рівномірно (без множення він
+    // дорівнює cx ^ cy, і розріджена сітка вироджується в дерева колізій).
+    private static long key(int cx, int cy) {
+        return (((long) cx << 32) | (cy & 0xFFFFFFFFL)) * 0x9E3779B97F4A7C15L;
+    }
+}
@@ -0,0 +1,199 @@
+package flowchart;
+
+import java.awt.*;
+import java.util.*;
+
+// Компактне сховище блоків однієї схеми: тип, координати й код кожного блоку
+// лежать у примітивних масивах за номером слота, а Block — лише дескриптор
+// (сховище + слот). Коди інтернуються в межах сховища, тож однакові рядки
+// (типові для згенерованих схем) зберігаються один раз. Тут же — кеш підписів
+// для малювання, спільний шрифт на все сховище.
+class BlockStore {
+    private static final BlockType[] TYPES = BlockType.values();
+
+    private byte[] types;
+    private int[] xs;
+    private int[] ys;
+    private String[] codes;
+    private String[] labels;
+    private short[] labelDX;
+    private short[] labelDY;
+    private Font labelFont;
+    private int size;
+    // Звільнені слоти; використовуються повторно раніше за нові.
+    private int[] free = new int[0];
+    private int freeCount;
+    private final Map<String, String> pool = new HashMap<>();
+
+    public BlockStore() {
+        this(16);
+    }
+
+    public BlockStore(int capacity) {
+        capacity = Math.max(1, capacity);
+        types = new byte[capacity];
+        xs = new int[capacity];
+        ys = new int[capacity];
+        codes = new String[capacity];
+        labels = new String[capacity];
+        labelDX = new short[capacity];
+        labelDY = new short[capacity];
+    }
+
+    public Block create(BlockType type, int x, int y) {
+        Block block = new Block();
+        place(block, type, x, y, null);
+        return block;
+    }
+
+    // Записує дані нового дескриптора в вільний слот.
+    void place(Block block, BlockType type, int x, int y, String code) {
+        int slot = allocate();
+        types[slot] = (byte) type.ordinal();
+        xs[slot] = x;
+        ys[slot] = y;
+        codes[slot] = intern(code);
+        block.attach(this, slot);
+    }
+
+    // Переносить блок з іншого сховища (або окремий блок без сховища) в це;
+    // дескриптор лишається тим самим об'єктом.
+    public void adopt(Block block) {
+        BlockStore from = block.getStore();
+        if (from == this) return;
+        if (from == null) {
+            place(block, block.getType(), block.getX(), block.getY(), block.getCode());
+            return;
+        }
+        int old = block.getSlot();
+        int slot = allocate();
+        types[slot] = from.types[old];
+        xs[slot] = from.xs[old];
+        ys[slot] = from.ys[old];
+        codes[slot] = intern(from.codes[old]);
+        from.free(old);
+        block.attach(this, slot);
+    }
+
+    // Вилучає блок зі сховища, але лишає його придатним до використання
+    // (наприклад, для повернення видаленого блоку): дані переходять у сам дескриптор.
+    public void release(Block block) {
+        if (block.getStore() != this) return;
+        int slot = block.getSlot();
+        block.detach();
+        free(slot);
+    }
+
+    public int size() {
+        return size - freeCount;
+    }
+
+    private int allocate() {
+        if (freeCount > 0) return free[--freeCount];
+        if (size == xs.length) grow();
+        return size++;
+    }
+
+    private void free(int slot) {
+        codes[slot] = null;
+        labels[slot] = null;
+        if (freeCount == free.length) free = Arrays.copyOf(free, Math.max(8, free.length * 2));
+        free[freeCount++] = slot;
+    }
+
+    private void grow() {
+        int capacity = xs.length * 2;
+        types = Arrays.copyOf(types, capacity);
+        xs = Arrays.copyOf(xs, capacity);
+        ys = Arrays.copyOf(ys, capacity);
+        codes = Arrays.copyOf(codes, capacity);
+        labels = Arrays.copyOf(labels, capacity);
+        labelDX = Arrays.copyOf(labelDX, capacity);
+        labelDY = Arrays.copyOf(labelDY, capacity);
+    }
+
+    private String intern(String code) {
+        if (code == null) return null;
+        // Коди, яких уже немає в жодному блоці, час від часу викидаються з пулу.
+        if (pool.size() > 2 * size() + 64) {
+            pool.clear();
+            for (int i = 0; i < size; i++) {
+                if (codes[i] != null) pool.putIfAbsent(codes[i], codes[i]);
+            }
+        }
+        String canonical = pool.putIfAbsent(code, code);
+        return canonical != null ? canonical : code;
+    }
+
+    public BlockType getType(int slot) {
+        return TYPES[types[slot]];
+    }
+
+    public int getX(int slot) {
+        return xs[slot];
+    }
+
+    public int getY(int slot) {
+        return ys[slot];
+    }
+
+    public String getCode(int slot) {
+        return codes[slot];
+    }
+
+    public void setCode(int slot, String code) {
+        codes[slot] = intern(code);
+        labels[slot] = null;
+    }
+
+    public void move(int slot, int dx, int dy) {
+        xs[slot] += dx;
+        ys[slot] += dy;
+    }
+
+    // Підпис блоку для шрифту графічного контексту; вимірюється лише після зміни коду чи шрифту.
+    public String getLabel(int slot, Graphics2D g) {
+        Font font = g.getFont();
+        if (font != labelFont && !font.equals(labelFont)) {
+            Arrays.fill(labels, 0, size, null);
+            labelFont = font;
+        }
+        if (labels[slot] == null) {
+            FontMetrics fm = g.getFontMetrics(font);
+            String displayText = label(getType(slot), codes[slot], fm);
+            labelDX[slot] = (short) labelDX(displayText, fm);
+            labelDY[slot] = (short) labelDY(fm);
+            labels[slot] = displayText;
+        }
+        return labels[slot];
+    }
+
+    // Тип блоку і, якщо вміщується, його код.
+    static String label(BlockType type, String code, FontMetrics fm) {
+        String displayText = type.toString();
+        if (code != null && !code.isEmpty()) {
+            String withCode = displayText + ": " + code;
+            if (fm.stringWidth(withCode) <= Block.WIDTH - 10) {
+                displayText = withCode;
+            }
+        }
+        return displayText;
+    }
+
+    static int labelDX(String label, FontMetrics fm) {
+        return (Block.WIDTH - fm.stringWidth(label)) / 2;
+    }
+
+    static int labelDY(FontMetrics fm) {
+        return (Block.HEIGHT - fm.getHeight()) / 2 + fm.getAscent();
+    }
+
+    // Зсув підпису в блоці; дійсний після getLabel().
+    public int getLabelDX(int slot) {
+        return labelDX[slot];
+    }
+
+    public int getLabelDY(int slot) {
+        return labelDY[slot];
+    }
+}
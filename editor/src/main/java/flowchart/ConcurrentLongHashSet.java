@@ -0,0 +1,184 @@
+package flowchart;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Безблокувальна таблиця 64-бітних хешів станів для паралельного пошуку.
+// Хеші розкладено по сегментах за старшими бітами; кожен сегмент — таблиця
+// з відкритою адресацією, куди вставляють CAS у порожню комірку. Читання
+// не чекає ніколи. Заповнена наполовину таблиця переноситься у вдвічі більшу
+// спільними зусиллями: потоки розбирають її частинами, заморожують комірки
+// (старший біт) і копіюють значення, тож пам'ять відповідає кількості
+// знайдених станів, а не ліміту.
+class ConcurrentLongHashSet implements StateSet {
+    private static final int SEGMENT_BITS = 6;
+    private static final int INITIAL_CAPACITY = 16;
+    // Скільки комірок переносить потік за один раз.
+    private static final int MIGRATION_CHUNK = 1024;
+
+    private static final long EMPTY = 0L;
+    // Старший біт позначає заморожену комірку; самі хеші його не мають.
+    private static final long FROZEN = Long.MIN_VALUE;
+
+    private static final int ADDED = 0;
+    private static final int PRESENT = 1;
+    private static final int MOVED = 2;
+    private static final int ABSENT = 3;
+
+    private final AtomicReferenceArray<Table> segments = new AtomicReferenceArray<>(1 << SEGMENT_BITS);
+    private final AtomicLong size = new AtomicLong();
+
+    public ConcurrentLongHashSet() {
+        for (int i = 0; i < segments.length(); i++) {
+            segments.set(i, new Table(INITIAL_CAPACITY));
+        }
+    }
+
+    private static final class Table {
+        final AtomicLongArray slots;
+        final int mask;
+        final AtomicInteger count = new AtomicInteger();
+        final AtomicReference<Table> next = new AtomicReference<>();
+        final AtomicInteger claimedChunks = new AtomicInteger();
+        final AtomicInteger migratedChunks = new AtomicInteger();
+
+        Table(int capacity) {
+            slots = new AtomicLongArray(capacity);
+            mask = capacity - 1;
+        }
+
+        int chunkCount() {
+            return (slots.length() + MIGRATION_CHUNK - 1) / MIGRATION_CHUNK;
+        }
+
+        // ADDED, PRESENT або MOVED, якщо на шляху зондування трапилась заморожена
+        // порожня комірка (чи таблиця заповнена): тоді вставляти треба в наступну.
+        int insert(long hash) {
+            for (int i = index(hash, mask), probes = 0; probes <= mask; i = (i + 1) & mask, probes++) {
+                long current = slots.get(i);
+                if (current == EMPTY) {
+                    if (slots.compareAndSet(i, EMPTY, hash)) {
+                        count.incrementAndGet();
+                        return ADDED;
+                    }
+                    current = slots.get(i);
+                }
+                if ((current & ~FROZEN) == hash) return PRESENT;
+                if (current == FROZEN) return MOVED;
+            }
+            return MOVED;
+        }
+
+        // PRESENT, ABSENT або MOVED. Заморожена порожня комірка означає, що на
+        // момент переносу хеша тут не було, тож далі його шукають лише в наступній таблиці.
+        int find(long hash) {
+            for (int i = index(hash, mask), probes = 0; probes <= mask; i = (i + 1) & mask, probes++) {
+                long current = slots.get(i);
+                if ((current & ~FROZEN) == hash) return PRESENT;
+                if (current == EMPTY) return ABSENT;
+                if (current == FROZEN) return MOVED;
+            }
+            return MOVED;
+        }
+
+        void migrateChunk(int chunk, Table target) {
+            int end = Math.min(slots.length(), (chunk + 1) * MIGRATION_CHUNK);
+            for (int i = chunk * MIGRATION_CHUNK; i < end; i++) {
+                long current;
+                do {
+                    current = slots.get(i);
+                } while (!slots.compareAndSet(i, current, current | FROZEN));
+                if (current != EMPTY) target.insert(current);
+            }
+        }
+    }
+
+    @Override
+    public boolean add(long hash) {
+        hash = normalize(hash);
+        int segment = segmentOf(hash);
+        Table table = segments.get(segment);
+        while (true) {
+            int result = table.insert(hash);
+            if (result == ADDED) {
+                size.incrementAndGet();
+                if (table.count.get() * 2 > table.slots.length()) migrate(segment, table);
+                return true;
+            }
+            if (result == PRESENT) return false;
+            table = migrate(segment, table);
+        }
+    }
+
+    @Override
+    public boolean contains(long hash) {
+        hash = normalize(hash);
+        Table table = segments.get(segmentOf(hash));
+        while (true) {
+            int result = table.find(hash);
+            if (result != MOVED) return result == PRESENT;
+            table = table.next.get();
+            if (table == null) return false;
+        }
+    }
+
+    // Переносить table у вдвічі більшу таблицю разом з іншими потоками і
+    // повертає нову, коли перенесено все. Вставка чекає кінця переносу: інакше
+    // хеш, ще не скопійований зі старої таблиці, можна було б додати вдруге.
+    private Table migrate(int segment, Table table) {
+        Table target = table.next.get();
+        if (target == null) {
+            table.next.compareAndSet(null, new Table(table.slots.length() * 2));
+            target = table.next.get();
+        }
+        int chunks = table.chunkCount();
+        int chunk;
+        while (table.claimedChunks.get() < chunks && (chunk = table.claimedChunks.getAndIncrement()) < chunks) {
+            table.migrateChunk(chunk, target);
+            table.migratedChunks.incrementAndGet();
+        }
+        // Частину, яку ще переносить інший потік, лишається дочекатися.
+        while (table.migratedChunks.get() < chunks) {
+            Thread.yield();
+        }
+        segments.compareAndSet(segment, table, target);
+        return target;
+    }
+
+    private static long normalize(long hash) {
+        hash &= ~FROZEN;
+        return hash == EMPTY ? 1L : hash;
+    }
+
+    private static int segmentOf(long hash) {
+        return (int) (hash >>> (Long.SIZE - 1 - SEGMENT_BITS));
+    }
+
+    private static int index(long hash, int mask) {
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    @Override
+    public long size() {
+        return size.get();
+    }
+
+    @Override
+    public long memoryBytes() {
+        long bytes = 0;
+        for (int i = 0; i < segments.length(); i++) {
+            for (Table table = segments.get(i); table != null; table = table.next.get()) {
+                bytes += (long) table.slots.length() * Long.BYTES;
+            }
+        }
+        return bytes;
+    }
+
+    @Override
+    public boolean isExact() {
+        return true;
+    }
+}
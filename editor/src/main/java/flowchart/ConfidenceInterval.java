@@ -0,0 +1,44 @@
+package flowchart;
+
+// Довірчий інтервал Вілсона для частки успішних виконань. На відміну від
+// наївного p ± z·sqrt(p(1-p)/n) він не вироджується в точку при 0% і 100%
+// і залишається коректним для малої кількості виконань.
+class ConfidenceInterval {
+    // z для двобічного рівня довіри 95%.
+    public static final double Z_95 = 1.959963984540054;
+
+    private final double lower;
+    private final double upper;
+
+    private ConfidenceInterval(double lower, double upper) {
+        this.lower = lower;
+        this.upper = upper;
+    }
+
+    public static ConfidenceInterval wilson(int successes, int trials, double z) {
+        if (trials <= 0) return new ConfidenceInterval(0.0, 1.0);
+        double p = (double) successes / trials;
+        double z2 = z * z;
+        double denominator = 1 + z2 / trials;
+        double center = (p + z2 / (2.0 * trials)) / denominator;
+        double margin = z * Math.sqrt(p * (1 - p) / trials + z2 / (4.0 * trials * trials)) / denominator;
+        return new ConfidenceInterval(Math.max(0.0, center - margin), Math.min(1.0, center + margin));
+    }
+
+    public double getLower() {
+        return lower;
+    }
+
+    public double getUpper() {
+        return upper;
+    }
+
+    public double getHalfWidth() {
+        return (upper - lower) / 2;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("[%.2f%%; %.2f%%]", lower * 100, upper * 100);
+    }
+}
@@ -0,0 +1,138 @@
+package flowchart;
+
+import java.util.*;
+
+// Індекс з'єднань блок-схеми: для кожного блоку — вихідні з'єднання окремо
+// для звичайного переходу та гілок True/False, а також вхідні. У кожному
+// списку зберігається порядок додавання, тож first() повертає те саме
+// з'єднання, що й перебір списку connections від початку.
+class ConnectionGraph {
+    private final Map<Block, Edges> edges = new IdentityHashMap<>();
+
+    // Списки створюються з першим з'єднанням: у більшості блоків є лише
+    // звичайний вихід і вхід, і на великих схемах порожні списки коштують більше за самі з'єднання.
+    private static class Edges {
+        // Спільний порожній список замість Collections.emptyList(): той самий клас,
+        // що й справжні списки, тож обхід у гарячих місцях лишається мономорфним.
+        // Його ніколи не змінюють (remove() на порожньому списку нічого не робить).
+        private static final List<Connection> NONE = new ArrayList<>(0);
+
+        List<Connection> next;
+        List<Connection> onTrue;
+        List<Connection> onFalse;
+        List<Connection> incoming;
+
+        List<Connection> outgoing(Boolean condition) {
+            List<Connection> list = condition == null ? next : condition ? onTrue : onFalse;
+            return list != null ? list : NONE;
+        }
+
+        List<Connection> incoming() {
+            return incoming != null ? incoming : NONE;
+        }
+
+        void addOutgoing(Connection conn) {
+            if (conn.condition == null) {
+                next = append(next, conn);
+            } else if (conn.condition) {
+                onTrue = append(onTrue, conn);
+            } else {
+                onFalse = append(onFalse, conn);
+            }
+        }
+
+        void addIncoming(Connection conn) {
+            incoming = append(incoming, conn);
+        }
+
+        private static List<Connection> append(List<Connection> list, Connection conn) {
+            if (list == null) list = new ArrayList<>(1);
+            list.add(conn);
+            return list;
+        }
+    }
+
+    private Edges edgesOf(Block block) {
+        return edges.computeIfAbsent(block, b -> new Edges());
+    }
+
+    public void rebuild(List<Connection> connections) {
+        edges.clear();
+        for (Connection conn : connections) {
+            add(conn);
+        }
+    }
+
+    public void add(Connection conn) {
+        if (conn.getFrom() != null) {
+            edgesOf(conn.getFrom()).addOutgoing(conn);
+        }
+        if (conn.getTo() != null) {
+            edgesOf(conn.getTo()).addIncoming(conn);
+        }
+    }
+
+    public void remove(Connection conn) {
+        Edges from = conn.getFrom() != null ? edges.get(conn.getFrom()) : null;
+        if (from != null) from.outgoing(conn.condition).remove(conn);
+        Edges to = conn.getTo() != null ? edges.get(conn.getTo()) : null;
+        if (to != null) to.incoming().remove(conn);
+    }
+
+    // Зміни кінця чи гілки з'єднання, яке вже в індексі, робляться лише через ці методи.
+    public void setTo(Connection conn, Block to) {
+        if (conn.getTo() != null) {
+            Edges old = edges.get(conn.getTo());
+            if (old != null) old.incoming().remove(conn);
+        }
+        conn.setTo(to);
+        if (to != null) edgesOf(to).addIncoming(conn);
+    }
+
+    public void setCondition(Connection conn, boolean condition) {
+        Edges from = edgesOf(conn.getFrom());
+        from.outgoing(conn.condition).remove(conn);
+        conn.setCondition(condition);
+        from.addOutgoing(conn);
+    }
+
+    // Перше з'єднання заданого виду з блоку (null — звичайний перехід).
+    public Connection first(Block from, Boolean condition) {
+        Edges e = edges.get(from);
+        if (e == null) return null;
+        List<Connection> list = e.outgoing(condition);
+        return list.isEmpty() ? null : list.get(0);
+    }
+
+    public List<Connection> outgoing(Block from, Boolean condition) {
+        Edges e = edges.get(from);
+        return e != null ? Collections.unmodifiableList(e.outgoing(condition)) : Collections.emptyList();
+    }
+
+    public List<Connection> incoming(Block to) {
+        Edges e = edges.get(to);
+        return e != null ? Collections.unmodifiableList(e.incoming()) : Collections.emptyList();
+    }
+
+    // Прибирає блок з індексу разом з усіма його з'єднаннями і повертає їх.
+    public Set<Connection> removeBlock(Block block) {
+        Set<Connection> removed = Collections.newSetFromMap(new IdentityHashMap<>());
+        Edges e = edges.remove(block);
+        if (e == null) return removed;
+        removed.addAll(e.outgoing(null));
+        removed.addAll(e.outgoing(true));
+        removed.addAll(e.outgoing(false));
+        removed.addAll(e.incoming());
+        for (Connection conn : removed) {
+            if (conn.getFrom() != block) {
+                Edges from = edges.get(conn.getFrom());
+                if (from != null) from.outgoing(conn.condition).remove(conn);
+            }
+            if (conn.getTo() != block && conn.getTo() != null) {
+                Edges to = edges.get(conn.getTo());
+                if (to != null) to.incoming().remove(conn);
+            }
+        }
+        return removed;
+    }
+}
@@ -0,0 +1,75 @@
+package flowchart;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+
+// Фонова задача редактора: call() виконується поза потоком подій, хід
+// повідомляється через setProgress()/setMessage() і publish(), а результат,
+// помилка чи скасування приходять у потоці подій. Задачу скасовує
+// cancel(true), що перериває потік call(); довгі цикли мають перевіряти
+// isCancelled() або переривання.
+abstract class EditorTask<T, V> extends SwingWorker<T, V> {
+    private final Component parent;
+    private final String title;
+    private volatile String message;
+
+    protected EditorTask(Component parent, String title) {
+        this.parent = parent;
+        this.title = title;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    // Короткий опис поточного кроку для рядка стану; можна викликати з будь-якого потоку.
+    protected void setMessage(String message) {
+        String old = this.message;
+        this.message = message;
+        firePropertyChange("message", old, message);
+    }
+
+    // Частка виконаного, від done з total.
+    protected void setProgress(long done, long total) {
+        setProgress(total > 0 ? (int) Math.min(100, done * 100 / total) : 0);
+    }
+
+    protected abstract T call() throws Exception;
+
+    protected abstract void succeeded(T result);
+
+    protected void failed(Throwable error) {
+        JOptionPane.showMessageDialog(parent, title + ": " + error.getMessage(), "Помилка", JOptionPane.ERROR_MESSAGE);
+    }
+
+    protected void cancelled() {
+    }
+
+    @Override
+    protected final T doInBackground() throws Exception {
+        return call();
+    }
+
+    @Override
+    protected final void done() {
+        if (isCancelled()) {
+            cancelled();
+            return;
+        }
+        try {
+            succeeded(get());
+        } catch (CancellationException e) {
+            cancelled();
+        } catch (ExecutionException e) {
+            failed(e.getCause() != null ? e.getCause() : e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package flowchart;
+
+import java.awt.*;
+import java.awt.event.*;
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.logging.FileHandler;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.logging.SimpleFormatter;
+import javax.swing.AbstractButton;
+
+// Спостереження за потоком подій. Власна черга подій вимірює, скільки триває
+// обробка кожної події (тобто всі її слухачі разом), а проба раз на 100 мс
+// ставить у чергу порожню подію й вимірює, скільки та чекала. Сторожовий потік
+// помічає подію, що обробляється довше за поріг, і знімає зразки стеку потоку
+// подій, доки вона не завершиться; зависання пишеться в журнал разом із ними.
+//
+// Статистика змінюється й читається лише в потоці подій.
+class EdtMonitor extends EventQueue {
+    public static final String QUEUE_LATENCY = "Черга подій (очікування)";
+    public static final String PAINT = "Малювання схеми";
+    public static final int DEFAULT_STALL_THRESHOLD_MS = 200;
+    private static final int PROBE_INTERVAL_MS = 100;
+    private static final int SAMPLE_INTERVAL_MS = 20;
+    private static final int MAX_SAMPLES = 200;
+    private static final int MAX_FRAMES = 25;
+    private static final Logger LOG = Logger.getLogger(EdtMonitor.class.getName());
+
+    private static volatile EdtMonitor installed;
+
+    // Пробна подія: сама в статистику обробки не потрапляє.
+    private static class ProbeEvent extends InvocationEvent {
+        ProbeEvent(Runnable runnable) {
+            super(Toolkit.getDefaultToolkit(), runnable);
+        }
+    }
+
+    private final Map<String, LatencyStats> stats = new LinkedHashMap<>();
+    private final ScheduledExecutorService watchdog = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "edt-monitor");
+        t.setDaemon(true);
+        return t;
+    });
+    private volatile long thresholdNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_STALL_THRESHOLD_MS);
+    private volatile boolean probePending;
+    private int stalls;
+    // Поточна обробка: початок (0 — потік подій вільний) і потік, що її виконує.
+    private volatile long dispatchStart;
+    private volatile Thread edt;
+    // Модальний діалог обробляє події всередині іншої події; depth рахує вкладеність.
+    private int depth;
+    private int nestedLoops;
+    // Зразки стеку для обробки, що почалася в sampledStart.
+    private final List<StackTraceElement[]> samples = new ArrayList<>();
+    private long sampledStart;
+
+    private EdtMonitor() {
+        stats.put(QUEUE_LATENCY, new LatencyStats());
+        stats.put(PAINT, new LatencyStats());
+    }
+
+    // Вмикає спостереження для всього застосунку; повторний виклик повертає той самий монітор.
+    public static synchronized EdtMonitor install() {
+        if (installed != null) return installed;
+        EdtMonitor monitor = new EdtMonitor();
+        openLogFile();
+        Toolkit.getDefaultToolkit().getSystemEventQueue().push(monitor);
+        monitor.watchdog.scheduleWithFixedDelay(monitor::probe, PROBE_INTERVAL_MS, PROBE_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        monitor.watchdog.scheduleWithFixedDelay(monitor::sample, SAMPLE_INTERVAL_MS, SAMPLE_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        installed = monitor;
+        return monitor;
+    }
+
+    public static EdtMonitor getInstalled() {
+        return installed;
+    }
+
+    // Тривалість ділянки, що почалася в startNanos (System.nanoTime()); без монітора нічого не робить.
+    public static void record(String name, long startNanos) {
+        EdtMonitor monitor = installed;
+        if (monitor == null || !isDispatchThread()) return;
+        monitor.stats(name).add(System.nanoTime() - startNanos);
+    }
+
+    public int getStallThresholdMillis() {
+        return (int) TimeUnit.NANOSECONDS.toMillis(thresholdNanos);
+    }
+
+    public void setStallThresholdMillis(int millis) {
+        thresholdNanos = TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    public int getStallCount() {
+        return stalls;
+    }
+
+    public Map<String, LatencyStats> getStats() {
+        return Collections.unmodifiableMap(stats);
+    }
+
+    public void clear() {
+        for (LatencyStats s : stats.values()) {
+            s.clear();
+        }
+        stalls = 0;
+    }
+
+    @Override
+    protected void dispatchEvent(AWTEvent event) {
+        if (event instanceof ProbeEvent) {
+            super.dispatchEvent(event);
+            return;
+        }
+        String name = describe(event);
+        long start = System.nanoTime();
+        edt = Thread.currentThread();
+        if (depth++ > 0) nestedLoops++;
+        int loopsBefore = nestedLoops;
+        dispatchStart = start;
+        try {
+            super.dispatchEvent(event);
+        } finally {
+            long end = System.nanoTime();
+            // Після вкладеної події модальний цикл чекає на наступну, тож зовнішня
+            // подія далі не стежиться: сторож бачив би очікування як зависання.
+            depth--;
+            dispatchStart = 0;
+            long duration = end - start;
+            // Подія, під час якої був відкритий модальний діалог, тривала стільки, скільки
+            // діалог був на екрані; такий час нічого не каже про швидкодію.
+            if (nestedLoops == loopsBefore) {
+                stats(name).add(duration);
+                if (duration >= thresholdNanos) {
+                    stalls++;
+                    List<StackTraceElement[]> stacks = takeSamples(start);
+                    watchdog.execute(() -> logStall(name, duration, stacks));
+                }
+            } else {
+                takeSamples(start);
+            }
+        }
+    }
+
+    private LatencyStats stats(String name) {
+        return stats.computeIfAbsent(name, k -> new LatencyStats());
+    }
+
+    // Назва для статистики: вид події та компонент, якому вона адресована.
+    // Дія кнопки виконується під час відпускання миші або натискання клавіші на ній.
+    private static String describe(AWTEvent event) {
+        Object source = event.getSource();
+        String target = source instanceof AbstractButton && !((AbstractButton) source).getText().isEmpty()
+                ? "кнопка «" + ((AbstractButton) source).getText() + "»"
+                : source.getClass().getSimpleName();
+        if (event instanceof MouseWheelEvent) return "Миша: прокрутка (" + target + ")";
+        if (event instanceof MouseEvent) {
+            switch (event.getID()) {
+                case MouseEvent.MOUSE_PRESSED: return "Миша: натискання (" + target + ")";
+                case MouseEvent.MOUSE_RELEASED: return "Миша: відпускання (" + target + ")";
+                case MouseEvent.MOUSE_CLICKED: return "Миша: клацання (" + target + ")";
+                case MouseEvent.MOUSE_DRAGGED: return "Миша: перетягування (" + target + ")";
+                default: return "Миша: рух (" + target + ")";
+            }
+        }
+        if (event instanceof KeyEvent) return "Клавіатура (" + target + ")";
+        if (event instanceof InvocationEvent) return "invokeLater / перемальовування";
+        if (event instanceof FocusEvent) return "Фокус (" + target + ")";
+        if (event instanceof PaintEvent) return "Малювання вікна";
+        if (event instanceof WindowEvent || event instanceof ComponentEvent) return "Вікно (" + target + ")";
+        return event.getClass().getSimpleName();
+    }
+
+    // Потік сторожа: проба затримки черги. Поки попередня проба не виконана
+    // (потік подій зайнятий), нова не ставиться, тож зависання дає один довгий вимір.
+    private void probe() {
+        if (probePending) return;
+        probePending = true;
+        long posted = System.nanoTime();
+        postEvent(new ProbeEvent(() -> {
+            probePending = false;
+            stats(QUEUE_LATENCY).add(System.nanoTime() - posted);
+        }));
+    }
+
+    // Потік сторожа: зразок стеку, якщо поточна подія обробляється довше за поріг.
+    private void sample() {
+        long start = dispatchStart;
+        Thread thread = edt;
+        if (start == 0 || thread == null || System.nanoTime() - start < thresholdNanos) return;
+        StackTraceElement[] stack = thread.getStackTrace();
+        synchronized (samples) {
+            if (sampledStart != start) {
+                samples.clear();
+                sampledStart = start;
+            }
+            if (samples.size() < MAX_SAMPLES) samples.add(stack);
+        }
+    }
+
+    private List<StackTraceElement[]> takeSamples(long start) {
+        synchronized (samples) {
+            if (sampledStart != start) return Collections.emptyList();
+            List<StackTraceElement[]> taken = new ArrayList<>(samples);
+            samples.clear();
+            sampledStart = 0;
+            return taken;
+        }
+    }
+
+    // Однакові стеки згортаються; найчастіший показує, де потік подій провів найбільше часу.
+    private static void logStall(String name, long durationNanos, List<StackTraceElement[]> stacks) {
+        Map<List<StackTraceElement>, Integer> counts = new HashMap<>();
+        for (StackTraceElement[] stack : stacks) {
+            List<StackTraceElement> top = Arrays.asList(stack).subList(0, Math.min(stack.length, MAX_FRAMES));
+            counts.merge(top, 1, Integer::sum);
+        }
+        List<Map.Entry<List<StackTraceElement>, Integer>> sorted = new ArrayList<>(counts.entrySet());
+        sorted.sort((a, b) -> b.getValue() - a.getValue());
+
+        StringBuilder message = new StringBuilder();
+        message.append("Потік подій зайнятий ").append(TimeUnit.NANOSECONDS.toMillis(durationNanos))
+                .append(" мс: ").append(name).append("; зразків стеку: ").append(stacks.size());
+        for (Map.Entry<List<StackTraceElement>, Integer> entry : sorted) {
+            message.append("\n  ").append(entry.getValue()).append(" з ").append(stacks.size()).append(':');
+            for (StackTraceElement frame : entry.getKey()) {
+                message.append("\n\tat ").append(frame);
+            }
+        }
+        LOG.warning(message.toString());
+    }
+
+    // Окрім консолі, зависання пишуться у файл поруч з автозбереженням.
+    private static void openLogFile() {
+        File dir = new File(System.getProperty("user.home"), ".flowchart-editor");
+        if (!dir.isDirectory() && !dir.mkdirs()) return;
+        try {
+            FileHandler handler = new FileHandler(new File(dir, "edt-stalls.log").getPath(), 1 << 20, 1, true);
+            handler.setFormatter(new SimpleFormatter());
+            LOG.addHandler(handler);
+        } catch (IOException | SecurityException e) {
+            LOG.log(Level.INFO, "Журнал зависань пишеться лише в консоль", e);
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package flowchart;
+
+import java.math.BigInteger;
+import java.util.*;
+
+// Модель програми для перебору переплетінь потоків: один крок — виконання
+// одного блоку одним потоком. Стан — лічильники блоків, значення змінних,
+// позиція у вхідних даних і вивід на цей момент. Повідомлення про помилки
+// потоків (stderr) зберігаються окремо для кожного потоку, тому помилки різних
+// потоків між собою не впорядковуються.
+class ExplorationModel {
+    private final FlowchartProgram program;
+    private final String[] inputLines;
+    // safeSteps[t][b]: крок потоку t у блоці b не взаємодіє з іншими потоками
+    // (немає вводу/виводу і спільних змінних, які інші потоки пишуть чи читають),
+    // тобто комутує з будь-яким їхнім кроком.
+    private final boolean[][] safeSteps;
+
+    public ExplorationModel(FlowchartProgram program, String input) {
+        this.program = program;
+        this.inputLines = (input + "\n").split("\n", -1);
+        this.safeSteps = computeSafeSteps(program);
+    }
+
+    public FlowchartProgram getProgram() {
+        return program;
+    }
+
+    private static boolean[][] computeSafeSteps(FlowchartProgram program) {
+        int threads = program.getThreadCount();
+        List<Set<Integer>> reads = new ArrayList<>();
+        List<Set<Integer>> writes = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Set<Integer> read = new HashSet<>();
+            Set<Integer> written = new HashSet<>();
+            for (int b = 0; b < program.getBlockCount(t); b++) {
+                read.addAll(program.getReadSlots(t, b));
+                written.add(program.getWrittenSlot(t, b));
+            }
+            reads.add(read);
+            writes.add(written);
+        }
+
+        boolean[][] safe = new boolean[threads][];
+        for (int t = 0; t < threads; t++) {
+            safe[t] = new boolean[program.getBlockCount(t)];
+            for (int b = 0; b < safe[t].length; b++) {
+                BlockType type = program.getBlockType(t, b);
+                if (type == BlockType.INPUT || type == BlockType.OUTPUT) continue;
+
+                boolean independent = true;
+                int written = program.getWrittenSlot(t, b);
+                for (int other = 0; other < threads && independent; other++) {
+                    if (other == t) continue;
+                    for (int slot : program.getReadSlots(t, b)) {
+                        if (program.isShared(slot) && writes.get(other).contains(slot)) independent = false;
+                    }
+                    if (written >= 0 && program.isShared(written)
+                            && (reads.get(other).contains(written) || writes.get(other).contains(written))) {
+                        independent = false;
+                    }
+                }
+                safe[t][b] = independent;
+            }
+        }
+        return safe;
+    }
+
+    public State initialState() {
+        int threads = program.getThreadCount();
+        int[] pcs = new int[threads];
+        for (int t = 0; t < threads; t++) {
+            pcs[t] = program.getStartBlock(t);
+        }
+        Object[] shared = new Object[program.getSharedCount()];
+        Arrays.fill(shared, 0L);
+        String[] stderr = new String[threads];
+        Arrays.fill(stderr, "");
+        return new State(pcs, shared, new Object[threads][], 0, "", stderr);
+    }
+
+    public boolean isEnabled(State state, int thread) {
+        return state.pcs[thread] != FlowchartProgram.END;
+    }
+
+    public boolean isTerminal(State state) {
+        for (int pc : state.pcs) {
+            if (pc != FlowchartProgram.END) return false;
+        }
+        return true;
+    }
+
+    public boolean isSafeStep(State state, int thread) {
+        int pc = state.pcs[thread];
+        return pc != FlowchartProgram.END && safeSteps[thread][pc];
+    }
+
+    public State step(State state, int thread) {
+        StepEnvironment env = new StepEnvironment(state, thread);
+        int[] pcs = state.pcs.clone();
+        try {
+            pcs[thread] = program.execute(thread, state.pcs[thread], env);
+        } catch (FlowchartProgram.ExecutionError e) {
+            pcs[thread] = FlowchartProgram.END;
+            env.stderr = env.stderr.clone();
+            env.stderr[thread] = env.stderr[thread] + "Exception in thread thread_" + (thread + 1) + ":\n"
+                    + e.getMessage() + "\n";
+        }
+        return new State(pcs, env.shared, env.locals, env.inputPosition, env.stdout, env.stderr);
+    }
+
+    // Вивід завершеного виконання (stdout, потім stderr усіх потоків) у нормалізованому вигляді.
+    public String getOutput(State state) {
+        StringBuilder output = new StringBuilder(state.stdout);
+        for (String err : state.stderr) {
+            if (!err.isEmpty()) output.append('\n').append(err);
+        }
+        return OutputMatcher.normalize(output.toString());
+    }
+
+    public boolean matches(State state, String expectedOutput) {
+        OutputMatcher matcher = new OutputMatcher(expectedOutput);
+        char[] stdout = state.stdout.toCharArray();
+        matcher.channel().feed(stdout, 0, stdout.length);
+        OutputMatcher.Channel errors = matcher.channel();
+        for (String err : state.stderr) {
+            char[] chars = err.toCharArray();
+            errors.feed(chars, 0, chars.length);
+        }
+        return matcher.isMatched();
+    }
+
+    public String describeStep(State state, int thread) {
+        return "Потік " + (thread + 1) + ": " + program.describe(thread, state.pcs[thread]);
+    }
+
+    static final class State {
+        final int[] pcs;
+        final Object[] shared;
+        final Object[][] locals;
+        final int inputPosition;
+        final String stdout;
+        final String[] stderr;
+        private long hash;
+
+        State(int[] pcs, Object[] shared, Object[][] locals, int inputPosition, String stdout, String[] stderr) {
+            this.pcs = pcs;
+            this.shared = shared;
+            this.locals = locals;
+            this.inputPosition = inputPosition;
+            this.stdout = stdout;
+            this.stderr = stderr;
+        }
+
+        // 64-бітний хеш усього стану; саме він зберігається у таблиці відвіданих.
+        public long hash() {
+            if (hash == 0) {
+                long h = 0x9E3779B97F4A7C15L;
+                for (int pc : pcs) h = mix(h, pc);
+                for (Object value : shared) h = mix(h, valueHash(value));
+                for (Object[] threadLocals : locals) {
+                    if (threadLocals == null) {
+                        h = mix(h, 0x51ED270B27A5F1A3L);
+                        continue;
+                    }
+                    for (Object value : threadLocals) h = mix(h, valueHash(value));
+                }
+                h = mix(h, inputPosition);
+                h = mix(h, stringHash(stdout));
+                for (String err : stderr) h = mix(h, stringHash(err));
+                hash = h == 0 ? 1 : h;
+            }
+            return hash;
+        }
+
+        private static long mix(long h, long value) {
+            h ^= value * 0xC2B2AE3D27D4EB4FL;
+            h = Long.rotateLeft(h, 31) * 0x9E3779B97F4A7C15L;
+            return h ^ (h >>> 29);
+        }
+
+        private static long valueHash(Object value) {
+            if (value == null) return 0x2545F4914F6CDD1DL;
+            if (value instanceof Long) return (Long) value;
+            if (value instanceof BigInteger) return ((BigInteger) value).longValue() ^ 0x6A09E667F3BCC909L;
+            if (value instanceof Double) return Double.doubleToLongBits((Double) value) ^ 0x5DEECE66DL;
+            return (Boolean) value ? 0x3C6EF372FE94F82BL : 0xA54FF53A5F1D36F1L;
+        }
+
+        private static long stringHash(String text) {
+            long h = 0xCBF29CE484222325L;
+            for (int i = 0; i < text.length(); i++) {
+                h = (h ^ text.charAt(i)) * 0x100000001B3L;
+            }
+            return h;
+        }
+    }
+
+    // Середовище одного кроку: копіює масиви стану лише тоді, коли в них пишуть.
+    private class StepEnvironment implements FlowchartProgram.Environment {
+        private final int thread;
+        Object[] shared;
+        Object[][] locals;
+        int inputPosition;
+        String stdout;
+        String[] stderr;
+        private boolean sharedCopied;
+        private boolean localsCopied;
+
+        StepEnvironment(State state, int thread) {
+            this.thread = thread;
+            this.shared = state.shared;
+            this.locals = state.locals;
+            this.inputPosition = state.inputPosition;
+            this.stdout = state.stdout;
+            this.stderr = state.stderr;
+        }
+
+        @Override
+        public Object get(int slot) {
+            if (program.isShared(slot)) return shared[slot];
+            Object[] threadLocals = locals[thread];
+            return threadLocals != null ? threadLocals[slot] : null;
+        }
+
+        @Override
+        public void set(int slot, Object value) {
+            if (program.isShared(slot)) {
+                if (!sharedCopied) {
+                    shared = shared.clone();
+                    sharedCopied = true;
+                }
+                shared[slot] = value;
+                return;
+            }
+            if (!localsCopied) {
+                locals = locals.clone();
+                locals[thread] = locals[thread] != null
+                        ? locals[thread].clone()
+                        : new Object[program.getSlotCount()];
+                localsCopied = true;
+            }
+            locals[thread][slot] = value;
+        }
+
+        @Override
+        public String readLine() {
+            if (inputPosition >= inputLines.length - 1) return null;
+            return inputLines[inputPosition++];
+        }
+
+        @Override
+        public void write(String text) {
+            stdout = stdout + text;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package flowchart;
+
+import java.util.*;
+
+class ExplorationResult {
+    private final TestCase testCase;
+    // Нормалізований вивід кожного досяжного завершення → чи містить він очікуваний результат.
+    private final Map<String, Boolean> outputs = new LinkedHashMap<>();
+    // Для кожного хибного виводу — розклад (послідовність кроків), що до нього веде.
+    private final Map<String, List<String>> counterexamples = new LinkedHashMap<>();
+    private long states;
+    private long transitions;
+    private long reducedStates;
+    private boolean complete = true;
+    private long elapsedNanos;
+    private String details = "";
+
+    public ExplorationResult(TestCase testCase) {
+        this.testCase = testCase;
+    }
+
+    public TestCase getTestCase() {
+        return testCase;
+    }
+
+    public synchronized boolean hasOutput(String output) {
+        return outputs.containsKey(output);
+    }
+
+    public synchronized void addOutput(String output, boolean passed, List<String> schedule) {
+        if (outputs.containsKey(output)) return;
+        outputs.put(output, passed);
+        if (!passed) {
+            counterexamples.put(output, schedule);
+        }
+    }
+
+    public synchronized Map<String, Boolean> getOutputs() {
+        return new LinkedHashMap<>(outputs);
+    }
+
+    public synchronized List<String> getCounterexample(String output) {
+        return counterexamples.get(output);
+    }
+
+    public synchronized boolean isPassed() {
+        return !outputs.isEmpty() && !outputs.containsValue(false);
+    }
+
+    public void setStatistics(long states, long transitions, long reducedStates, long elapsedNanos) {
+        this.states = states;
+        this.transitions = transitions;
+        this.reducedStates = reducedStates;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getStates() {
+        return states;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    // false, якщо пошук зупинено через ліміт станів — тоді перелік виводів може бути неповним.
+    public boolean isComplete() {
+        return complete;
+    }
+
+    public void setComplete(boolean complete) {
+        this.complete = complete;
+    }
+
+    public void setDetails(String details) {
+        this.details = details;
+    }
+
+    public String formatStatistics() {
+        return String.format("Станів: %d, переходів: %d, скорочено часткового порядку: %d, час: %.2f с%s%s",
+                states, transitions, reducedStates, elapsedNanos / 1e9,
+                details.isEmpty() ? "" : ", " + details,
+                complete ? "" : " (досягнуто ліміту станів, результат неповний)");
+    }
+}
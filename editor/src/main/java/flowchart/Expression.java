@@ -0,0 +1,594 @@
+package flowchart;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.*;
+import java.util.regex.Pattern;
+
+// Вираз мовою Python у межах того, що генерує редактор: цілі та дійсні числа,
+// True/False, змінні, арифметика (+ - * / // % **), порівняння (зокрема
+// ланцюжки a < b < c), and/or/not та дужки. Значення — Long, Double або Boolean;
+// цілі, що не вміщуються в long, зберігаються як BigInteger, як int у Python.
+abstract class Expression {
+    // Найбільший розмір цілого, з яким працює інтерпретатор (див. tooLarge).
+    static final int MAX_INTEGER_BITS = 1 << 20;
+    // Обмеження CPython 3.11+ на перетворення цілого в рядок (sys.get_int_max_str_digits).
+    static final int MAX_STR_DIGITS = 4300;
+
+    // Числові літерали Python: підкреслення між цифрами, 0x/0o/0b, експонента.
+    private static final String DIGITS = "[0-9](?:_?[0-9])*";
+    private static final Pattern DECIMAL_LITERAL = Pattern.compile("[1-9](?:_?[0-9])*|0+(?:_?0)*");
+    private static final Pattern PREFIXED_LITERAL = Pattern.compile(
+            "0(?:[xX](?:_?[0-9a-fA-F])+|[oO](?:_?[0-7])+|[bB](?:_?[01])+)");
+    private static final String EXPONENT = "[eE][+-]?" + DIGITS;
+    private static final Pattern FLOAT_LITERAL = Pattern.compile(
+            "(?:(?:" + DIGITS + ")?\\." + DIGITS + "|" + DIGITS + "\\.)(?:" + EXPONENT + ")?|" + DIGITS + EXPONENT);
+
+    interface SlotResolver {
+        int slotOf(String name);
+    }
+
+    interface Variables {
+        Object get(int slot);
+    }
+
+    public abstract Object evaluate(Variables variables);
+
+    public static Expression parse(String source, SlotResolver resolver) {
+        Parser parser = new Parser(source, resolver);
+        Expression expression = parser.parseOr();
+        parser.expectEnd();
+        return expression;
+    }
+
+    public static boolean isTrue(Object value) {
+        if (value instanceof Boolean) return (Boolean) value;
+        if (value instanceof Double) return (Double) value != 0.0;
+        if (value instanceof BigInteger) return ((BigInteger) value).signum() != 0;
+        return (Long) value != 0L;
+    }
+
+    // Текстове подання значення так, як його друкує Python (repr для float).
+    public static String format(Object value) {
+        if (value instanceof Boolean) return (Boolean) value ? "True" : "False";
+        if (value instanceof Double) return formatDouble((Double) value);
+        String text = value.toString();
+        if (text.length() - (text.startsWith("-") ? 1 : 0) > MAX_STR_DIGITS) {
+            throw new FlowchartProgram.ExecutionError("ValueError: Exceeds the limit (" + MAX_STR_DIGITS
+                    + " digits) for integer string conversion; use sys.set_int_max_str_digits() to increase the limit");
+        }
+        return text;
+    }
+
+    // Найкоротші цифри, що відновлюють число, дає Double.toString; Python
+    // переходить на експоненційний запис, коли порядок менший за -4 або не менший за 16.
+    private static String formatDouble(double d) {
+        if (Double.isNaN(d)) return "nan";
+        if (Double.isInfinite(d)) return d > 0 ? "inf" : "-inf";
+        String sign = d < 0 || 1 / d < 0 ? "-" : "";
+        BigDecimal decimal = new BigDecimal(Double.toString(Math.abs(d))).stripTrailingZeros();
+        String digits = decimal.unscaledValue().toString();
+        int exponent = digits.length() - 1 - decimal.scale();
+        if (decimal.signum() == 0 || (exponent >= -4 && exponent < 16)) {
+            String plain = decimal.toPlainString();
+            return sign + (plain.contains(".") ? plain : plain + ".0");
+        }
+        String mantissa = digits.length() > 1 ? digits.charAt(0) + "." + digits.substring(1) : digits;
+        return sign + mantissa + "e" + (exponent < 0 ? "-" : "+") + (Math.abs(exponent) < 10 ? "0" : "")
+                + Math.abs(exponent);
+    }
+
+    // Розбирає ціле так, як int() у Python: великі значення стають BigInteger.
+    public static Object parseInteger(String text) {
+        String trimmed = text.trim();
+        try {
+            return Long.parseLong(trimmed);
+        } catch (NumberFormatException e) {
+            return integer(new BigInteger(trimmed));
+        }
+    }
+
+    public static Object applyOperator(String operator, Object left, Object right) {
+        if (left instanceof Double || right instanceof Double || operator.equals("/")) {
+            return applyDouble(operator, toDouble(left), toDouble(right));
+        }
+        if (!(left instanceof BigInteger) && !(right instanceof BigInteger)) {
+            Object result = applyLong(operator, toLong(left), toLong(right));
+            if (result != null) return result;
+        }
+        return applyBig(operator, toBig(left), toBig(right));
+    }
+
+    private static Object applyDouble(String operator, double a, double b) {
+        switch (operator) {
+            case "+": return a + b;
+            case "-": return a - b;
+            case "*": return a * b;
+            case "/":
+                if (b == 0) throw new FlowchartProgram.ExecutionError("ZeroDivisionError: division by zero");
+                return a / b;
+            case "//":
+                if (b == 0) throw new FlowchartProgram.ExecutionError("ZeroDivisionError: float floor division by zero");
+                return floorDivide(a, b);
+            case "%":
+                if (b == 0) throw new FlowchartProgram.ExecutionError("ZeroDivisionError: float modulo");
+                return floorModulo(a, b);
+            case "**": {
+                if (a == 0 && b < 0) {
+                    throw new FlowchartProgram.ExecutionError("ZeroDivisionError: 0.0 cannot be raised to a negative power");
+                }
+                double result = Math.pow(a, b);
+                if (Double.isInfinite(result) && !Double.isInfinite(a) && !Double.isInfinite(b)) {
+                    throw new FlowchartProgram.ExecutionError("OverflowError: (34, 'Numerical result out of range')");
+                }
+                return result;
+            }
+        }
+        throw new IllegalArgumentException(operator);
+    }
+
+    // Остача має знак дільника, як float.__mod__ у CPython.
+    private static double floorModulo(double a, double b) {
+        double mod = a % b;
+        if (mod != 0) {
+            if ((b < 0) != (mod < 0)) mod += b;
+        } else {
+            mod = Math.copySign(0.0, b);
+        }
+        return mod;
+    }
+
+    // Те саме, що float.__floordiv__ у CPython: частка через fmod, а не floor(a / b).
+    private static double floorDivide(double a, double b) {
+        double mod = a % b;
+        double div = (a - mod) / b;
+        if (mod != 0 && (b < 0) != (mod < 0)) div -= 1.0;
+        if (div == 0) return Math.copySign(0.0, a / b);
+        double floor = Math.floor(div);
+        return div - floor > 0.5 ? floor + 1.0 : floor;
+    }
+
+    // Швидкий шлях для long; null, якщо результат не вміщується у 64 біти.
+    private static Object applyLong(String operator, long a, long b) {
+        try {
+            switch (operator) {
+                case "+": return Math.addExact(a, b);
+                case "-": return Math.subtractExact(a, b);
+                case "*": return Math.multiplyExact(a, b);
+                case "//":
+                    if (b == 0) throw new FlowchartProgram.ExecutionError("ZeroDivisionError: integer division or modulo by zero");
+                    if (a == Long.MIN_VALUE && b == -1) return null;
+                    return Math.floorDiv(a, b);
+                case "%":
+                    if (b == 0) throw new FlowchartProgram.ExecutionError("ZeroDivisionError: integer modulo by zero");
+                    return Math.floorMod(a, b);
+                case "**": {
+                    if (b < 0) return applyDouble("**", a, b);
+                    // Піднесення квадратом і множенням; база підноситься до квадрата,
+                    // лише якщо ще знадобиться, тож її переповнення означає переповнення результату.
+                    long result = 1;
+                    long base = a;
+                    for (long exponent = b; exponent != 0; exponent >>= 1) {
+                        if ((exponent & 1) != 0) result = Math.multiplyExact(result, base);
+                        if (exponent > 1) base = Math.multiplyExact(base, base);
+                    }
+                    return result;
+                }
+            }
+        } catch (ArithmeticException e) {
+            return null;
+        }
+        throw new IllegalArgumentException(operator);
+    }
+
+    private static Object applyBig(String operator, BigInteger a, BigInteger b) {
+        switch (operator) {
+            case "+": return integer(a.add(b));
+            case "-": return integer(a.subtract(b));
+            case "*":
+                if (a.bitLength() + b.bitLength() > MAX_INTEGER_BITS + 1) throw tooLarge();
+                return integer(a.multiply(b));
+            case "//":
+            case "%": {
+                if (b.signum() == 0) {
+                    throw new FlowchartProgram.ExecutionError(operator.equals("//")
+                            ? "ZeroDivisionError: integer division or modulo by zero"
+                            : "ZeroDivisionError: integer modulo by zero");
+                }
+                BigInteger[] qr = a.divideAndRemainder(b);
+                if (qr[1].signum() != 0 && qr[1].signum() != b.signum()) {
+                    qr[0] = qr[0].subtract(BigInteger.ONE);
+                    qr[1] = qr[1].add(b);
+                }
+                return integer(operator.equals("//") ? qr[0] : qr[1]);
+            }
+            case "**": {
+                if (b.signum() < 0) return applyDouble("**", toDouble(a), toDouble(b));
+                int baseBits = a.abs().bitLength();
+                if (baseBits <= 1) {
+                    // 0, 1 і -1 у будь-якому степені не ростуть.
+                    if (a.signum() < 0 && !b.testBit(0)) return 1L;
+                    return b.signum() == 0 ? 1L : a.longValue();
+                }
+                if (b.bitLength() > 31 || (double) (baseBits - 1) * b.longValue() > MAX_INTEGER_BITS) {
+                    throw tooLarge();
+                }
+                return integer(a.pow(b.intValue()));
+            }
+        }
+        throw new IllegalArgumentException(operator);
+    }
+
+    // Ціле у компактному поданні: Long, якщо вміщується, інакше BigInteger.
+    private static Object integer(BigInteger value) {
+        if (value.bitLength() < 64) return value.longValue();
+        if (value.bitLength() > MAX_INTEGER_BITS) throw tooLarge();
+        return value;
+    }
+
+    // CPython рахував би такі числа секундами, а інтерпретатор перевіряє
+    // тайм-аут лише між блоками, тому величину цілих обмежено.
+    private static FlowchartProgram.ExecutionError tooLarge() {
+        return new FlowchartProgram.ExecutionError(
+                "OverflowError: integer result exceeds " + MAX_INTEGER_BITS + " bits");
+    }
+
+    private static double toDouble(Object value) {
+        if (value instanceof Double) return (Double) value;
+        if (value instanceof BigInteger) {
+            double d = ((BigInteger) value).doubleValue();
+            if (Double.isInfinite(d)) {
+                throw new FlowchartProgram.ExecutionError("OverflowError: int too large to convert to float");
+            }
+            return d;
+        }
+        return toLong(value);
+    }
+
+    private static long toLong(Object value) {
+        if (value instanceof Boolean) return (Boolean) value ? 1L : 0L;
+        return (Long) value;
+    }
+
+    private static BigInteger toBig(Object value) {
+        if (value instanceof BigInteger) return (BigInteger) value;
+        return BigInteger.valueOf(toLong(value));
+    }
+
+    private static boolean compare(String operator, Object left, Object right) {
+        int cmp;
+        if (left instanceof Double || right instanceof Double) {
+            if (isNaN(left) || isNaN(right)) return operator.equals("!=");
+            cmp = compareWithDouble(left, right);
+        } else if (left instanceof BigInteger || right instanceof BigInteger) {
+            cmp = toBig(left).compareTo(toBig(right));
+        } else {
+            cmp = Long.compare(toLong(left), toLong(right));
+        }
+        switch (operator) {
+            case "==": return cmp == 0;
+            case "!=": return cmp != 0;
+            case "<": return cmp < 0;
+            case ">": return cmp > 0;
+            case "<=": return cmp <= 0;
+            default: return cmp >= 0;
+        }
+    }
+
+    private static boolean isNaN(Object value) {
+        return value instanceof Double && Double.isNaN((Double) value);
+    }
+
+    // Як і Python, ціле з дійсним порівнюється точно, без округлення цілого до double.
+    private static int compareWithDouble(Object left, Object right) {
+        if (left instanceof Double && right instanceof Double) {
+            double a = (Double) left;
+            double b = (Double) right;
+            return a < b ? -1 : a > b ? 1 : 0;
+        }
+        if (right instanceof Double) return -compareWithDouble(right, left);
+        double d = (Double) left;
+        if (Double.isInfinite(d)) return d > 0 ? 1 : -1;
+        return new BigDecimal(d).compareTo(new BigDecimal(toBig(right)));
+    }
+
+    // Імена змінних, які читає вираз (для аналізу залежностей між потоками).
+    public void collectSlots(Set<Integer> slots) {
+    }
+
+    static class Constant extends Expression {
+        private final Object value;
+
+        Constant(Object value) {
+            this.value = value;
+        }
+
+        @Override
+        public Object evaluate(Variables variables) {
+            return value;
+        }
+    }
+
+    static class Variable extends Expression {
+        private final String name;
+        private final int slot;
+
+        Variable(String name, int slot) {
+            this.name = name;
+            this.slot = slot;
+        }
+
+        @Override
+        public Object evaluate(Variables variables) {
+            Object value = variables.get(slot);
+            if (value == null) {
+                throw new FlowchartProgram.ExecutionError("NameError: name '" + name + "' is not defined");
+            }
+            return value;
+        }
+
+        @Override
+        public void collectSlots(Set<Integer> slots) {
+            slots.add(slot);
+        }
+    }
+
+    static class Binary extends Expression {
+        private final String operator;
+        private final Expression left;
+        private final Expression right;
+
+        Binary(String operator, Expression left, Expression right) {
+            this.operator = operator;
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        public Object evaluate(Variables variables) {
+            switch (operator) {
+                case "and": {
+                    Object l = left.evaluate(variables);
+                    return isTrue(l) ? right.evaluate(variables) : l;
+                }
+                case "or": {
+                    Object l = left.evaluate(variables);
+                    return isTrue(l) ? l : right.evaluate(variables);
+                }
+                default:
+                    return applyOperator(operator, left.evaluate(variables), right.evaluate(variables));
+            }
+        }
+
+        @Override
+        public void collectSlots(Set<Integer> slots) {
+            left.collectSlots(slots);
+            right.collectSlots(slots);
+        }
+    }
+
+    static class Comparison extends Expression {
+        private final List<String> operators;
+        private final List<Expression> operands;
+
+        Comparison(List<String> operators, List<Expression> operands) {
+            this.operators = operators;
+            this.operands = operands;
+        }
+
+        @Override
+        public Object evaluate(Variables variables) {
+            Object left = operands.get(0).evaluate(variables);
+            for (int i = 0; i < operators.size(); i++) {
+                Object right = operands.get(i + 1).evaluate(variables);
+                if (!compare(operators.get(i), left, right)) return false;
+                left = right;
+            }
+            return true;
+        }
+
+        @Override
+        public void collectSlots(Set<Integer> slots) {
+            for (Expression operand : operands) operand.collectSlots(slots);
+        }
+    }
+
+    static class Unary extends Expression {
+        private final String operator;
+        private final Expression operand;
+
+        Unary(String operator, Expression operand) {
+            this.operator = operator;
+            this.operand = operand;
+        }
+
+        @Override
+        public Object evaluate(Variables variables) {
+            Object value = operand.evaluate(variables);
+            switch (operator) {
+                case "not": return !isTrue(value);
+                case "-":
+                    if (value instanceof Double) return -(Double) value;
+                    return applyOperator("-", 0L, value);
+                default: return value instanceof Double || value instanceof BigInteger ? value : toLong(value);
+            }
+        }
+
+        @Override
+        public void collectSlots(Set<Integer> slots) {
+            operand.collectSlots(slots);
+        }
+    }
+
+    private static class Parser {
+        private final String source;
+        private final SlotResolver resolver;
+        private final List<String> tokens = new ArrayList<>();
+        private int position;
+
+        Parser(String source, SlotResolver resolver) {
+            this.source = source;
+            this.resolver = resolver;
+            tokenize();
+        }
+
+        private void tokenize() {
+            int i = 0;
+            while (i < source.length()) {
+                char c = source.charAt(i);
+                if (Character.isWhitespace(c)) {
+                    i++;
+                } else if (isAsciiDigit(c) || (c == '.' && i + 1 < source.length() && isAsciiDigit(source.charAt(i + 1)))) {
+                    // Літерал береться цілком (разом з літерами й підкресленнями),
+                    // а перевіряється вже в parseNumber(). Знак після e — частина
+                    // експоненти, якщо це не шістнадцяткове число (0x1e-5 — різниця).
+                    int start = i;
+                    boolean hex = c == '0' && i + 1 < source.length() && (source.charAt(i + 1) == 'x' || source.charAt(i + 1) == 'X');
+                    while (i < source.length()) {
+                        char d = source.charAt(i);
+                        char previous = i > start ? source.charAt(i - 1) : ' ';
+                        if (Character.isLetterOrDigit(d) || d == '_' || d == '.'
+                                || ((d == '+' || d == '-') && !hex && (previous == 'e' || previous == 'E'))) {
+                            i++;
+                        } else {
+                            break;
+                        }
+                    }
+                    tokens.add(source.substring(start, i));
+                } else if (Character.isLetter(c) || c == '_') {
+                    int start = i;
+                    while (i < source.length() && (Character.isLetterOrDigit(source.charAt(i)) || source.charAt(i) == '_')) i++;
+                    tokens.add(source.substring(start, i));
+                } else {
+                    String two = i + 1 < source.length() ? source.substring(i, i + 2) : "";
+                    if (two.equals("**") || two.equals("//") || two.equals("==") || two.equals("!=")
+                            || two.equals("<=") || two.equals(">=")) {
+                        tokens.add(two);
+                        i += 2;
+                    } else if ("+-*/%<>()".indexOf(c) >= 0) {
+                        tokens.add(String.valueOf(c));
+                        i++;
+                    } else {
+                        throw syntaxError();
+                    }
+                }
+            }
+        }
+
+        private static boolean isAsciiDigit(char c) {
+            return c >= '0' && c <= '9';
+        }
+
+        private Object parseNumber(String token) {
+            if (DECIMAL_LITERAL.matcher(token).matches()) {
+                return parseInteger(token.replace("_", ""));
+            }
+            if (PREFIXED_LITERAL.matcher(token).matches()) {
+                char prefix = Character.toLowerCase(token.charAt(1));
+                int radix = prefix == 'x' ? 16 : prefix == 'o' ? 8 : 2;
+                return integer(new BigInteger(token.substring(2).replace("_", ""), radix));
+            }
+            if (FLOAT_LITERAL.matcher(token).matches()) {
+                return Double.parseDouble(token.replace("_", ""));
+            }
+            throw syntaxError();
+        }
+
+        private FlowchartProgram.ExecutionError syntaxError() {
+            return new FlowchartProgram.ExecutionError("SyntaxError: invalid syntax: " + source);
+        }
+
+        private String peek() {
+            return position < tokens.size() ? tokens.get(position) : null;
+        }
+
+        private boolean accept(String token) {
+            if (token.equals(peek())) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        void expectEnd() {
+            if (position != tokens.size()) throw syntaxError();
+        }
+
+        Expression parseOr() {
+            Expression left = parseAnd();
+            while (accept("or")) left = new Binary("or", left, parseAnd());
+            return left;
+        }
+
+        private Expression parseAnd() {
+            Expression left = parseNot();
+            while (accept("and")) left = new Binary("and", left, parseNot());
+            return left;
+        }
+
+        private Expression parseNot() {
+            if (accept("not")) return new Unary("not", parseNot());
+            return parseComparison();
+        }
+
+        private Expression parseComparison() {
+            Expression first = parseArithmetic();
+            List<String> operators = new ArrayList<>();
+            List<Expression> operands = new ArrayList<>();
+            operands.add(first);
+            while (peek() != null && Arrays.asList("==", "!=", "<", ">", "<=", ">=").contains(peek())) {
+                operators.add(tokens.get(position++));
+                operands.add(parseArithmetic());
+            }
+            return operators.isEmpty() ? first : new Comparison(operators, operands);
+        }
+
+        private Expression parseArithmetic() {
+            Expression left = parseTerm();
+            while ("+".equals(peek()) || "-".equals(peek())) {
+                String operator = tokens.get(position++);
+                left = new Binary(operator, left, parseTerm());
+            }
+            return left;
+        }
+
+        private Expression parseTerm() {
+            Expression left = parseFactor();
+            while (peek() != null && Arrays.asList("*", "/", "//", "%").contains(peek())) {
+                String operator = tokens.get(position++);
+                left = new Binary(operator, left, parseFactor());
+            }
+            return left;
+        }
+
+        private Expression parseFactor() {
+            if (accept("-")) return new Unary("-", parseFactor());
+            if (accept("+")) return new Unary("+", parseFactor());
+            Expression base = parseAtom();
+            if (accept("**")) return new Binary("**", base, parseFactor());
+            return base;
+        }
+
+        private Expression parseAtom() {
+            String token = peek();
+            if (token == null) throw syntaxError();
+            position++;
+
+            if (token.equals("(")) {
+                Expression inner = parseOr();
+                if (!accept(")")) throw syntaxError();
+                return inner;
+            }
+            if (token.equals("True")) return new Constant(true);
+            if (token.equals("False")) return new Constant(false);
+            if (isAsciiDigit(token.charAt(0)) || token.charAt(0) == '.') {
+                return new Constant(parseNumber(token));
+            }
+            if (Character.isLetter(token.charAt(0)) || token.charAt(0) == '_') {
+                if (Arrays.asList("and", "or", "not").contains(token)) throw syntaxError();
+                return new Variable(token, resolver.slotOf(token));
+            }
+            throw syntaxError();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package flowchart;
+
+import java.io.*;
+import java.util.*;
+
+// Python-код одного потоку за його блоками та з'єднаннями. Не залежить від
+// панелі, тож код можна генерувати й у фоні — з незмінної копії схеми.
+class FlowchartCodeWriter {
+    private final List<Block> blocks;
+    private final ConnectionGraph graph;
+    private final List<String> sharedVariables;
+
+    public FlowchartCodeWriter(List<Block> blocks, ConnectionGraph graph, List<String> sharedVariables) {
+        this.blocks = blocks;
+        this.graph = graph;
+        this.sharedVariables = sharedVariables;
+    }
+
+    public FlowchartCodeWriter(FlowchartData data, List<String> sharedVariables) {
+        this.blocks = data.getBlocks();
+        this.graph = new ConnectionGraph();
+        this.graph.rebuild(data.getConnections());
+        this.sharedVariables = sharedVariables;
+    }
+
+    public Block findStartBlock() {
+        for (Block block : blocks) {
+            if (block.getType() == BlockType.START) {
+                return block;
+            }
+        }
+        return null;
+    }
+
+    public void write(PythonEmitter emitter) throws IOException {
+        Block startBlock = findStartBlock();
+
+        if (startBlock == null) {
+            emitter.line("# Не знайдено стартового блоку");
+            return;
+        }
+
+        new StructuredCodeGenerator(graph, new StructuredCodeGenerator.Statements() {
+            @Override
+            public String statement(Block block) {
+                return blockStatement(block);
+            }
+
+            @Override
+            public String condition(Block block) {
+                return sanitize(block);
+            }
+        }).generate(startBlock, emitter);
+    }
+
+    private static String sanitize(Block block) {
+        return block.getCode() != null ? block.getCode().replace("\n", "").trim() : "";
+    }
+
+    private String blockStatement(Block block) {
+        String sanitizedCode = sanitize(block);
+
+        switch (block.getType()) {
+            case START:
+                return "# Початок потоку";
+
+            case INPUT:
+                return sanitizedCode + " = int(input('Введіть значення для " + sanitizedCode + ": '))";
+
+            case ASSIGNMENT:
+                if (sanitizedCode.contains("=") && !sanitizedCode.contains("==")) {
+                    return sanitizedCode;
+                }
+                return "# [ПОМИЛКА] Некоректне присвоєння: " + sanitizedCode;
+
+            case OUTPUT:
+                String rawCode = block.getCode().trim();
+
+                // Якщо це ім'я змінної зі спільного списку — виводимо її значення через f-string
+                if (sharedVariables.contains(rawCode) && rawCode.matches("[a-zA-Z_][a-zA-Z_0-9]*")) {
+                    return "print(f'" + rawCode + " = {" + rawCode + "}')";
+                }
+                // Інакше — просто текст
+                rawCode = rawCode.replace("\\", "\\\\").replace("'", "\\'");
+                return "print('" + rawCode + "')";
+
+            case END:
+                return "# Кінець потоку";
+
+            default:
+                throw new IllegalArgumentException(block.getType().toString());
+        }
+    }
+}
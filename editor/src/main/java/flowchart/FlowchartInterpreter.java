@@ -0,0 +1,131 @@
+package flowchart;
+
+import java.util.*;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Виконує блок-схеми безпосередньо в JVM, без генерації Python і запуску
+// процесу: кожен потік блок-схеми — окремий віртуальний потік, спільні
+// змінні — у спільному атомарному сховищі.
+class FlowchartInterpreter implements TrialExecutor {
+    // Як часто (у блоках) потік перевіряє, чи не вичерпано час.
+    private static final int DEADLINE_CHECK_INTERVAL = 1024;
+
+    private final FlowchartProgram program;
+
+    public FlowchartInterpreter(FlowchartProgram program) {
+        this.program = program;
+    }
+
+    @Override
+    public void execute(String input, OutputMatcher matcher, long timeoutMillis)
+            throws InterruptedException, TimeoutException {
+        Run run = new Run(input + "\n", matcher, System.nanoTime() + timeoutMillis * 1_000_000L);
+
+        Thread[] threads = new Thread[program.getThreadCount()];
+        for (int i = 0; i < threads.length; i++) {
+            int thread = i;
+            threads[i] = Thread.ofVirtual().name("thread_" + (i + 1)).start(() -> run.runThread(thread));
+        }
+        try {
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        } finally {
+            run.stopped = true;
+        }
+
+        if (run.timedOut && !matcher.isMatched()) {
+            throw new TimeoutException();
+        }
+    }
+
+    private class Run {
+        private final AtomicReferenceArray<Object> shared = new AtomicReferenceArray<>(program.getSharedCount());
+        private final String input;
+        private final OutputMatcher.Channel stdout;
+        private final OutputMatcher.Channel stderr;
+        private final long deadline;
+        private int inputPosition;
+        private volatile boolean stopped;
+        private volatile boolean timedOut;
+
+        Run(String input, OutputMatcher matcher, long deadline) {
+            this.input = input;
+            this.stdout = matcher.channel();
+            this.stderr = matcher.channel();
+            this.deadline = deadline;
+            for (int i = 0; i < program.getSharedCount(); i++) {
+                shared.set(i, 0L);
+            }
+        }
+
+        void runThread(int thread) {
+            Object[] locals = new Object[program.getSlotCount()];
+            FlowchartProgram.Environment env = new FlowchartProgram.Environment() {
+                @Override
+                public Object get(int slot) {
+                    return program.isShared(slot) ? shared.get(slot) : locals[slot];
+                }
+
+                @Override
+                public void set(int slot, Object value) {
+                    if (program.isShared(slot)) {
+                        shared.set(slot, value);
+                    } else {
+                        locals[slot] = value;
+                    }
+                }
+
+                @Override
+                public String readLine() {
+                    return Run.this.readLine();
+                }
+
+                @Override
+                public void write(String text) {
+                    Run.this.write(stdout, text);
+                }
+            };
+
+            try {
+                int block = program.getStartBlock(thread);
+                long steps = 0;
+                while (block != FlowchartProgram.END && !stopped) {
+                    block = program.execute(thread, block, env);
+                    if (++steps % DEADLINE_CHECK_INTERVAL == 0 && System.nanoTime() > deadline) {
+                        timedOut = true;
+                        stopped = true;
+                    }
+                }
+            } catch (FlowchartProgram.ExecutionError e) {
+                write(stderr, "Exception in thread thread_" + (thread + 1) + ":\n" + e.getMessage() + "\n");
+            }
+        }
+
+        synchronized String readLine() {
+            if (inputPosition >= input.length()) return null;
+            int end = input.indexOf('\n', inputPosition);
+            if (end < 0) end = input.length();
+            String line = input.substring(inputPosition, end);
+            inputPosition = end + 1;
+            return line;
+        }
+
+        // Як і print у Python, кожен виклик записується цілим рядком.
+        synchronized void write(OutputMatcher.Channel channel, String text) {
+            if (channel.feed(text.toCharArray(), 0, text.length())) {
+                stopped = true;
+            }
+        }
+    }
+
+    @Override
+    public boolean isAlive() {
+        return true;
+    }
+
+    @Override
+    public void close() {
+    }
+}
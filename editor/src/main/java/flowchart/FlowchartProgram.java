@@ -0,0 +1,308 @@
+package flowchart;
+
+import java.util.*;
+
+// Блок-схеми всіх потоків, скомпільовані у компактні масиви: для кожного
+// блоку — тип, наступні блоки та розібрана інструкція. Семантика збігається
+// зі згенерованим Python-кодом: спільні змінні (global) стартують з 0,
+// решта імен — локальні змінні потоку.
+class FlowchartProgram {
+    public static final int END = -1;
+
+    static class ExecutionError extends RuntimeException {
+        ExecutionError(String message) {
+            super(message);
+        }
+    }
+
+    // Доступ до пам'яті та вводу/виводу, через який виконуються блоки.
+    interface Environment extends Expression.Variables {
+        void set(int slot, Object value);
+
+        // Наступний рядок stdin або null, якщо ввід вичерпано.
+        String readLine();
+
+        void write(String text);
+    }
+
+    private static final String[] ASSIGNMENT_OPERATORS = {"//=", "**=", "+=", "-=", "*=", "/=", "%=", "="};
+
+    private final List<String> slotNames = new ArrayList<>();
+    private final Map<String, Integer> slots = new HashMap<>();
+    private final int sharedCount;
+    private final ThreadCode[] threads;
+
+    private FlowchartProgram(List<FlowchartData> flowcharts, List<String> sharedVariables) {
+        for (String var : sharedVariables) {
+            slotOf(var);
+        }
+        sharedCount = slotNames.size();
+
+        threads = new ThreadCode[flowcharts.size()];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new ThreadCode(flowcharts.get(i), sharedVariables);
+        }
+    }
+
+    public static FlowchartProgram compile(List<FlowchartData> flowcharts, List<String> sharedVariables) {
+        return new FlowchartProgram(flowcharts, sharedVariables);
+    }
+
+    private int slotOf(String name) {
+        Integer slot = slots.get(name);
+        if (slot == null) {
+            slot = slotNames.size();
+            slots.put(name, slot);
+            slotNames.add(name);
+        }
+        return slot;
+    }
+
+    public int getThreadCount() {
+        return threads.length;
+    }
+
+    public int getSlotCount() {
+        return slotNames.size();
+    }
+
+    public int getSharedCount() {
+        return sharedCount;
+    }
+
+    public boolean isShared(int slot) {
+        return slot < sharedCount;
+    }
+
+    public String getSlotName(int slot) {
+        return slotNames.get(slot);
+    }
+
+    public int getStartBlock(int thread) {
+        return threads[thread].start;
+    }
+
+    public int getBlockCount(int thread) {
+        return threads[thread].types.length;
+    }
+
+    public BlockType getBlockType(int thread, int block) {
+        return threads[thread].types[block];
+    }
+
+    // Опис блоку для показу користувачу (тип і код, як на схемі).
+    public String describe(int thread, int block) {
+        return threads[thread].labels[block];
+    }
+
+    // Виконує один блок і повертає індекс наступного (або END).
+    public int execute(int thread, int block, Environment env) {
+        ThreadCode code = threads[thread];
+        Instruction instruction = code.instructions[block];
+
+        switch (code.types[block]) {
+            case START:
+                break;
+
+            case END:
+                return END;
+
+            case INPUT: {
+                env.write(instruction.text);
+                String line = env.readLine();
+                if (line == null) {
+                    throw new ExecutionError("EOFError: EOF when reading a line");
+                }
+                try {
+                    env.set(instruction.target, Expression.parseInteger(line));
+                } catch (NumberFormatException e) {
+                    throw new ExecutionError("ValueError: invalid literal for int() with base 10: '" + line + "'");
+                }
+                break;
+            }
+
+            case ASSIGNMENT:
+                if (instruction.expression != null) {
+                    Object value = instruction.expression.evaluate(env);
+                    if (instruction.operator != null) {
+                        Object current = env.get(instruction.target);
+                        if (current == null) {
+                            throw new ExecutionError("UnboundLocalError: '" + slotNames.get(instruction.target)
+                                    + "' referenced before assignment");
+                        }
+                        value = Expression.applyOperator(instruction.operator, current, value);
+                    }
+                    env.set(instruction.target, value);
+                }
+                break;
+
+            case OUTPUT:
+                if (instruction.target >= 0) {
+                    Object value = env.get(instruction.target);
+                    if (value == null) {
+                        throw new ExecutionError("NameError: name '" + slotNames.get(instruction.target) + "' is not defined");
+                    }
+                    env.write(instruction.text + Expression.format(value) + "\n");
+                } else {
+                    env.write(instruction.text + "\n");
+                }
+                break;
+
+            case CONDITION:
+                return Expression.isTrue(instruction.expression.evaluate(env))
+                        ? code.trueNext[block]
+                        : code.falseNext[block];
+        }
+
+        return code.next[block];
+    }
+
+    // Змінні, які блок читає, та змінна, в яку він пише (-1, якщо немає).
+    public Set<Integer> getReadSlots(int thread, int block) {
+        Instruction instruction = threads[thread].instructions[block];
+        Set<Integer> read = new HashSet<>();
+        if (instruction.expression != null) instruction.expression.collectSlots(read);
+        if (instruction.operator != null) read.add(instruction.target);
+        if (threads[thread].types[block] == BlockType.OUTPUT && instruction.target >= 0) read.add(instruction.target);
+        return read;
+    }
+
+    public int getWrittenSlot(int thread, int block) {
+        BlockType type = threads[thread].types[block];
+        if (type == BlockType.INPUT) return threads[thread].instructions[block].target;
+        if (type == BlockType.ASSIGNMENT && threads[thread].instructions[block].expression != null) {
+            return threads[thread].instructions[block].target;
+        }
+        return -1;
+    }
+
+    private static class Instruction {
+        Expression expression;
+        String operator;
+        int target = -1;
+        String text;
+    }
+
+    private class ThreadCode {
+        final int start;
+        final BlockType[] types;
+        final int[] next;
+        final int[] trueNext;
+        final int[] falseNext;
+        final Instruction[] instructions;
+        final String[] labels;
+
+        ThreadCode(FlowchartData data, List<String> sharedVariables) {
+            List<Block> blocks = data.getBlocks();
+            Map<Block, Integer> index = new HashMap<>();
+            for (int i = 0; i < blocks.size(); i++) {
+                index.put(blocks.get(i), i);
+            }
+
+            types = new BlockType[blocks.size()];
+            next = new int[blocks.size()];
+            trueNext = new int[blocks.size()];
+            falseNext = new int[blocks.size()];
+            instructions = new Instruction[blocks.size()];
+            labels = new String[blocks.size()];
+            Arrays.fill(next, END);
+            Arrays.fill(trueNext, END);
+            Arrays.fill(falseNext, END);
+
+            // Як і FlowchartPanel.findConnectionFrom, береться перше з'єднання кожного виду.
+            boolean[] hasNext = new boolean[blocks.size()];
+            boolean[] hasTrue = new boolean[blocks.size()];
+            boolean[] hasFalse = new boolean[blocks.size()];
+            for (Connection conn : data.getConnections()) {
+                Integer from = index.get(conn.getFrom());
+                if (from == null) continue;
+                Integer to = conn.getTo() != null ? index.get(conn.getTo()) : null;
+                int target = to != null ? to : END;
+                if (conn.condition == null) {
+                    if (!hasNext[from]) next[from] = target;
+                    hasNext[from] = true;
+                } else if (conn.condition) {
+                    if (!hasTrue[from]) trueNext[from] = target;
+                    hasTrue[from] = true;
+                } else {
+                    if (!hasFalse[from]) falseNext[from] = target;
+                    hasFalse[from] = true;
+                }
+            }
+
+            int startBlock = END;
+            for (int i = 0; i < blocks.size(); i++) {
+                Block block = blocks.get(i);
+                types[i] = block.getType();
+                instructions[i] = compileInstruction(block, sharedVariables);
+                labels[i] = block.getCode() != null && !block.getCode().isEmpty()
+                        ? block.getType() + ": " + block.getCode().trim()
+                        : block.getType().toString();
+                if (startBlock == END && block.getType() == BlockType.START) {
+                    startBlock = i;
+                }
+            }
+            start = startBlock;
+        }
+    }
+
+    private Instruction compileInstruction(Block block, List<String> sharedVariables) {
+        Instruction instruction = new Instruction();
+        String sanitizedCode = block.getCode() != null ? block.getCode().replace("\n", "").trim() : "";
+
+        switch (block.getType()) {
+            case INPUT:
+                instruction.target = slotOf(requireIdentifier(sanitizedCode));
+                instruction.text = "Введіть значення для " + sanitizedCode + ": ";
+                break;
+
+            case ASSIGNMENT:
+                // Некоректне присвоєння генерується як коментар, тобто нічого не робить.
+                if (sanitizedCode.contains("=") && !sanitizedCode.contains("==")) {
+                    compileAssignment(sanitizedCode, instruction);
+                }
+                break;
+
+            case OUTPUT: {
+                String rawCode = block.getCode() != null ? block.getCode().trim() : "";
+                if (sharedVariables.contains(rawCode) && rawCode.matches("[a-zA-Z_][a-zA-Z_0-9]*")) {
+                    instruction.target = slotOf(rawCode);
+                    instruction.text = rawCode + " = ";
+                } else {
+                    instruction.text = rawCode;
+                }
+                break;
+            }
+
+            case CONDITION:
+                instruction.expression = Expression.parse(sanitizedCode, this::slotOf);
+                break;
+
+            default:
+                break;
+        }
+        return instruction;
+    }
+
+    private void compileAssignment(String code, Instruction instruction) {
+        for (String operator : ASSIGNMENT_OPERATORS) {
+            int position = code.indexOf(operator);
+            if (position <= 0) continue;
+            // "=" усередині "<=", ">=" чи "!=" не є присвоєнням.
+            if (operator.equals("=") && "<>!".indexOf(code.charAt(position - 1)) >= 0) continue;
+
+            instruction.target = slotOf(requireIdentifier(code.substring(0, position).trim()));
+            instruction.operator = operator.length() > 1 ? operator.substring(0, operator.length() - 1) : null;
+            instruction.expression = Expression.parse(code.substring(position + operator.length()), this::slotOf);
+            return;
+        }
+        throw new ExecutionError("SyntaxError: invalid syntax: " + code);
+    }
+
+    private static String requireIdentifier(String name) {
+        if (!name.matches("[a-zA-Z_][a-zA-Z_0-9]*")) {
+            throw new ExecutionError("SyntaxError: cannot assign to " + name);
+        }
+        return name;
+    }
+}
@@ -0,0 +1,77 @@
+package flowchart;
+
+import java.util.*;
+import java.util.concurrent.Callable;
+
+// Незмінна копія схеми для фонового збереження: лише примітивні масиви й
+// рядки, без посилань на блоки панелі, які далі змінюються. call() щоразу
+// будує нові FlowchartData, тож копію можна читати з будь-якого потоку.
+class FlowchartSnapshot implements Callable<FlowchartData> {
+    private static final BlockType[] TYPES = BlockType.values();
+
+    private final byte[] types;
+    private final int[] xs;
+    private final int[] ys;
+    private final String[] codes;
+    // Номери блоків з'єднання та гілка (0 — звичайний перехід, 1 — True, 2 — False).
+    private final int[] froms;
+    private final int[] tos;
+    private final byte[] branches;
+
+    public FlowchartSnapshot(List<Block> blocks, List<Connection> connections) {
+        int n = blocks.size();
+        types = new byte[n];
+        xs = new int[n];
+        ys = new int[n];
+        codes = new String[n];
+        Map<Block, Integer> numbers = new IdentityHashMap<>(n * 2);
+        for (int i = 0; i < n; i++) {
+            Block block = blocks.get(i);
+            numbers.put(block, i);
+            types[i] = (byte) block.getType().ordinal();
+            xs[i] = block.getX();
+            ys[i] = block.getY();
+            codes[i] = block.getCode();
+        }
+
+        // З'єднання, яке ще тягнеться мишею (без кінця), не зберігається.
+        int count = 0;
+        for (Connection conn : connections) {
+            if (conn.getTo() != null) count++;
+        }
+        froms = new int[count];
+        tos = new int[count];
+        branches = new byte[count];
+        int i = 0;
+        for (Connection conn : connections) {
+            if (conn.getTo() == null) continue;
+            froms[i] = numbers.getOrDefault(conn.getFrom(), -1);
+            tos[i] = numbers.getOrDefault(conn.getTo(), -1);
+            branches[i] = (byte) (conn.condition == null ? 0 : conn.condition ? 1 : 2);
+            i++;
+        }
+    }
+
+    @Override
+    public FlowchartData call() {
+        BlockStore store = new BlockStore(types.length);
+        List<Block> blocks = new ArrayList<>(types.length);
+        for (int i = 0; i < types.length; i++) {
+            Block block = store.create(TYPES[types[i]], xs[i], ys[i]);
+            block.setCode(codes[i]);
+            blocks.add(block);
+        }
+        List<Connection> connections = new ArrayList<>(froms.length);
+        for (int i = 0; i < froms.length; i++) {
+            Connection conn = new Connection(froms[i] >= 0 ? blocks.get(froms[i]) : null,
+                    tos[i] >= 0 ? blocks.get(tos[i]) : null);
+            if (branches[i] != 0) conn.setCondition(branches[i] == 1);
+            connections.add(conn);
+        }
+
+        FlowchartData data = new FlowchartData();
+        data.setBlocks(blocks);
+        data.setConnections(connections);
+        return data;
+    }
+}
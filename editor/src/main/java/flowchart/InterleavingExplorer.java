@@ -0,0 +1,112 @@
+package flowchart;
+
+import java.util.*;
+
+// Перебирає всі переплетіння потоків з точністю до блоку (пошук у глибину)
+// і збирає точну множину виводів, досяжних для тестового випадку.
+// Відвідані стани відсікаються за 64-бітним хешем. Редукція часткового
+// порядку: якщо крок потоку не взаємодіє з іншими потоками, виконується
+// лише він — інші порядки дають той самий результат. Щоб не пропустити
+// переплетіння на циклах, редукція не застосовується, коли наступник уже
+// відвіданий.
+class InterleavingExplorer {
+    public static final int DEFAULT_MAX_STATES = 1_000_000;
+
+    private final FlowchartProgram program;
+    private final int maxStates;
+
+    public InterleavingExplorer(FlowchartProgram program, int maxStates) {
+        this.program = program;
+        this.maxStates = maxStates;
+    }
+
+    public ExplorationResult explore(TestCase tc) throws InterruptedException {
+        ExplorationModel model = new ExplorationModel(program, tc.getInput());
+        ExplorationResult result = new ExplorationResult(tc);
+        LongHashSet visited = new LongHashSet(1024);
+        long started = System.nanoTime();
+        long transitions = 0;
+        long reduced = 0;
+
+        Deque<Frame> stack = new ArrayDeque<>();
+        List<String> schedule = new ArrayList<>();
+
+        ExplorationModel.State initial = model.initialState();
+        visited.add(initial.hash());
+        if (model.isTerminal(initial)) {
+            result.addOutput(model.getOutput(initial), model.matches(initial, tc.getExpectedOutput()), schedule);
+        } else {
+            stack.push(expand(model, initial, visited));
+        }
+
+        while (!stack.isEmpty()) {
+            Frame frame = stack.peek();
+            if (frame.next >= frame.choices.length) {
+                stack.pop();
+                if (!schedule.isEmpty()) schedule.remove(schedule.size() - 1);
+                continue;
+            }
+
+            int thread = frame.choices[frame.next++];
+            ExplorationModel.State successor = model.step(frame.state, thread);
+            transitions++;
+            if (!visited.add(successor.hash())) continue;
+
+            if (visited.size() >= maxStates) {
+                result.setComplete(false);
+                break;
+            }
+            if ((visited.size() & 0xFFF) == 0 && Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+
+            schedule.add(model.describeStep(frame.state, thread));
+            if (model.isTerminal(successor)) {
+                String output = model.getOutput(successor);
+                if (!result.hasOutput(output)) {
+                    result.addOutput(output, model.matches(successor, tc.getExpectedOutput()), new ArrayList<>(schedule));
+                }
+                schedule.remove(schedule.size() - 1);
+            } else {
+                Frame next = expand(model, successor, visited);
+                if (next.reduced) reduced++;
+                stack.push(next);
+            }
+        }
+
+        result.setStatistics(visited.size(), transitions, reduced, System.nanoTime() - started);
+        return result;
+    }
+
+    private static Frame expand(ExplorationModel model, ExplorationModel.State state, LongHashSet visited) {
+        int threads = state.pcs.length;
+        int count = 0;
+        int[] enabled = new int[threads];
+        for (int t = 0; t < threads; t++) {
+            if (model.isEnabled(state, t)) enabled[count++] = t;
+        }
+
+        if (count > 1) {
+            for (int i = 0; i < count; i++) {
+                int t = enabled[i];
+                if (model.isSafeStep(state, t) && !visited.contains(model.step(state, t).hash())) {
+                    return new Frame(state, new int[]{t}, true);
+                }
+            }
+        }
+        return new Frame(state, Arrays.copyOf(enabled, count), false);
+    }
+
+    private static class Frame {
+        final ExplorationModel.State state;
+        final int[] choices;
+        final boolean reduced;
+        int next;
+
+        Frame(ExplorationModel.State state, int[] choices, boolean reduced) {
+            this.state = state;
+            this.choices = choices;
+            this.reduced = reduced;
+        }
+    }
+}
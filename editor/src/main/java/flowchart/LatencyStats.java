@@ -0,0 +1,62 @@
+package flowchart;
+
+// Розподіл тривалостей з логарифмічними кошиками: чотири кошики на кожну
+// степінь двійки наносекунд, тож перцентиль має похибку до ~19%, а пам'ять
+// стала незалежно від кількості вимірів.
+class LatencyStats {
+    private static final int SUB_BITS = 2;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int BUCKETS = 64 * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKETS];
+    private long count;
+    private long max;
+
+    public synchronized void add(long nanos) {
+        if (nanos < 0) nanos = 0;
+        counts[bucket(nanos)]++;
+        count++;
+        if (nanos > max) max = nanos;
+    }
+
+    public synchronized long getCount() {
+        return count;
+    }
+
+    public synchronized long getMaxNanos() {
+        return max;
+    }
+
+    // Верхня межа кошика, в який потрапляє частка p вимірів (не більша за максимум).
+    public synchronized long percentileNanos(double p) {
+        if (count == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(p * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) return Math.min(upperBound(i), max);
+        }
+        return max;
+    }
+
+    public synchronized void clear() {
+        java.util.Arrays.fill(counts, 0);
+        count = 0;
+        max = 0;
+    }
+
+    private static int bucket(long nanos) {
+        if (nanos < SUB_BUCKETS) return (int) nanos;
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        int sub = (int) (nanos >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    private static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) return bucket;
+        int exponent = bucket / SUB_BUCKETS + SUB_BITS - 1;
+        int sub = bucket % SUB_BUCKETS;
+        long base = 1L << exponent;
+        return base + ((sub + 1L) << (exponent - SUB_BITS)) - 1;
+    }
+}
@@ -0,0 +1,72 @@
+package flowchart;
+
+import java.util.Arrays;
+
+// Компактна таблиця відвіданих станів: зберігаються лише 64-бітні хеші
+// (відкрита адресація, лінійне зондування), тобто 8 байтів на стан.
+// Колізія хешів може приховати стан, але на 64 бітах це практично неймовірно.
+class LongHashSet {
+    private static final long EMPTY = 0L;
+
+    private long[] table;
+    private int size;
+
+    public LongHashSet(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedSize * 2 - 1)) << 1;
+        table = new long[capacity];
+    }
+
+    // Повертає true, якщо хеш додано вперше.
+    public boolean add(long hash) {
+        if (hash == EMPTY) hash = 1L;
+        if (size * 2 >= table.length) grow();
+        if (!insert(table, hash)) return false;
+        size++;
+        return true;
+    }
+
+    public boolean contains(long hash) {
+        if (hash == EMPTY) hash = 1L;
+        int mask = table.length - 1;
+        for (int i = index(hash, mask); ; i = (i + 1) & mask) {
+            if (table[i] == hash) return true;
+            if (table[i] == EMPTY) return false;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long memoryBytes() {
+        return (long) table.length * Long.BYTES;
+    }
+
+    private static boolean insert(long[] table, long hash) {
+        int mask = table.length - 1;
+        for (int i = index(hash, mask); ; i = (i + 1) & mask) {
+            if (table[i] == hash) return false;
+            if (table[i] == EMPTY) {
+                table[i] = hash;
+                return true;
+            }
+        }
+    }
+
+    private static int index(long hash, int mask) {
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private void grow() {
+        long[] old = table;
+        table = new long[old.length * 2];
+        for (long hash : old) {
+            if (hash != EMPTY) insert(table, hash);
+        }
+    }
+
+    public void clear() {
+        Arrays.fill(table, EMPTY);
+        size = 0;
+    }
+}
@@ -0,0 +1,2542 @@
+package flowchart;
+
+import javax.swing.*;
+import javax.swing.filechooser.FileNameExtensionFilter;
+import java.awt.*;
+import java.awt.event.*;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+public class MultithreadedFlowchartEditor {
+    private static final int MAX_THREADS = 100;
+    private static final int MAX_VARS = 100;
+    private static final int MAX_UNDO_DEPTH = 10_000;
+
+    private JFrame mainFrame;
+    private JTabbedPane tabbedPane;
+    private List<FlowchartPanel> flowchartPanels;
+    private JTextField threadCountField;
+    private JButton loadButton;
+    private JButton generateCodeButton;
+    private JButton testButton;
+
+    private List<String> sharedVariables;
+    private JComboBox<String> variableComboBox;
+    private JTextField newVariableField;
+
+    private JTextArea codeOutputArea;
+    private JTextArea testOutputArea;
+
+    private List<TestCase> testCases;
+    private JButton addTestCaseButton;
+    private JButton runTestsButton;
+    private int testWorkerCount = TestEngine.defaultWorkerCount();
+    private ExecutionMode executionMode = ExecutionMode.PROCESS;
+    private int trialTimeoutSeconds = 10;
+    private int bitStateMegabytes;
+    private double adaptivePrecisionPercent = 5.0;
+    private int adaptiveMaxTrials = 1000;
+    // Кешувати вердикти для зовнішнього Python-файлу. Детермінованість довільної
+    // програми з тексту не визначити, тож це рішення лишається за користувачем.
+    private boolean cachePythonResults;
+    // Фонова задача (генерація, збереження, тести); одночасно виконується лише одна.
+    private EditorTask<?, ?> activeTask;
+    private JPanel outputPanel;
+    private JProgressBar taskProgress;
+    private JLabel taskLabel;
+    private JButton cancelTaskButton;
+    private final ResultCache resultCache = ResultCache.openDefault();
+    // Фонове декодування потоків відкритого проекту, по одному в порядку вкладок.
+    private final ExecutorService projectLoader = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "project-loader");
+        t.setDaemon(true);
+        return t;
+    });
+    private final List<Future<?>> pendingLoads = new ArrayList<>();
+    // Файл показаного проекту, з якого ще декодуються вкладки.
+    private ProjectFile openProject;
+    private Autosave autosave;
+    private int undoDepth = UndoHistory.DEFAULT_DEPTH;
+
+    public MultithreadedFlowchartEditor() {
+        sharedVariables = new ArrayList<>();
+        testCases = new ArrayList<>();
+        initializeUI();
+        restoreAutosave();
+        autosave.snapshot();
+    }
+
+
+private void initializeUI() {
+    mainFrame = new JFrame("Редактор блок-схем з генерацією коду");
+    mainFrame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+    mainFrame.setSize(1200, 800);
+    mainFrame.setLayout(new BorderLayout());
+    autosave = Autosave.openDefault(mainFrame, this::captureSnapshot);
+    mainFrame.addWindowListener(new WindowAdapter() {
+        @Override
+        public void windowClosing(WindowEvent e) {
+            autosave.close();
+        }
+    });
+
+    initializeThreadControls();
+    initializeVariableControls();
+    initializeMainWorkspace();
+    initializeOutputAreas();
+    initializeActionButtons();
+
+    addThread();
+    mainFrame.setVisible(true);
+}
+
+private void initializeThreadControls() {
+    JPanel topPanel = new JPanel(new FlowLayout());
+    threadCountField = new JTextField("1", 3);
+    JButton addThreadButton = new JButton("Додати потік");
+    JButton removeThreadButton = new JButton("Видалити потік");
+    JButton undoButton = new JButton("Скасувати");
+    JButton redoButton = new JButton("Повторити");
+    JButton undoDepthButton = new JButton("Глибина історії");
+
+    addThreadButton.addActionListener(e -> addThread());
+    removeThreadButton.addActionListener(e -> removeThread());
+    undoButton.addActionListener(e -> undo());
+    redoButton.addActionListener(e -> redo());
+    undoDepthButton.addActionListener(e -> configureUndoDepth());
+    undoButton.setToolTipText("Ctrl+Z");
+    redoButton.setToolTipText("Ctrl+Y");
+
+    topPanel.add(new JLabel("Потоки:"));
+    topPanel.add(threadCountField);
+    topPanel.add(addThreadButton);
+    topPanel.add(removeThreadButton);
+    topPanel.add(undoButton);
+    topPanel.add(redoButton);
+    topPanel.add(undoDepthButton);
+
+    mainFrame.add(topPanel, BorderLayout.NORTH);
+}
+
+private void initializeVariableControls() {
+    variableComboBox = new JComboBox<>();
+    newVariableField = new JTextField(10);
+    JButton addVariableButton = new JButton("Додати змінну");
+    JButton deleteVariableButton = new JButton("Видалити змінну");
+
+    // Панель зі змінними
+    JPanel varPanel = new JPanel(new FlowLayout());
+    varPanel.add(new JLabel("Спільні змінні:"));
+    varPanel.add(variableComboBox);
+    varPanel.add(new JLabel("Нова:"));
+    varPanel.add(newVariableField);
+    varPanel.add(addVariableButton);
+    varPanel.add(deleteVariableButton);
+
+    // Кнопка згортання/розгортання панелі
+    JButton toggleButton = new JButton("⯆ Сховати панель");
+    JPanel wrapper = new JPanel(new BorderLayout());
+    wrapper.add(toggleButton, BorderLayout.NORTH);
+    wrapper.add(varPanel, BorderLayout.CENTER);
+    mainFrame.add(wrapper, BorderLayout.EAST);
+
+    // Обробка додавання змінної
+    addVariableButton.addActionListener(e -> addVariable());
+
+    // Обробка видалення змінної
+    deleteVariableButton.addActionListener(e -> {
+        String selectedVar = (String) variableComboBox.getSelectedItem();
+        if (selectedVar != null) {
+            int confirm = JOptionPane.showConfirmDialog(mainFrame,
+                    "Ви впевнені, що хочете видалити змінну '" + selectedVar + "'?",
+                    "Підтвердження видалення",
+                    JOptionPane.YES_NO_OPTION);
+            if (confirm == JOptionPane.YES_OPTION) {
+                sharedVariables.remove(selectedVar);
+                variableComboBox.removeItem(selectedVar);
+                autosave.record(ProjectEdit.removeVariable(selectedVar));
+                for (FlowchartPanel panel : flowchartPanels) {
+                    panel.updateVariableList(sharedVariables);
+                }
+            }
+        }
+    });
+
+    // Обробка згортання/розгортання
+    toggleButton.addActionListener(e -> {
+        boolean isVisible = varPanel.isVisible();
+        varPanel.setVisible(!isVisible);
+        toggleButton.setText(isVisible ? "⯈ Показати панель" : "⯆ Сховати панель");
+        mainFrame.revalidate();
+    });
+}
+
+
+
+private void initializeMainWorkspace() {
+    tabbedPane = new JTabbedPane();
+    flowchartPanels = new ArrayList<>();
+    // Вкладка, що ще не декодувалася у фоні, декодується, щойно її відкрили.
+    tabbedPane.addChangeListener(e -> {
+        Component selected = tabbedPane.getSelectedComponent();
+        if (selected instanceof FlowchartPanel) ((FlowchartPanel) selected).ensureLoaded();
+    });
+    // Скасування діє на відкриту вкладку.
+    InputMap keys = tabbedPane.getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW);
+    keys.put(KeyStroke.getKeyStroke(KeyEvent.VK_Z, InputEvent.CTRL_DOWN_MASK), "undo");
+    keys.put(KeyStroke.getKeyStroke(KeyEvent.VK_Y, InputEvent.CTRL_DOWN_MASK), "redo");
+    keys.put(KeyStroke.getKeyStroke(KeyEvent.VK_Z, InputEvent.CTRL_DOWN_MASK | InputEvent.SHIFT_DOWN_MASK), "redo");
+    tabbedPane.getActionMap().put("undo", new AbstractAction() {
+        @Override
+        public void actionPerformed(ActionEvent e) {
+            undo();
+        }
+    });
+    tabbedPane.getActionMap().put("redo", new AbstractAction() {
+        @Override
+        public void actionPerformed(ActionEvent e) {
+            redo();
+        }
+    });
+    mainFrame.add(tabbedPane, BorderLayout.CENTER);
+}
+
+private void initializeOutputAreas() {
+    codeOutputArea = new JTextArea(5, 80);
+    codeOutputArea.setEditable(false);
+    codeOutputArea.setFont(new Font("Monospaced", Font.PLAIN, 12));
+    JScrollPane codeScrollPane = new JScrollPane(codeOutputArea);
+
+    testOutputArea = new JTextArea(5, 80);
+    testOutputArea.setEditable(false);
+    JScrollPane testScrollPane = new JScrollPane(testOutputArea);
+
+    outputPanel = new JPanel(new GridLayout(2, 1));
+    outputPanel.add(codeScrollPane);
+    outputPanel.add(testScrollPane);
+}
+
+private void initializeActionButtons() {
+    JPanel bottomPanel = new JPanel(new FlowLayout());
+    JButton saveButton = new JButton("Зберегти проект");
+    loadButton = new JButton("Завантажити проект");
+    generateCodeButton = new JButton("Згенерувати код");
+    testButton = new JButton("Тестувати");
+    JButton metricsButton = new JButton("Швидкодія UI");
+
+    JButton runKButton = new JButton("K-випробування");
+    runKButton.addActionListener(e -> {
+        String input = JOptionPane.showInputDialog(mainFrame, "Скільки виконань (K, від 1 до 20)?", "10");
+        try {
+            int k = Integer.parseInt(input);
+            if (k >= 1 && k <= 20) {
+                runKTests(k);
+            } else {
+                JOptionPane.showMessageDialog(mainFrame, "K повинно бути в межах 1..20", "Помилка", JOptionPane.ERROR_MESSAGE);
+            }
+        } catch (NumberFormatException ex) {
+            JOptionPane.showMessageDialog(mainFrame, "Некоректне число", "Помилка", JOptionPane.ERROR_MESSAGE);
+        }
+    });
+
+    saveButton.addActionListener(e -> saveProject());
+    loadButton.addActionListener(e -> loadProject());
+    generateCodeButton.addActionListener(e -> generatePythonCode());
+    testButton.addActionListener(e -> openTestDialog());
+    metricsButton.addActionListener(e -> showUiMetrics());
+
+    bottomPanel.add(runKButton);
+    bottomPanel.add(saveButton);
+    bottomPanel.add(loadButton);
+    bottomPanel.add(generateCodeButton);
+    bottomPanel.add(testButton);
+    bottomPanel.add(metricsButton);
+
+    taskProgress = new JProgressBar(0, 100);
+    taskProgress.setStringPainted(true);
+    taskProgress.setString("");
+    taskLabel = new JLabel(" ");
+    cancelTaskButton = new JButton("Скасувати");
+    cancelTaskButton.setEnabled(false);
+    cancelTaskButton.addActionListener(e -> {
+        if (activeTask != null) activeTask.cancel(true);
+    });
+    JPanel statusPanel = new JPanel(new BorderLayout(5, 0));
+    statusPanel.add(taskLabel, BorderLayout.CENTER);
+    statusPanel.add(taskProgress, BorderLayout.EAST);
+    statusPanel.add(cancelTaskButton, BorderLayout.WEST);
+
+    JPanel controls = new JPanel(new BorderLayout());
+    controls.add(statusPanel, BorderLayout.NORTH);
+    controls.add(bottomPanel, BorderLayout.SOUTH);
+
+    // PAGE_END і SOUTH — одне місце BorderLayout, тож області виводу й кнопки
+    // мають бути в одній панелі, інакше кнопки закривають вивід.
+    JPanel southPanel = new JPanel(new BorderLayout());
+    southPanel.add(outputPanel, BorderLayout.CENTER);
+    southPanel.add(controls, BorderLayout.SOUTH);
+    mainFrame.add(southPanel, BorderLayout.SOUTH);
+}
+
+// Затримки потоку подій, зібрані EdtMonitor; таблиця оновлюється щосекунди, поки вікно відкрите.
+private void showUiMetrics() {
+    EdtMonitor monitor = EdtMonitor.getInstalled();
+    if (monitor == null) {
+        JOptionPane.showMessageDialog(mainFrame, "Спостереження за потоком подій вимкнене", "Помилка", JOptionPane.ERROR_MESSAGE);
+        return;
+    }
+
+    JDialog dialog = new JDialog(mainFrame, "Швидкодія UI", false);
+    dialog.setLayout(new BorderLayout());
+    JTextArea textArea = new JTextArea(20, 90);
+    textArea.setEditable(false);
+    textArea.setFont(new Font("Monospaced", Font.PLAIN, 12));
+    dialog.add(new JScrollPane(textArea), BorderLayout.CENTER);
+
+    JSpinner thresholdSpinner = new JSpinner(new SpinnerNumberModel(monitor.getStallThresholdMillis(), 10, 60_000, 50));
+    thresholdSpinner.addChangeListener(e -> monitor.setStallThresholdMillis((Integer) thresholdSpinner.getValue()));
+    JButton clearButton = new JButton("Очистити");
+    JButton closeButton = new JButton("Закрити");
+    JPanel buttons = new JPanel(new FlowLayout());
+    buttons.add(new JLabel("Поріг зависання, мс:"));
+    buttons.add(thresholdSpinner);
+    buttons.add(clearButton);
+    buttons.add(closeButton);
+    dialog.add(buttons, BorderLayout.SOUTH);
+
+    Runnable refresh = () -> textArea.setText(formatUiMetrics(monitor));
+    javax.swing.Timer timer = new javax.swing.Timer(1000, e -> refresh.run());
+    clearButton.addActionListener(e -> {
+        monitor.clear();
+        refresh.run();
+    });
+    closeButton.addActionListener(e -> dialog.dispose());
+    dialog.addWindowListener(new WindowAdapter() {
+        @Override
+        public void windowClosed(WindowEvent e) {
+            timer.stop();
+        }
+    });
+
+    refresh.run();
+    timer.start();
+    dialog.pack();
+    dialog.setLocationRelativeTo(mainFrame);
+    dialog.setVisible(true);
+}
+
+private static String formatUiMetrics(EdtMonitor monitor) {
+    StringBuilder text = new StringBuilder();
+    text.append(String.format("%-60s %9s %9s %9s %9s%n", "Подія", "кількість", "p50, мс", "p99, мс", "макс, мс"));
+    for (Map.Entry<String, LatencyStats> entry : monitor.getStats().entrySet()) {
+        LatencyStats s = entry.getValue();
+        text.append(String.format("%-60s %9d %9.1f %9.1f %9.1f%n", entry.getKey(), s.getCount(),
+                s.percentileNanos(0.5) / 1e6, s.percentileNanos(0.99) / 1e6, s.getMaxNanos() / 1e6));
+    }
+    text.append("\nЗависань понад ").append(monitor.getStallThresholdMillis()).append(" мс: ")
+            .append(monitor.getStallCount()).append(" (стеки — у ~/.flowchart-editor/edt-stalls.log)\n");
+    return text.toString();
+}
+
+// Повідомляє, якщо вже виконується інша фонова задача.
+private boolean checkIdle() {
+    if (activeTask != null && !activeTask.isDone()) {
+        JOptionPane.showMessageDialog(mainFrame, "Уже виконується: " + activeTask.getTitle(),
+                "Помилка", JOptionPane.ERROR_MESSAGE);
+        return false;
+    }
+    return true;
+}
+
+// Запускає задачу й показує її хід у рядку стану, доки вона не завершиться.
+private void startTask(EditorTask<?, ?> task) {
+    activeTask = task;
+    taskLabel.setText(task.getTitle() + "...");
+    taskProgress.setValue(0);
+    taskProgress.setString(null);
+    taskProgress.setIndeterminate(true);
+    cancelTaskButton.setEnabled(true);
+    task.addPropertyChangeListener(e -> {
+        if (activeTask != task) return;
+        switch (e.getPropertyName()) {
+            case "progress":
+                taskProgress.setIndeterminate(false);
+                taskProgress.setValue((Integer) e.getNewValue());
+                break;
+            case "message":
+                taskLabel.setText(task.getTitle() + ": " + e.getNewValue());
+                break;
+            case "state":
+                if (e.getNewValue() == SwingWorker.StateValue.DONE) {
+                    taskProgress.setIndeterminate(false);
+                    taskProgress.setValue(0);
+                    taskProgress.setString("");
+                    taskLabel.setText(" ");
+                    cancelTaskButton.setEnabled(false);
+                }
+                break;
+        }
+    });
+    task.execute();
+}
+private void addThread() {
+    try {
+        int count = Integer.parseInt(threadCountField.getText());
+        if (count < 1 || count > MAX_THREADS) {
+            JOptionPane.showMessageDialog(mainFrame,
+                    "Кількість потоків повинна бути від 1 до " + MAX_THREADS,
+                    "Помилка", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+
+        while (flowchartPanels.size() < count) {
+            FlowchartPanel panel = createPanel();
+            flowchartPanels.add(panel);
+            tabbedPane.addTab("Потік " + (flowchartPanels.size()), panel);
+            autosave.record(ProjectEdit.addThread());
+        }
+
+        threadCountField.setText(String.valueOf(flowchartPanels.size()));
+    } catch (NumberFormatException e) {
+        JOptionPane.showMessageDialog(mainFrame,
+                "Будь ласка, введіть коректне число",
+                "Помилка", JOptionPane.ERROR_MESSAGE);
+    }
+}
+
+private void removeThread() {
+    int selectedIndex = tabbedPane.getSelectedIndex();
+
+    if (selectedIndex == -1 || flowchartPanels.isEmpty()) {
+        JOptionPane.showMessageDialog(mainFrame,
+                "Немає потоків для видалення.",
+                "Помилка", JOptionPane.ERROR_MESSAGE);
+        return;
+    }
+
+    int confirm = JOptionPane.showConfirmDialog(mainFrame,
+            "Ви впевнені, що хочете видалити потік №" + (selectedIndex + 1) + "?",
+            "Підтвердження видалення потоку",
+            JOptionPane.YES_NO_OPTION);
+
+    if (confirm == JOptionPane.YES_OPTION) {
+        tabbedPane.remove(selectedIndex);
+        flowchartPanels.remove(selectedIndex);
+        autosave.record(ProjectEdit.removeThread(selectedIndex));
+
+        // Перейменувати всі вкладки після видалення
+        for (int i = 0; i < flowchartPanels.size(); i++) {
+            tabbedPane.setTitleAt(i, "Потік " + (i + 1));
+        }
+
+        threadCountField.setText(String.valueOf(flowchartPanels.size()));
+    }
+}
+
+
+private void addVariable() {
+    String varName = newVariableField.getText().trim();
+    if (varName.isEmpty()) {
+        JOptionPane.showMessageDialog(mainFrame,
+                "Назва змінної не може бути порожньою",
+                "Помилка", JOptionPane.ERROR_MESSAGE);
+        return;
+    }
+
+    if (sharedVariables.size() >= MAX_VARS) {
+        JOptionPane.showMessageDialog(mainFrame,
+                "Досягнуто максимальної кількості змінних (" + MAX_VARS + ")",
+                "Помилка", JOptionPane.ERROR_MESSAGE);
+        return;
+    }
+
+    if (!sharedVariables.contains(varName)) {
+        sharedVariables.add(varName);
+        variableComboBox.addItem(varName);
+        newVariableField.setText("");
+        autosave.record(ProjectEdit.addVariable(varName));
+
+        for (FlowchartPanel panel : flowchartPanels) {
+            panel.updateVariableList(sharedVariables);
+        }
+    } else {
+        JOptionPane.showMessageDialog(mainFrame,
+                "Змінна з такою назвою вже існує",
+                "Помилка", JOptionPane.ERROR_MESSAGE);
+    }
+}
+
+    private void saveProject() {
+        if (!checkIdle()) return;
+        JFileChooser fileChooser = new JFileChooser();
+        if (fileChooser.showSaveDialog(mainFrame) != JFileChooser.APPROVE_OPTION) return;
+        File file = fileChooser.getSelectedFile();
+        // Потоки знімаються тут, а декодуються й пишуться вже у фоні.
+        Autosave.Snapshot snapshot = captureSnapshot();
+        ProjectFile source = openProject;
+
+        startTask(new EditorTask<Void, Void>(mainFrame, "Збереження проекту") {
+            @Override
+            protected Void call() throws Exception {
+                ProjectData data = new ProjectData();
+                data.setSharedVariables(snapshot.sharedVariables);
+                data.setFlowchartData(new ArrayList<>());
+
+                int threadCount = snapshot.threads.size();
+                for (int i = 0; i < threadCount; i++) {
+                    if (isCancelled()) throw new CancellationException();
+                    setMessage("потік " + (i + 1) + " з " + threadCount);
+                    setProgress(i, threadCount + 1);
+                    data.getFlowchartData().add(snapshot.threads.get(i).call());
+                }
+                setMessage("запис у файл");
+                // Усі вкладки вже декодовано, тож відкритий файл проекту більше не
+                // потрібен; на Windows відкритий файл не дав би себе замінити.
+                if (source != null) source.close();
+
+                // Файл пишеться поруч і підміняє старий перейменуванням: збій посеред запису
+                // не псує збережений проект.
+                File temp = new File(file.getPath() + ".tmp");
+                boolean written = false;
+                try {
+                    try (OutputStream out = new BufferedOutputStream(new FileOutputStream(temp))) {
+                        ProjectFormat.write(data, out);
+                    }
+                    if (isCancelled()) throw new CancellationException();
+                    if (!temp.renameTo(file)) {
+                        file.delete();
+                        if (!temp.renameTo(file)) throw new IOException("Не вдалося записати " + file);
+                    }
+                    written = true;
+                } finally {
+                    if (!written) temp.delete();
+                }
+                return null;
+            }
+
+            @Override
+            protected void succeeded(Void result) {
+                JOptionPane.showMessageDialog(mainFrame,
+                        "Проект успішно збережено",
+                        "Успіх", JOptionPane.INFORMATION_MESSAGE);
+            }
+
+            @Override
+            protected void failed(Throwable error) {
+                JOptionPane.showMessageDialog(mainFrame,
+                        "Помилка збереження проекту: " + error.getMessage(),
+                        "Помилка", JOptionPane.ERROR_MESSAGE);
+            }
+        });
+    }
+
+private void loadProject() {
+    if (!checkIdle()) return;
+    JFileChooser fileChooser = new JFileChooser();
+    if (fileChooser.showOpenDialog(mainFrame) != JFileChooser.APPROVE_OPTION) return;
+    File file = fileChooser.getSelectedFile();
+
+    startTask(new EditorTask<ProjectFile, Void>(mainFrame, "Завантаження проекту") {
+        @Override
+        protected ProjectFile call() throws Exception {
+            return ProjectFile.open(file);
+        }
+
+        @Override
+        protected void succeeded(ProjectFile project) {
+            showProject(project);
+            JOptionPane.showMessageDialog(mainFrame,
+                    "Проект успішно завантажено",
+                    "Успіх", JOptionPane.INFORMATION_MESSAGE);
+        }
+
+        @Override
+        protected void failed(Throwable error) {
+            JOptionPane.showMessageDialog(mainFrame,
+                    "Помилка завантаження проекту: " + error.getMessage(),
+                    "Помилка", JOptionPane.ERROR_MESSAGE);
+        }
+    });
+}
+
+// Одразу декодується лише вибрана (перша) вкладка; решта потоків декодується
+// у фоні або тоді, коли до них звертаються.
+private void showProject(ProjectFile project) {
+    for (Future<?> load : pendingLoads) {
+        load.cancel(false);
+    }
+    pendingLoads.clear();
+    if (openProject != null) {
+        try {
+            openProject.close();
+        } catch (IOException e) {
+            // Старий файл лише читався, тож закриття не втрачає даних.
+        }
+    }
+    openProject = project;
+    sharedVariables.clear();
+    variableComboBox.removeAllItems();
+    flowchartPanels.clear();
+    tabbedPane.removeAll();
+
+    sharedVariables.addAll(project.getSharedVariables());
+    for (String var : sharedVariables) {
+        variableComboBox.addItem(var);
+    }
+
+    for (int i = 0; i < project.getThreadCount(); i++) {
+        int index = i;
+        FlowchartPanel panel = createPanel();
+        pendingLoads.add(panel.loadLater(() -> project.readThread(index)));
+        flowchartPanels.add(panel);
+        tabbedPane.addTab("Потік " + (flowchartPanels.size()), panel);
+    }
+    // Перша вкладка вже декодована (addTab її вибрав), тож фонові задачі починають з другої.
+    for (Future<?> load : pendingLoads) {
+        if (!load.isDone()) projectLoader.execute((Runnable) load);
+    }
+
+    threadCountField.setText(String.valueOf(flowchartPanels.size()));
+    autosave.snapshot();
+}
+
+private FlowchartPanel createPanel() {
+    FlowchartPanel panel = new FlowchartPanel(sharedVariables);
+    panel.setUndoDepth(undoDepth);
+    panel.setEditListener(new FlowchartPanel.EditListener() {
+        @Override
+        public void edited(ProjectEdit edit) {
+            autosave.record(edit.inThread(flowchartPanels.indexOf(panel)));
+        }
+
+        @Override
+        public void restored() {
+            // Відновлений стан не виражається записами журналу — пишеться повний знімок.
+            autosave.snapshot();
+        }
+    });
+    return panel;
+}
+
+private void undo() {
+    Component selected = tabbedPane.getSelectedComponent();
+    if (selected instanceof FlowchartPanel) ((FlowchartPanel) selected).undo();
+}
+
+private void redo() {
+    Component selected = tabbedPane.getSelectedComponent();
+    if (selected instanceof FlowchartPanel) ((FlowchartPanel) selected).redo();
+}
+
+private void configureUndoDepth() {
+    String input = JOptionPane.showInputDialog(mainFrame,
+            "Скільки кроків можна скасувати (від 1 до " + MAX_UNDO_DEPTH + ")?", undoDepth);
+    if (input == null) return;
+    try {
+        int depth = Integer.parseInt(input.trim());
+        if (depth < 1 || depth > MAX_UNDO_DEPTH) {
+            JOptionPane.showMessageDialog(mainFrame,
+                    "Глибина історії повинна бути від 1 до " + MAX_UNDO_DEPTH,
+                    "Помилка", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        undoDepth = depth;
+        for (FlowchartPanel panel : flowchartPanels) {
+            panel.setUndoDepth(depth);
+        }
+    } catch (NumberFormatException e) {
+        JOptionPane.showMessageDialog(mainFrame, "Некоректне число", "Помилка", JOptionPane.ERROR_MESSAGE);
+    }
+}
+
+private Autosave.Snapshot captureSnapshot() {
+    List<Callable<FlowchartData>> threads = new ArrayList<>(flowchartPanels.size());
+    for (FlowchartPanel panel : flowchartPanels) {
+        threads.add(panel.snapshot());
+    }
+    return new Autosave.Snapshot(new ArrayList<>(sharedVariables), threads);
+}
+
+// Проект, що лишився після аварійного завершення, пропонується відновити.
+private void restoreAutosave() {
+    ProjectData recovered;
+    try {
+        recovered = autosave.recover();
+    } catch (IOException e) {
+        JOptionPane.showMessageDialog(mainFrame,
+                "Не вдалося прочитати автозбережений проект: " + e.getMessage(),
+                "Помилка", JOptionPane.ERROR_MESSAGE);
+        return;
+    }
+    if (recovered == null || (recovered.getFlowchartData().isEmpty() && recovered.getSharedVariables().isEmpty())) {
+        return;
+    }
+    int confirm = JOptionPane.showConfirmDialog(mainFrame,
+            "Знайдено незбережений проект з попереднього сеансу. Відновити його?",
+            "Відновлення проекту",
+            JOptionPane.YES_NO_OPTION);
+    if (confirm == JOptionPane.YES_OPTION) {
+        showProject(ProjectFile.of(recovered));
+    }
+}
+
+// Завантажені потоки перевіряються одразу; ще не декодовані — у фоні (readFlowcharts).
+private boolean checkStartBlocks() {
+    for (int i = 0; i < flowchartPanels.size(); i++) {
+        FlowchartPanel panel = flowchartPanels.get(i);
+        if (panel.isLoaded() && panel.findStartBlock() == null) {
+            JOptionPane.showMessageDialog(mainFrame,
+                    "Потік " + (i+1) + " не має стартового блоку!",
+                    "Помилка", JOptionPane.ERROR_MESSAGE);
+            return false;
+        }
+    }
+    return true;
+}
+
+// Код генерується у фоні з незмінних копій схем (FlowchartSnapshot): редагування
+// не чекає на генерацію, а генерація не бачить напівзроблених змін.
+private void generatePythonCode() {
+    if (!checkIdle()) return;
+    if (!checkStartBlocks()) return;
+
+    JFileChooser fileChooser = new JFileChooser();
+    fileChooser.setDialogTitle("Зберегти Python файл");
+    fileChooser.setSelectedFile(new File("generated_code.py"));
+    fileChooser.setFileFilter(new FileNameExtensionFilter("Python файли", "py"));
+
+    if (fileChooser.showSaveDialog(mainFrame) != JFileChooser.APPROVE_OPTION) return;
+    File chosen = fileChooser.getSelectedFile();
+    File file = chosen.getName().toLowerCase().endsWith(".py")
+            ? chosen
+            : new File(chosen.getParentFile(), chosen.getName() + ".py");
+
+    List<String> variables = new ArrayList<>(sharedVariables);
+    List<FlowchartPanel> panels = new ArrayList<>(flowchartPanels);
+    int threadCount = panels.size();
+    String[] cached = new String[threadCount];
+    List<Callable<FlowchartData>> sources = new ArrayList<>(threadCount);
+    long[] versions = new long[threadCount];
+    for (int i = 0; i < threadCount; i++) {
+        FlowchartPanel panel = panels.get(i);
+        cached[i] = panel.getCachedCode();
+        sources.add(cached[i] == null ? panel.snapshot() : null);
+        versions[i] = panel.getVersion();
+    }
+    codeOutputArea.setText("Генерація коду для " + threadCount + " потоків...\n");
+
+    startTask(new EditorTask<String[], String>(mainFrame, "Генерація коду") {
+        @Override
+        protected String[] call() throws Exception {
+            FlowchartCodeWriter[] writers = new FlowchartCodeWriter[threadCount];
+            String[] generated = new String[threadCount];
+            for (int i = 0; i < threadCount; i++) {
+                if (cached[i] != null) continue;
+                if (isCancelled()) throw new CancellationException();
+                setMessage("читання потоку " + (i + 1));
+                FlowchartData data = sources.get(i).call();
+                writers[i] = new FlowchartCodeWriter(data, variables);
+                if (writers[i].findStartBlock() == null) {
+                    throw new IOException("Потік " + (i + 1) + " не має стартового блоку!");
+                }
+                if (data.getBlocks().size() <= FlowchartPanel.MAX_CACHED_BLOCKS) generated[i] = "";
+            }
+
+            // Як і в панелях, невеликі потоки генеруються паралельно й потім кешуються,
+            // а великі пишуться нижче прямо у файл.
+            setMessage("генерація");
+            IntStream.range(0, threadCount).parallel()
+                    .filter(i -> generated[i] != null && !isCancelled())
+                    .forEach(i -> {
+                        StringWriter code = new StringWriter();
+                        try {
+                            writers[i].write(new PythonEmitter(code, 1));
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                        generated[i] = code.toString();
+                    });
+
+            File temp = new File(file.getPath() + ".tmp");
+            boolean written = false;
+            try {
+                try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(temp), StandardCharsets.UTF_8))) {
+                    writePythonProgram(writer, variables, threadCount, (i, out) -> {
+                        if (isCancelled()) throw new CancellationException();
+                        setMessage("потік " + (i + 1) + " з " + threadCount);
+                        setProgress(i, threadCount);
+                        publish("Потік " + (i + 1) + (cached[i] != null ? ": з кешу" : ": згенеровано"));
+                        if (cached[i] != null) {
+                            out.write(cached[i]);
+                        } else if (generated[i] != null) {
+                            out.write(generated[i]);
+                        } else {
+                            writers[i].write(new PythonEmitter(out, 1));
+                        }
+                    });
+                }
+                if (!temp.renameTo(file)) {
+                    file.delete();
+                    if (!temp.renameTo(file)) throw new IOException("Не вдалося записати " + file);
+                }
+                written = true;
+            } finally {
+                if (!written) temp.delete();
+            }
+            return generated;
+        }
+
+        @Override
+        protected void process(List<String> chunks) {
+            for (String line : chunks) {
+                codeOutputArea.append(line + "\n");
+            }
+        }
+
+        @Override
+        protected void succeeded(String[] generated) {
+            for (int i = 0; i < threadCount; i++) {
+                if (generated[i] != null) panels.get(i).storeCode(versions[i], generated[i]);
+            }
+            codeOutputArea.append("Код збережено у файл: " + file.getAbsolutePath() + "\n");
+            JOptionPane.showMessageDialog(mainFrame,
+                    "Python код успішно збережено у файл: " + file.getAbsolutePath(),
+                    "Успіх", JOptionPane.INFORMATION_MESSAGE);
+        }
+
+        @Override
+        protected void failed(Throwable error) {
+            codeOutputArea.append("Помилка: " + error.getMessage() + "\n");
+            JOptionPane.showMessageDialog(mainFrame,
+                    "Помилка збереження файлу: " + error.getMessage(),
+                    "Помилка", JOptionPane.ERROR_MESSAGE);
+        }
+
+        @Override
+        protected void cancelled() {
+            codeOutputArea.append("Генерацію скасовано.\n");
+        }
+    });
+}
+
+// Тіло функції потоку з номером thread.
+private interface ThreadCode {
+    void write(int thread, Writer out) throws IOException;
+}
+
+private static void writePythonProgram(Writer out, List<String> sharedVariables, int threadCount, ThreadCode code)
+        throws IOException {
+    out.write("import threading\n\n");
+
+    for (String var : sharedVariables) {
+        out.write(var + " = 0\n");
+    }
+    out.write("lock = threading.Lock()\n\n");
+
+    for (int i = 0; i < threadCount; i++) {
+        out.write("def thread_" + (i+1) + "():\n");
+        if (!sharedVariables.isEmpty()) {
+            out.write("    global " + String.join(", ", sharedVariables) + "\n");
+        }
+        code.write(i, out);
+        out.write("\n\n");
+    }
+
+    out.write("if __name__ == '__main__':\n");
+    for (int i = 0; i < threadCount; i++) {
+        out.write("    threading.Thread(target=thread_" + (i+1) + ").start()\n");
+    }
+}
+
+private void openTestDialog() {
+    JDialog testDialog = new JDialog(mainFrame, "Тестові випадки", true);
+    testDialog.setSize(600, 550);
+    testDialog.setLayout(new BorderLayout());
+
+    DefaultListModel<TestCase> listModel = new DefaultListModel<>();
+    for (TestCase tc : testCases) listModel.addElement(tc);
+    JList<TestCase> testList = new JList<>(listModel);
+    JScrollPane listScrollPane = new JScrollPane(testList);
+
+    JPanel ioPanel = new JPanel(new GridLayout(3, 1));
+    JTextArea inputArea = new JTextArea(3, 40);
+    JTextArea outputArea = new JTextArea(3, 40);
+    JTextField kField = new JTextField("5");
+
+    JTextField workersField = new JTextField(String.valueOf(testWorkerCount), 3);
+    JTextField timeoutField = new JTextField(String.valueOf(trialTimeoutSeconds), 3);
+    JTextField bitStateField = new JTextField(String.valueOf(bitStateMegabytes), 3);
+    JTextField precisionField = new JTextField(String.valueOf(adaptivePrecisionPercent), 3);
+    JTextField maxTrialsField = new JTextField(String.valueOf(adaptiveMaxTrials), 4);
+    JCheckBox cachePythonBox = new JCheckBox("Кешувати результати Python-файлу (програма детермінована)", cachePythonResults);
+    cachePythonBox.addActionListener(e -> cachePythonResults = cachePythonBox.isSelected());
+
+    JPanel kPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+    kPanel.add(new JLabel("K (кількість варіантів):"));
+    kPanel.add(kField);
+    kPanel.add(new JLabel("Паралельних процесів:"));
+    kPanel.add(workersField);
+    kPanel.add(new JLabel("Тайм-аут (с):"));
+    kPanel.add(timeoutField);
+
+    JComboBox<ExecutionMode> modeCombo = new JComboBox<>(ExecutionMode.values());
+    modeCombo.setSelectedItem(executionMode);
+    modeCombo.addActionListener(e -> executionMode = (ExecutionMode) modeCombo.getSelectedItem());
+    kPanel.add(new JLabel("Виконання:"));
+    kPanel.add(modeCombo);
+    kPanel.add(new JLabel("Bit-state, МБ (0 — точно):"));
+    kPanel.add(bitStateField);
+    kPanel.add(new JLabel("Точність, ±%:"));
+    kPanel.add(precisionField);
+    kPanel.add(new JLabel("Макс. виконань:"));
+    kPanel.add(maxTrialsField);
+    kPanel.add(cachePythonBox);
+
+    ioPanel.add(new JScrollPane(inputArea));
+    ioPanel.add(new JScrollPane(outputArea));
+    ioPanel.add(kPanel);
+
+    JPanel buttonPanel = new JPanel(new FlowLayout());
+    JButton addTestCaseButton = new JButton("Додати тест");
+    JButton runTestsButton = new JButton("K-випробування");
+    JButton adaptiveButton = new JButton("Адаптивно");
+    JButton modelCheckButton = new JButton("Усі переплетіння");
+    JButton closeButton = new JButton("Закрити");
+
+    addTestCaseButton.addActionListener(e -> {
+        String input = inputArea.getText().trim();
+        String output = outputArea.getText().trim();
+        if (!input.isEmpty() && !output.isEmpty()) {
+            TestCase tc = new TestCase(input, output);
+            testCases.add(tc);
+            listModel.addElement(tc);
+            inputArea.setText("");
+            outputArea.setText("");
+        }
+    });
+
+    runTestsButton.addActionListener(e -> {
+        try {
+            int K = Integer.parseInt(kField.getText().trim());
+            if (K < 1 || K > 20) throw new NumberFormatException();
+            int workers = Integer.parseInt(workersField.getText().trim());
+            if (workers < 1) {
+                JOptionPane.showMessageDialog(testDialog, "Кількість процесів повинна бути додатною", "Помилка", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            int timeout = Integer.parseInt(timeoutField.getText().trim());
+            if (timeout < 1) {
+                JOptionPane.showMessageDialog(testDialog, "Тайм-аут повинен бути додатним", "Помилка", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            testWorkerCount = workers;
+            trialTimeoutSeconds = timeout;
+            runKTests(K);
+        } catch (NumberFormatException ex) {
+            JOptionPane.showMessageDialog(testDialog, "K повинно бути числом від 1 до 20", "Помилка", JOptionPane.ERROR_MESSAGE);
+        }
+    });
+
+    adaptiveButton.addActionListener(e -> {
+        try {
+            int workers = Integer.parseInt(workersField.getText().trim());
+            int timeout = Integer.parseInt(timeoutField.getText().trim());
+            double precision = Double.parseDouble(precisionField.getText().trim().replace(',', '.'));
+            int maxTrials = Integer.parseInt(maxTrialsField.getText().trim());
+            if (workers < 1 || timeout < 1) throw new NumberFormatException();
+            if (!(precision > 0 && precision < 50) || maxTrials < 1) {
+                JOptionPane.showMessageDialog(testDialog, "Точність повинна бути в межах (0; 50)%, ліміт виконань — додатним", "Помилка", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            testWorkerCount = workers;
+            trialTimeoutSeconds = timeout;
+            adaptivePrecisionPercent = precision;
+            adaptiveMaxTrials = maxTrials;
+            runAdaptiveTests();
+        } catch (NumberFormatException ex) {
+            JOptionPane.showMessageDialog(testDialog, "Некоректні параметри випробувань", "Помилка", JOptionPane.ERROR_MESSAGE);
+        }
+    });
+
+    modelCheckButton.addActionListener(e -> {
+        try {
+            int workers = Integer.parseInt(workersField.getText().trim());
+            int megabytes = Integer.parseInt(bitStateField.getText().trim());
+            if (workers < 1 || megabytes < 0) throw new NumberFormatException();
+            testWorkerCount = workers;
+            bitStateMegabytes = megabytes;
+            runModelCheck();
+        } catch (NumberFormatException ex) {
+            JOptionPane.showMessageDialog(testDialog, "Некоректна кількість процесів або розмір bit-state", "Помилка", JOptionPane.ERROR_MESSAGE);
+        }
+    });
+
+    closeButton.addActionListener(e -> testDialog.dispose());
+
+    buttonPanel.add(addTestCaseButton);
+    buttonPanel.add(runTestsButton);
+    buttonPanel.add(adaptiveButton);
+    buttonPanel.add(modelCheckButton);
+    buttonPanel.add(closeButton);
+
+    testDialog.add(listScrollPane, BorderLayout.CENTER);
+    testDialog.add(ioPanel, BorderLayout.NORTH);
+    testDialog.add(buttonPanel, BorderLayout.SOUTH);
+
+    testDialog.setVisible(true);
+}
+
+
+private void runTests() {
+    runTestEngine(1, null, "Результати тестування");
+}
+
+private void runKTests(int K) {
+    runTestEngine(K, null, "Результати K-випробувань");
+}
+
+// Виконання продовжуються, доки 95% інтервал частки успіхів кожного тесту
+// не звузиться до заданої точності (або не вичерпано ліміт виконань).
+private void runAdaptiveTests() {
+    AdaptiveSampler sampler = new AdaptiveSampler(testCases.size(), adaptivePrecisionPercent / 100.0, adaptiveMaxTrials);
+    runTestEngine(0, sampler, "Результати адаптивних випробувань");
+}
+
+private void runTestEngine(int trials, AdaptiveSampler sampler, String title) {
+    if (testCases.isEmpty()) {
+        JOptionPane.showMessageDialog(mainFrame, "Не знайдено тестових випадків");
+        return;
+    }
+
+    if (!checkIdle()) return;
+
+    Callable<TestTarget> target = createTestTarget();
+    if (target == null) return;
+
+    int workers = Math.max(1, testWorkerCount);
+    long timeoutMillis = trialTimeoutSeconds * 1000L;
+    List<TestCase> suite = new ArrayList<>(testCases);
+    String planned = sampler != null
+            ? "адаптивних випробувань до ±" + adaptivePrecisionPercent + "%"
+            : suite.size() * trials + " випробувань";
+    testOutputArea.setText("Запуск " + planned + " (" + executionMode + ", паралельно: " + workers + ")...\n");
+
+    int total = suite.size() * trials;
+    startTask(new EditorTask<TestReport, TrialResult>(mainFrame, "Тестування") {
+        private final AtomicInteger finished = new AtomicInteger();
+
+        @Override
+        protected TestReport call() throws Exception {
+            setMessage("підготовка програми");
+            TestTarget prepared = target.call();
+            TestEngine engine = new TestEngine(prepared.factory, workers, timeoutMillis);
+            if (prepared.programDigest != null && sampler == null) {
+                engine.setCache(resultCache, prepared.programDigest);
+            }
+            return sampler != null
+                    ? engine.runAdaptive(suite, sampler, this::report)
+                    : engine.run(suite, trials, this::report);
+        }
+
+        // Адаптивний запуск не знає наперед, скільки буде виконань, тож показує лише лічильник.
+        private void report(TrialResult result) {
+            int done = finished.incrementAndGet();
+            if (sampler != null) {
+                setMessage("виконано " + done);
+            } else {
+                setMessage(done + " з " + total);
+                setProgress(done, total);
+            }
+            publish(result);
+        }
+
+        @Override
+        protected void process(List<TrialResult> chunks) {
+            for (TrialResult r : chunks) {
+                testOutputArea.append("Тест " + (r.getTestIndex() + 1) + ", варіант " + (r.getTrial() + 1) + ": "
+                        + r.getStatusText() + (r.isCached()
+                                ? " (з кешу)"
+                                : String.format(" (%d мс)", r.getDurationNanos() / 1_000_000)) + "\n");
+            }
+        }
+
+        @Override
+        protected void succeeded(TestReport report) {
+            testOutputArea.append(report.formatTiming() + "\n");
+            if (report.isCacheUsed()) {
+                testOutputArea.append(report.formatCacheStatistics() + "\n");
+            }
+            showTestReport(report, title);
+        }
+
+        @Override
+        protected void failed(Throwable error) {
+            JOptionPane.showMessageDialog(mainFrame, "Помилка тестування: " + error.getMessage(), "Помилка", JOptionPane.ERROR_MESSAGE);
+        }
+
+        @Override
+        protected void cancelled() {
+            testOutputArea.append("Тестування скасовано.\n");
+        }
+    });
+}
+
+// Декодує потоки зі знімка, зробленого в потоці подій; викликається у фоновій задачі.
+private static List<FlowchartData> readFlowcharts(Autosave.Snapshot snapshot) throws Exception {
+    List<FlowchartData> flowcharts = new ArrayList<>(snapshot.threads.size());
+    for (Callable<FlowchartData> thread : snapshot.threads) {
+        FlowchartData data = thread.call();
+        if (new FlowchartCodeWriter(data, snapshot.sharedVariables).findStartBlock() == null) {
+            throw new IOException("Потік " + (flowcharts.size() + 1) + " не має стартового блоку!");
+        }
+        flowcharts.add(data);
+    }
+    return flowcharts;
+}
+
+private static FlowchartProgram compileFlowcharts(List<FlowchartData> flowcharts, List<String> sharedVariables)
+        throws IOException {
+    try {
+        return FlowchartProgram.compile(flowcharts, sharedVariables);
+    } catch (FlowchartProgram.ExecutionError e) {
+        throw new IOException("Помилка в блок-схемі: " + e.getMessage());
+    }
+}
+
+// Що тестувати. Вибір файлу й знімки схем робляться тут, у потоці подій, а
+// компіляція, генерація коду для відбитка й читання файлу — у поверненому
+// Callable, який викликає вже фонова задача.
+private Callable<TestTarget> createTestTarget() {
+    if (executionMode == ExecutionMode.INTERPRETER) {
+        if (!checkStartBlocks()) return null;
+        Autosave.Snapshot snapshot = captureSnapshot();
+        return () -> {
+            List<FlowchartData> flowcharts = readFlowcharts(snapshot);
+            List<String> variables = snapshot.sharedVariables;
+            FlowchartProgram program = compileFlowcharts(flowcharts, variables);
+            // Інтерпретатор виконує ту саму програму, що й згенерований код, тож він і є відбитком.
+            String digest = null;
+            if (program.getThreadCount() <= 1) {
+                try {
+                    digest = ResultCache.programDigest("interpreter", out -> writePythonProgram(out, variables,
+                            flowcharts.size(), (i, w) -> new FlowchartCodeWriter(flowcharts.get(i), variables)
+                                    .write(new PythonEmitter(w, 1))));
+                } catch (IOException | UncheckedIOException e) {
+                    // Без відбитка тести просто запускаються без кешу.
+                }
+            }
+            return new TestTarget(() -> new FlowchartInterpreter(program), digest);
+        };
+    }
+
+    JFileChooser fileChooser = new JFileChooser();
+    fileChooser.setDialogTitle("Виберіть Python-файл для тестування");
+    if (fileChooser.showOpenDialog(mainFrame) != JFileChooser.APPROVE_OPTION) return null;
+
+    File file = fileChooser.getSelectedFile();
+    if (!file.exists()) {
+        JOptionPane.showMessageDialog(mainFrame, "Файл не знайдено!", "Помилка", JOptionPane.ERROR_MESSAGE);
+        return null;
+    }
+
+    boolean cache = cachePythonResults;
+    ExecutionMode mode = executionMode;
+    return () -> {
+        String digest = null;
+        if (cache) {
+            try {
+                digest = ResultCache.programDigest("python", java.nio.file.Files.readAllBytes(file.toPath()));
+            } catch (IOException e) {
+                // Без відбитка тести просто запускаються без кешу.
+            }
+        }
+
+        if (mode == ExecutionMode.PYTHON_WORKER) {
+            return new TestTarget(() -> new PythonWorkerExecutor(file), digest);
+        }
+        return new TestTarget(() -> new ProcessTrialExecutor(file), digest);
+    };
+}
+
+private void runModelCheck() {
+    if (testCases.isEmpty()) {
+        JOptionPane.showMessageDialog(mainFrame, "Не знайдено тестових випадків");
+        return;
+    }
+
+    if (!checkIdle()) return;
+
+    if (!checkStartBlocks()) return;
+    Autosave.Snapshot snapshot = captureSnapshot();
+
+    int workers = testWorkerCount;
+    long bitStateBytes = bitStateMegabytes * 1024L * 1024L;
+    boolean useParallel = workers > 1 || bitStateBytes > 0;
+    List<TestCase> suite = new ArrayList<>(testCases);
+    testOutputArea.setText("Перевірка всіх переплетінь для " + suite.size() + " тестів...\n");
+
+    startTask(new EditorTask<List<ExplorationResult>, ExplorationResult>(mainFrame, "Перевірка переплетінь") {
+        @Override
+        protected List<ExplorationResult> call() throws Exception {
+            setMessage("компіляція схем");
+            FlowchartProgram program = compileFlowcharts(readFlowcharts(snapshot), snapshot.sharedVariables);
+            InterleavingExplorer sequential = new InterleavingExplorer(program, InterleavingExplorer.DEFAULT_MAX_STATES);
+            ParallelInterleavingExplorer parallel = new ParallelInterleavingExplorer(program,
+                    InterleavingExplorer.DEFAULT_MAX_STATES, workers, bitStateBytes);
+            List<ExplorationResult> results = new ArrayList<>();
+            for (TestCase tc : suite) {
+                setMessage("тест " + (results.size() + 1) + " з " + suite.size());
+                setProgress(results.size(), suite.size());
+                ExplorationResult result = useParallel ? parallel.explore(tc) : sequential.explore(tc);
+                results.add(result);
+                publish(result);
+            }
+            return results;
+        }
+
+        @Override
+        protected void process(List<ExplorationResult> chunks) {
+            for (ExplorationResult r : chunks) {
+                testOutputArea.append("Тест " + (suite.indexOf(r.getTestCase()) + 1) + ": "
+                        + (r.isPassed() ? "✔ ПРОЙДЕНО" : "✘ НЕ ПРОЙДЕНО") + ", різних виводів: " + r.getOutputs().size()
+                        + ". " + r.formatStatistics() + "\n");
+            }
+        }
+
+        @Override
+        protected void succeeded(List<ExplorationResult> results) {
+            showExplorationReport(results);
+        }
+
+        @Override
+        protected void failed(Throwable error) {
+            JOptionPane.showMessageDialog(mainFrame, "Помилка перевірки: " + error.getMessage(), "Помилка", JOptionPane.ERROR_MESSAGE);
+        }
+
+        @Override
+        protected void cancelled() {
+            testOutputArea.append("Перевірку скасовано.\n");
+        }
+    });
+}
+
+private void showExplorationReport(List<ExplorationResult> results) {
+    StringBuilder report = new StringBuilder();
+
+    for (ExplorationResult r : results) {
+        TestCase tc = r.getTestCase();
+        report.append("Тестовий випадок:\n");
+        report.append("Вхідні дані: ").append(tc.getInput()).append("\n");
+        report.append("Очікуваний результат: ").append(tc.getExpectedOutput()).append("\n");
+        report.append("Досяжні виводи:\n");
+
+        for (Map.Entry<String, Boolean> entry : r.getOutputs().entrySet()) {
+            report.append(entry.getValue() ? "  ✔ " : "  ✘ ")
+                    .append(entry.getKey().replace("\n", "\n    ")).append("\n");
+            List<String> schedule = r.getCounterexample(entry.getKey());
+            if (schedule != null) {
+                report.append("    Розклад, що веде до цього виводу:\n");
+                for (int i = 0; i < schedule.size(); i++) {
+                    report.append("      ").append(i + 1).append(". ").append(schedule.get(i)).append("\n");
+                }
+            }
+        }
+
+        report.append("Результат: ").append(r.isPassed() ? "✔ ПРОЙДЕНО для всіх переплетінь" : "✘ НЕ ПРОЙДЕНО").append("\n");
+        report.append(r.formatStatistics()).append("\n\n");
+    }
+
+    JTextArea textArea = new JTextArea(report.toString());
+    textArea.setEditable(false);
+    textArea.setFont(new Font("Monospaced", Font.PLAIN, 12));
+    JScrollPane scrollPane = new JScrollPane(textArea);
+    scrollPane.setPreferredSize(new Dimension(700, 500));
+
+    JOptionPane.showMessageDialog(mainFrame, scrollPane, "Перевірка всіх переплетінь", JOptionPane.INFORMATION_MESSAGE);
+}
+
+private void showTestReport(TestReport report, String title) {
+    StringBuilder testResults = new StringBuilder();
+    List<TestCase> suite = report.getTestCases();
+    int passedTests = 0;
+
+    for (int i = 0; i < suite.size(); i++) {
+        TestCase tc = suite.get(i);
+        testResults.append("Тестовий випадок:\n");
+        testResults.append("Вхідні дані: ").append(tc.getInput()).append("\n");
+        testResults.append("Очікуваний результат: ").append(tc.getExpectedOutput()).append("\n");
+
+        if (report.isAdaptive()) {
+            appendAdaptiveSummary(testResults, report, i);
+            continue;
+        }
+
+        if (report.getTrials() == 1) {
+            TrialResult r = report.getResult(i, 0);
+            if (r.getOutput() != null) {
+                testResults.append("Фактичний результат: ").append(r.getOutput()).append("\n");
+                testResults.append("Результат: ").append(r.getStatusText())
+                        .append(r.isCached() ? " (з кешу)" : "").append("\n\n");
+            } else {
+                testResults.append(r.getStatusText()).append("\n\n");
+            }
+            if (r.isPassed()) passedTests++;
+            continue;
+        }
+
+        for (int trial = 0; trial < report.getTrials(); trial++) {
+            TrialResult r = report.getResult(i, trial);
+            if (r.isError()) {
+                testResults.append(r.getStatusText()).append("\n");
+            } else {
+                testResults.append("Варіант ").append(trial + 1).append(": ").append(r.getStatusText()).append("\n");
+            }
+        }
+
+        int passed = report.getPassed(i);
+        int totalRun = report.getCompleted(i);
+        double percentage = (double) passed / totalRun * 100.0;
+        testResults.append("Успішних виконань: ").append(passed).append("/").append(totalRun).append(" (")
+                .append(String.format("%.2f", percentage)).append("%)");
+        int timedOut = report.getTimedOut(i);
+        if (timedOut > 0) {
+            testResults.append(", перевищено час: ").append(timedOut);
+        }
+        testResults.append("\n\n");
+    }
+
+    if (report.getTrials() == 1) {
+        testResults.append("Підсумок: ").append(passedTests).append("/").append(suite.size()).append(" тестів пройдено\n");
+    }
+    testResults.append(report.formatTiming());
+    if (report.isCacheUsed()) {
+        testResults.append("\n").append(report.formatCacheStatistics());
+    }
+
+    JTextArea textArea = new JTextArea(testResults.toString());
+    textArea.setEditable(false);
+    textArea.setFont(new Font("Monospaced", Font.PLAIN, 12));
+    JScrollPane scrollPane = new JScrollPane(textArea);
+    scrollPane.setPreferredSize(new Dimension(600, 400));
+
+    JOptionPane.showMessageDialog(mainFrame, scrollPane, title, JOptionPane.INFORMATION_MESSAGE);
+}
+
+private void appendAdaptiveSummary(StringBuilder text, TestReport report, int testIndex) {
+    int passed = report.getPassed(testIndex);
+    int completed = report.getCompleted(testIndex);
+    int errors = report.getTrialCount(testIndex) - completed;
+    ConfidenceInterval interval = report.getInterval(testIndex);
+
+    text.append("Виконань: ").append(completed).append(", успішних: ").append(passed);
+    int timedOut = report.getTimedOut(testIndex);
+    if (timedOut > 0) text.append(", перевищено час: ").append(timedOut);
+    if (errors > 0) text.append(", помилок запуску: ").append(errors);
+    text.append("\n");
+
+    if (completed > 0) {
+        text.append(String.format("Частка успіхів: %.2f%%, 95%% інтервал: ", 100.0 * passed / completed))
+                .append(interval).append("\n");
+    }
+
+    switch (report.getSampler().getStopReason(testIndex)) {
+        case UNANIMOUS:
+            text.append(passed == 0 ? "✘ Стабільно НЕ ПРОХОДИТЬ" : "✔ Стабільно ПРОХОДИТЬ");
+            break;
+        case PRECISE:
+            text.append("⚠ Нестабільний результат (гонка): інтервал звужено до заданої точності");
+            break;
+        case LIMIT:
+            text.append("Досягнуто ліміт виконань, точність: ±")
+                    .append(String.format("%.2f%%", interval.getHalfWidth() * 100));
+            break;
+        case ERROR:
+            text.append("✘ ПОМИЛКА: вибірку зупинено після ")
+                    .append(AdaptiveSampler.MAX_CONSECUTIVE_ERRORS).append(" помилок запуску поспіль");
+            for (int trial = report.getTrialCount(testIndex) - 1; trial >= 0; trial--) {
+                TrialResult r = report.getResult(testIndex, trial);
+                if (r != null && r.isError()) {
+                    text.append("\n").append(r.getStatusText());
+                    break;
+                }
+            }
+            break;
+        default:
+            text.append("Вибірку перервано");
+            break;
+    }
+    text.append("\n\n");
+}
+
+// Що тестується: як створювати виконавців і відбиток програми для кешу
+// результатів (null, якщо програма недетермінована).
+private static class TestTarget {
+    final TrialExecutor.Factory factory;
+    final String programDigest;
+
+    TestTarget(TrialExecutor.Factory factory, String programDigest) {
+        this.factory = factory;
+        this.programDigest = programDigest;
+    }
+}
+
+private enum ExecutionMode {
+    PROCESS("Python-процес на кожен запуск"),
+    PYTHON_WORKER("Постійний Python-процес"),
+    INTERPRETER("Вбудований інтерпретатор");
+
+    private final String title;
+
+    ExecutionMode(String title) {
+        this.title = title;
+    }
+
+    @Override
+    public String toString() {
+        return title;
+    }
+}
+
+public static void main(String[] args) {
+    EdtMonitor.install();
+    SwingUtilities.invokeLater(() -> {
+        MultithreadedFlowchartEditor editor = new MultithreadedFlowchartEditor();
+        editor.mainFrame.setTitle("Редактор блок-схем з генерацією Python коду");
+    });
+}
+}
+class FlowchartPanel extends JPanel {
+    private List<Block> blocks;
+    private List<Connection> connections;
+    // Індекс тих самих з'єднань за блоками; змінюється разом зі списком connections.
+    private final ConnectionGraph graph = new ConnectionGraph();
+    private final BlockIndex blockIndex = new BlockIndex();
+    private BlockStore store = new BlockStore();
+    private List<String> sharedVariables;
+    private Block selectedBlock;
+    private Connection pendingConnection;
+    private Point dragStart;
+    private final Rectangle dirtyRegion = new Rectangle();
+    private static final Boolean[] BRANCHES = {null, true, false};
+    // Версія змісту схеми (блоки, їхній код, з'єднання, список змінних);
+    // переміщення блоків її не змінює. Згенерований код кешується для версії.
+    private long version;
+    private long cachedVersion = -1;
+    private String cachedCode;
+    static final int MAX_CACHED_BLOCKS = 2000;
+    // Схема з файлу, що ще декодується (див. ProjectFile); null, коли дані вже в панелі.
+    private FutureTask<FlowchartData> pendingData;
+    private Callable<FlowchartData> pendingSource;
+    private EditListener editListener;
+    // Незмінна копія поточної схеми; скидається кожною зміною.
+    private FlowchartSnapshot snapshot;
+    private Point pressedAt;
+    private final UndoHistory history = new UndoHistory();
+
+    // Отримує кожну завершену зміну схеми (для журналу автозбереження).
+    interface EditListener {
+        void edited(ProjectEdit edit);
+
+        // Схему замінено цілком (скасування або повторення).
+        void restored();
+    }
+
+    public FlowchartPanel(List<String> sharedVariables) {
+        this.sharedVariables = sharedVariables;
+        blocks = new ArrayList<>();
+        connections = new ArrayList<>();
+        setPreferredSize(new Dimension(800, 600));
+        setBackground(Color.WHITE);
+
+        addMouseListener(new MouseAdapter() {
+            @Override
+            public void mousePressed(MouseEvent e) {
+                handleMousePressed(e);
+            }
+
+            @Override
+            public void mouseReleased(MouseEvent e) {
+                handleMouseReleased(e);
+            }
+        });
+
+        addMouseMotionListener(new MouseMotionAdapter() {
+            @Override
+            public void mouseDragged(MouseEvent e) {
+                handleMouseDragged(e);
+            }
+        });
+    }
+
+    public void updateVariableList(List<String> variables) {
+        this.sharedVariables = variables;
+        markModified();
+        repaint();
+    }
+
+    public FlowchartData getFlowchartData() {
+        ensureLoaded();
+        FlowchartData data = new FlowchartData();
+        data.setBlocks(new ArrayList<>(blocks));
+        data.setConnections(new ArrayList<>(connections));
+        return data;
+    }
+
+    public void setFlowchartData(FlowchartData data) {
+        showData(data.getBlocks(), data.getConnections());
+        history.reset(blocks, connections);
+    }
+
+    private void showData(List<Block> blockList, List<Connection> connectionList) {
+        snapshot = null;
+        this.blocks = new ArrayList<>(blockList);
+        this.connections = new ArrayList<>(connectionList);
+        // Дані блоків переносяться в нове сховище, розміром під схему.
+        store = new BlockStore(blocks.size());
+        for (Block block : blocks) {
+            store.adopt(block);
+        }
+        graph.rebuild(connections);
+        blockIndex.rebuild(blocks);
+        markModified();
+        repaint();
+    }
+
+    // Схема підставляється при першому зверненні до панелі або після фонового
+    // декодування: повернуту задачу можна виконати в іншому потоці.
+    public FutureTask<FlowchartData> loadLater(Callable<FlowchartData> source) {
+        FutureTask<FlowchartData> task = new FutureTask<FlowchartData>(source) {
+            @Override
+            protected void done() {
+                if (!isCancelled()) SwingUtilities.invokeLater(FlowchartPanel.this::ensureLoaded);
+            }
+        };
+        pendingData = task;
+        pendingSource = source;
+        return task;
+    }
+
+    // Дочікується схеми з файлу; якщо її ще ніхто не декодує, декодує сама.
+    // Викликається лише з потоку подій.
+    public void ensureLoaded() {
+        FutureTask<FlowchartData> task = pendingData;
+        Callable<FlowchartData> source = pendingSource;
+        if (task == null) return;
+        pendingData = null;
+        pendingSource = null;
+        task.run();
+        FlowchartData data;
+        try {
+            data = task.get();
+        } catch (CancellationException e) {
+            return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pendingData = task;
+            pendingSource = source;
+            return;
+        } catch (ExecutionException e) {
+            JOptionPane.showMessageDialog(this,
+                    "Помилка завантаження потоку: " + e.getCause().getMessage(),
+                    "Помилка", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        setFlowchartData(data);
+    }
+
+    public void setEditListener(EditListener listener) {
+        editListener = listener;
+    }
+
+    // Незмінний стан схеми, який можна прочитати з іншого потоку. Ще не
+    // декодована схема й далі читається з файлу.
+    public Callable<FlowchartData> snapshot() {
+        if (pendingData != null) return pendingSource;
+        if (snapshot == null) snapshot = new FlowchartSnapshot(blocks, connections);
+        return snapshot;
+    }
+
+    private void markModified() {
+        version++;
+    }
+
+    // Кожна завершена зміна — один крок історії й один запис журналу.
+    private void fireEdit(ProjectEdit edit) {
+        history.commit();
+        snapshot = null;
+        if (editListener != null) editListener.edited(edit);
+    }
+
+    public void setUndoDepth(int depth) {
+        history.setDepth(depth);
+    }
+
+    // Посеред перетягування скасування не діє: жест ще не став кроком історії.
+    public void undo() {
+        if (selectedBlock == null) restore(history.undo());
+    }
+
+    public void redo() {
+        if (selectedBlock == null) restore(history.redo());
+    }
+
+    private void restore(UndoHistory.State state) {
+        if (state == null) return;
+        List<Block> restoredBlocks = new ArrayList<>();
+        for (int i = 0; i < state.blocks.size(); i++) {
+            UndoHistory.BlockState s = state.blocks.get(i);
+            if (s == null) continue;
+            Block block = s.block;
+            if (block.getX() != s.x || block.getY() != s.y) block.move(s.x - block.getX(), s.y - block.getY());
+            if (!Objects.equals(block.getCode(), s.code)) block.setCode(s.code);
+            restoredBlocks.add(block);
+        }
+        List<Connection> restoredConnections = new ArrayList<>();
+        for (int i = 0; i < state.connections.size(); i++) {
+            UndoHistory.ConnectionState s = state.connections.get(i);
+            if (s == null) continue;
+            s.connection.setTo(s.to);
+            s.connection.condition = s.condition;
+            restoredConnections.add(s.connection);
+        }
+        showData(restoredBlocks, restoredConnections);
+        if (editListener != null) editListener.restored();
+    }
+
+    private int indexOf(Block block) {
+        for (int i = 0; i < blocks.size(); i++) {
+            if (blocks.get(i) == block) return i;
+        }
+        return -1;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public boolean isCodeCached() {
+        return cachedVersion == version;
+    }
+
+    public boolean isLoaded() {
+        return pendingData == null;
+    }
+
+    // Актуальний код з кешу без декодування схеми; null, якщо його немає.
+    public String getCachedCode() {
+        return pendingData == null && isCodeCached() ? cachedCode : null;
+    }
+
+    // Код, згенерований у фоні зі знімка версії version; відкидається, якщо схема вже змінилася.
+    public void storeCode(long version, String code) {
+        if (pendingData != null || this.version != version) return;
+        cachedCode = code;
+        cachedVersion = version;
+    }
+
+    public String generatePythonCode() {
+        ensureLoaded();
+        StringWriter code = new StringWriter();
+        try {
+            writePythonCode(new PythonEmitter(code));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return code.toString();
+    }
+
+    private void writePythonCode(PythonEmitter emitter) throws IOException {
+        new FlowchartCodeWriter(blocks, graph, sharedVariables).write(emitter);
+    }
+
+    private Connection findConnectionFrom(Block from, Boolean condition) {
+        return graph.first(from, condition);
+    }
+
+
+    public Block findStartBlock() {
+        ensureLoaded();
+        for (Block block : blocks) {
+            if (block.getType() == BlockType.START) {
+                return block;
+            }
+        }
+        return null;
+    }
+
+    private void handleMousePressed(MouseEvent e) {
+        if (SwingUtilities.isRightMouseButton(e)) {
+            showContextMenu(e.getPoint());
+            return;
+        }
+
+        selectedBlock = null;
+        pendingConnection = null;
+        for (Block block : blockIndex.at(e.getX(), e.getY())) {
+            if (block.isNearOutput(e.getX(), e.getY())) {
+                Connection newConn = new Connection(block, null);
+                connections.add(newConn);
+                graph.add(newConn);
+                pendingConnection = newConn;
+                markModified();
+                selectedBlock = block;
+                break;
+            }
+            if (block.contains(e.getX(), e.getY())) {
+                selectedBlock = block;
+                dragStart = e.getPoint();
+                pressedAt = new Point(block.getX(), block.getY());
+                break;
+            }
+        }
+
+        repaint();
+    }
+
+    private void handleMouseDragged(MouseEvent e) {
+        if (selectedBlock != null) {
+            // Перемальовується лише ділянка блоку з його з'єднаннями до і після зміни.
+            Rectangle dirty = dirtyRegion;
+            dirty.setBounds(selectedBlock.getX(), selectedBlock.getY(), 0, 0);
+            addRegion(selectedBlock, dirty);
+            if (pendingConnection != null) {
+                pendingConnection.setDragPoint(e.getX(), e.getY());
+            } else {
+                int dx = e.getX() - dragStart.x;
+                int dy = e.getY() - dragStart.y;
+                blockIndex.move(selectedBlock, dx, dy);
+                dragStart.setLocation(e.getX(), e.getY());
+            }
+
+            addRegion(selectedBlock, dirty);
+            repaint(dirty.x, dirty.y, dirty.width, dirty.height);
+        }
+    }
+
+    // Додає до region ділянку блоку і всіх його вхідних та вихідних з'єднань
+    // (разом із з'єднанням, що зараз тягнеться з блоку).
+    private void addRegion(Block block, Rectangle region) {
+        block.addBounds(region);
+        for (Boolean condition : BRANCHES) {
+            for (Connection conn : graph.outgoing(block, condition)) {
+                conn.addBounds(region);
+            }
+        }
+        for (Connection conn : graph.incoming(block)) {
+            conn.addBounds(region);
+        }
+    }
+
+    // Стан жесту скидається й тоді, коли з'єднання скасовано: інакше
+    // undo()/redo() вважали б, що перетягування ще триває.
+    private void handleMouseReleased(MouseEvent e) {
+        if (selectedBlock == null) return;
+        try {
+            Connection incompleteConn = pendingConnection;
+            pendingConnection = null;
+            if (incompleteConn != null) {
+                markModified();
+            }
+
+            if (incompleteConn != null) {
+                for (Block block : blockIndex.at(e.getX(), e.getY())) {
+                    if (block != selectedBlock && block.contains(e.getX(), e.getY())) {
+                        graph.setTo(incompleteConn, block);
+
+                        if (selectedBlock.getType() == BlockType.CONDITION) {
+                            Boolean branch = chooseBranch();
+                            if (branch == null) {
+                                // Користувач натиснув "Закрити" — відмінити з’єднання
+                                graph.remove(incompleteConn);
+                                connections.remove(incompleteConn);
+                                return;
+                            }
+                            graph.setCondition(incompleteConn, branch);
+                        }
+
+
+                        removeDuplicateConnections(incompleteConn, block);
+                        history.connectionChanged(incompleteConn);
+                        fireEdit(ProjectEdit.addConnection(indexOf(selectedBlock), indexOf(block),
+                                selectedBlock.getType() == BlockType.CONDITION ? incompleteConn.condition : null));
+
+                        break;
+                    }
+                }
+
+                if (incompleteConn.getTo() == null) {
+                    graph.remove(incompleteConn);
+                    connections.remove(incompleteConn);
+                }
+            } else if (pressedAt != null && (selectedBlock.getX() != pressedAt.x || selectedBlock.getY() != pressedAt.y)) {
+                history.blockChanged(selectedBlock);
+                fireEdit(ProjectEdit.moveBlock(indexOf(selectedBlock), selectedBlock.getX(), selectedBlock.getY()));
+            }
+        } finally {
+            pressedAt = null;
+            selectedBlock = null;
+            repaint();
+        }
+    }
+
+    // Гілка умови для нового з'єднання; null, якщо діалог закрито.
+    Boolean chooseBranch() {
+        String[] options = {"True (істина)", "False (хиба)"};
+        int choice = JOptionPane.showOptionDialog(
+                this,
+                "Це перехід по гілці:",
+                "Вибір гілки умови",
+                JOptionPane.DEFAULT_OPTION,
+                JOptionPane.QUESTION_MESSAGE,
+                null,
+                options,
+                options[0]
+        );
+        if (choice == 0) return true;
+        if (choice == 1) return false;
+        return null;
+    }
+
+    // Нове з'єднання замінює наявні з'єднання з того ж блоку в той самий блок.
+    private void removeDuplicateConnections(Connection added, Block target) {
+        Set<Connection> duplicates = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Boolean condition : new Boolean[]{null, true, false}) {
+            for (Connection c : graph.outgoing(selectedBlock, condition)) {
+                if (c != added && c.getTo() == target
+                        && (selectedBlock.getType() != BlockType.CONDITION || c.isCondition() == added.isCondition())) {
+                    duplicates.add(c);
+                }
+            }
+        }
+        if (duplicates.isEmpty()) return;
+        for (Connection c : duplicates) {
+            graph.remove(c);
+            history.connectionRemoved(c);
+        }
+        connections.removeIf(duplicates::contains);
+    }
+
+    private void showContextMenu(Point point) {
+        JPopupMenu menu = new JPopupMenu();
+
+        Block clickedBlock = blockIndex.blockAt(point.x, point.y);
+
+        if (clickedBlock != null) {
+            JMenuItem editItem = new JMenuItem("Редагувати блок");
+            editItem.addActionListener(e -> editBlock(clickedBlock));
+            menu.add(editItem);
+
+            JMenuItem deleteItem = new JMenuItem("Видалити блок");
+            deleteItem.addActionListener(e -> {
+                int index = indexOf(clickedBlock);
+                blocks.remove(clickedBlock);
+                blockIndex.remove(clickedBlock);
+                store.release(clickedBlock);
+                Set<Connection> removed = graph.removeBlock(clickedBlock);
+                if (!removed.isEmpty()) {
+                    connections.removeIf(removed::contains);
+                }
+                history.blockRemoved(clickedBlock);
+                for (Connection c : removed) {
+                    history.connectionRemoved(c);
+                }
+                markModified();
+                fireEdit(ProjectEdit.removeBlock(index));
+                repaint();
+            });
+            menu.add(deleteItem);
+        } else {
+            for (BlockType type : BlockType.values()) {
+                JMenuItem item = new JMenuItem("Додати " + type);
+                item.addActionListener(e -> addNewBlock(type, point));
+                menu.add(item);
+            }
+        }
+
+        menu.show(this, point.x, point.y);
+    }
+
+    private void addNewBlock(BlockType type, Point location) {
+        Block block = store.create(type, location.x, location.y);
+
+        switch (type) {
+            case ASSIGNMENT:
+                if (!sharedVariables.isEmpty()) {
+                    block.setCode(sharedVariables.get(0) + " = " + (sharedVariables.size() > 1 ? sharedVariables.get(1) : "0"));
+                }
+                break;
+            case INPUT:
+                if (!sharedVariables.isEmpty()) {
+                    block.setCode(sharedVariables.get(0));
+                }
+                break;
+            case OUTPUT:
+                if (!sharedVariables.isEmpty()) {
+                    block.setCode(sharedVariables.get(0));
+                }
+                break;
+            case CONDITION:
+                if (!sharedVariables.isEmpty()) {
+                    block.setCode(sharedVariables.get(0) + " == 0");
+                }
+                break;
+        }
+
+        blocks.add(block);
+        blockIndex.add(block);
+        history.blockChanged(block);
+        markModified();
+        fireEdit(ProjectEdit.addBlock(type, block.getX(), block.getY(), block.getCode()));
+        repaint();
+    }
+
+    private void editBlock(Block block) {
+        JDialog editDialog = new JDialog((Frame) SwingUtilities.getWindowAncestor(this), "Редагування блоку", true);
+        editDialog.setSize(400, 200);
+        editDialog.setLayout(new BorderLayout());
+
+        JPanel contentPanel = new JPanel(new BorderLayout());
+        JLabel typeLabel = new JLabel("Тип: " + block.getType());
+        contentPanel.add(typeLabel, BorderLayout.NORTH);
+
+        if (block.getType() == BlockType.OUTPUT) {
+            // 🔽 Додано спеціальне редагування для OUTPUT
+            JComboBox<String> modeCombo = new JComboBox<>(new String[]{"Змінна", "Текст"});
+            JTextField valueField = new JTextField(block.getCode() != null ? block.getCode() : "", 20);
+
+            // Автоматичне визначення режиму
+            String code = block.getCode();
+            if (code != null && !code.trim().isEmpty()) {
+                if (code.trim().matches("[a-zA-Z_][a-zA-Z0-9_]*")) {
+                    modeCombo.setSelectedItem("Змінна");
+                } else {
+                    modeCombo.setSelectedItem("Текст");
+                }
+            }
+
+            JPanel outputPanel = new JPanel(new FlowLayout());
+            outputPanel.add(new JLabel("Режим:"));
+            outputPanel.add(modeCombo);
+            outputPanel.add(new JLabel("Значення:"));
+            outputPanel.add(valueField);
+
+            JButton saveButton = new JButton("Зберегти");
+            saveButton.addActionListener(e -> {
+                block.setCode(valueField.getText().trim());
+                history.blockChanged(block);
+                markModified();
+                fireEdit(ProjectEdit.setCode(indexOf(block), block.getCode()));
+                editDialog.dispose();
+                repaint();
+            });
+
+            contentPanel.add(outputPanel, BorderLayout.CENTER);
+            contentPanel.add(saveButton, BorderLayout.SOUTH);
+        }
+
+        else if (block.getType() == BlockType.CONDITION || block.getType() == BlockType.ASSIGNMENT) {
+            JPanel varPanel = new JPanel(new FlowLayout());
+            JComboBox<String> varCombo = new JComboBox<>();
+
+            for (String var : sharedVariables) {
+                varCombo.addItem(var);
+            }
+
+            if (block.getType() == BlockType.CONDITION) {
+                JComboBox<String> opCombo = new JComboBox<>(new String[]{"==", "<", ">"});
+                JTextField valueField = new JTextField(10);
+
+                String code = block.getCode();
+                if (code != null && !code.isEmpty()) {
+                    String[] parts = code.split("\\s+");
+                    if (parts.length >= 3) {
+                        varCombo.setSelectedItem(parts[0]);
+                        opCombo.setSelectedItem(parts[1]);
+                        valueField.setText(parts[2]);
+                    }
+                }
+
+                JButton applyButton = new JButton("Застосувати");
+                applyButton.addActionListener(e -> {
+                    block.setCode(varCombo.getSelectedItem() + " " +
+                            opCombo.getSelectedItem() + " " +
+                            valueField.getText());
+                    history.blockChanged(block);
+                    markModified();
+                    fireEdit(ProjectEdit.setCode(indexOf(block), block.getCode()));
+                    editDialog.dispose();
+                    repaint();
+                });
+
+                varPanel.add(varCombo);
+                varPanel.add(opCombo);
+                varPanel.add(valueField);
+                varPanel.add(applyButton);
+            } else {
+                JLabel equalsLabel = new JLabel("=");
+                JTextField valueField = new JTextField(10);
+
+                String code = block.getCode();
+                if (code != null && !code.isEmpty()) {
+                    String[] parts = code.split("=");
+                    if (parts.length >= 2) {
+                        varCombo.setSelectedItem(parts[0].trim());
+                        valueField.setText(parts[1].trim());
+                    }
+                }
+
+                JButton applyButton = new JButton("Застосувати");
+                applyButton.addActionListener(e -> {
+                    block.setCode(varCombo.getSelectedItem() + " = " + valueField.getText());
+                    history.blockChanged(block);
+                    markModified();
+                    fireEdit(ProjectEdit.setCode(indexOf(block), block.getCode()));
+                    editDialog.dispose();
+                    repaint();
+                });
+
+                varPanel.add(varCombo);
+                varPanel.add(equalsLabel);
+                varPanel.add(valueField);
+                varPanel.add(applyButton);
+            }
+
+            contentPanel.add(varPanel, BorderLayout.CENTER);
+        }
+
+        else {
+            // Стандартне текстове поле для інших типів
+            JTextArea codeArea = new JTextArea(block.getCode(), 3, 30);
+            JButton saveButton = new JButton("Зберегти");
+            saveButton.addActionListener(e -> {
+                block.setCode(codeArea.getText().trim());
+                history.blockChanged(block);
+                markModified();
+                fireEdit(ProjectEdit.setCode(indexOf(block), block.getCode()));
+                editDialog.dispose();
+                repaint();
+            });
+
+            contentPanel.add(new JScrollPane(codeArea), BorderLayout.CENTER);
+            contentPanel.add(saveButton, BorderLayout.SOUTH);
+        }
+
+        editDialog.add(contentPanel);
+        editDialog.setVisible(true);
+    }
+
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        long start = System.nanoTime();
+        super.paintComponent(g);
+        Graphics2D g2d = (Graphics2D) g;
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+
+        // Малюється лише те, що перетинає ділянку перемальовування.
+        Rectangle clip = g2d.getClipBounds();
+
+        for (Connection conn : connections) {
+            if (clip == null || conn.intersects(clip)) {
+                conn.draw(g2d);
+            }
+        }
+
+        for (Block block : blocks) {
+            if (clip == null || block.intersects(clip)) {
+                block.draw(g2d);
+            }
+        }
+        EdtMonitor.record(EdtMonitor.PAINT, start);
+    }
+}
+// Дескриптор блоку в BlockStore: самі дані (тип, координати, код) лежать у
+// масивах сховища схеми. Блок, створений конструктором чи вилучений зі сховища,
+// тримає дані при собі, доки BlockStore.adopt() не перенесе його у сховище панелі:
+// окреме сховище на кожен такий блок коштувало б кількох масивів і мапи.
+class Block implements Serializable {
+    // Значення, обчислене для початкової версії класу, щоб старі .ser-файли читалися й надалі.
+    private static final long serialVersionUID = 1030462516293201180L;
+    // Формат серіалізації той самий, що й до перенесення даних у BlockStore.
+    private static final ObjectStreamField[] serialPersistentFields = {
+            new ObjectStreamField("type", BlockType.class),
+            new ObjectStreamField("x", int.class),
+            new ObjectStreamField("y", int.class),
+            new ObjectStreamField("code", String.class)
+    };
+    static final int WIDTH = 120;
+    static final int HEIGHT = 60;
+    private static final int PAINT_MARGIN = 4;
+    // Ромб умови відносно лівого верхнього кута блоку; спільний для всіх блоків.
+    private static final int[] DIAMOND_X = {WIDTH / 2, WIDTH, WIDTH / 2, 0};
+    private static final int[] DIAMOND_Y = {0, HEIGHT / 2, HEIGHT, HEIGHT / 2};
+
+    private transient BlockStore store;
+    private transient int slot;
+    // Дані блоку поза сховищем; null, поки блок у сховищі.
+    private transient Detached detached;
+
+    private static final class Detached {
+        final BlockType type;
+        int x;
+        int y;
+        String code;
+
+        Detached(BlockType type, int x, int y, String code) {
+            this.type = type;
+            this.x = x;
+            this.y = y;
+            this.code = code;
+        }
+    }
+
+    public Block(BlockType type, int x, int y) {
+        detached = new Detached(type, x, y, null);
+    }
+
+    // Для BlockStore.create(): слот призначає сховище.
+    Block() {
+    }
+
+    void attach(BlockStore store, int slot) {
+        this.store = store;
+        this.slot = slot;
+        this.detached = null;
+    }
+
+    // Для BlockStore.release(): дані переходять у дескриптор до звільнення слота.
+    void detach() {
+        detached = new Detached(getType(), getX(), getY(), getCode());
+        store = null;
+    }
+
+    BlockStore getStore() {
+        return store;
+    }
+
+    int getSlot() {
+        return slot;
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        ObjectOutputStream.PutField fields = out.putFields();
+        fields.put("type", getType());
+        fields.put("x", getX());
+        fields.put("y", getY());
+        fields.put("code", getCode());
+        out.writeFields();
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = in.readFields();
+        BlockType type = (BlockType) fields.get("type", null);
+        if (type == null) throw new InvalidObjectException("Блок без типу");
+        detached = new Detached(type, fields.get("x", 0), fields.get("y", 0), (String) fields.get("code", null));
+    }
+
+    public BlockType getType() {
+        return store != null ? store.getType(slot) : detached.type;
+    }
+
+    public int getX() {
+        return store != null ? store.getX(slot) : detached.x;
+    }
+
+    public int getY() {
+        return store != null ? store.getY(slot) : detached.y;
+    }
+
+    public int getWidth() {
+        return WIDTH;
+    }
+
+    public int getHeight() {
+        return HEIGHT;
+    }
+
+    public String getCode() {
+        return store != null ? store.getCode(slot) : detached.code;
+    }
+
+    public void setCode(String code) {
+        if (store != null) {
+            store.setCode(slot, code);
+        } else {
+            detached.code = code;
+        }
+    }
+
+    public void move(int dx, int dy) {
+        if (store != null) {
+            store.move(slot, dx, dy);
+        } else {
+            detached.x += dx;
+            detached.y += dy;
+        }
+    }
+
+    public boolean contains(Point p) {
+        return contains(p.x, p.y);
+    }
+
+    public boolean contains(int px, int py) {
+        int x = getX(), y = getY();
+        return px >= x && px <= x + WIDTH && py >= y && py <= y + HEIGHT;
+    }
+
+    // Межі намальованого блоку разом із точками портів і контуром.
+    public Rectangle getBounds() {
+        int x = getX(), y = getY();
+        return new Rectangle(x - PAINT_MARGIN, y - PAINT_MARGIN, WIDTH + 2 * PAINT_MARGIN, HEIGHT + 2 * PAINT_MARGIN);
+    }
+
+    public void addBounds(Rectangle r) {
+        int x = getX(), y = getY();
+        r.add(x - PAINT_MARGIN, y - PAINT_MARGIN);
+        r.add(x + WIDTH + PAINT_MARGIN, y + HEIGHT + PAINT_MARGIN);
+    }
+
+    public boolean intersects(Rectangle r) {
+        int x = getX(), y = getY();
+        return x - PAINT_MARGIN < r.x + r.width && r.x < x + WIDTH + PAINT_MARGIN
+                && y - PAINT_MARGIN < r.y + r.height && r.y < y + HEIGHT + PAINT_MARGIN;
+    }
+
+    public boolean isNearOutput(Point p) {
+        return isNearOutput(p.x, p.y);
+    }
+
+    public boolean isNearOutput(int px, int py) {
+        int x = getX(), y = getY();
+        if (getType() == BlockType.CONDITION) {
+            int trueX = x + WIDTH;
+            int falseX = x;
+            int outputY = y + HEIGHT / 3;
+            int sensitivity = 15;
+
+            boolean nearTrue = Math.abs(px - trueX) < sensitivity &&
+                    Math.abs(py - outputY) < sensitivity;
+            boolean nearFalse = Math.abs(px - falseX) < sensitivity &&
+                    Math.abs(py - outputY) < sensitivity;
+
+            return nearTrue || nearFalse;
+        } else {
+            int outputX = x + WIDTH / 2;
+            int outputY = y + HEIGHT;
+            return Math.abs(px - outputX) < 10 && Math.abs(py - outputY) < 10;
+        }
+    }
+
+    // Координати портів без створення Point (для малювання й перетягування).
+    // branch == null — звичайний вихід знизу, true/false — виходи умови праворуч/ліворуч.
+    public int getOutputX(Boolean branch) {
+        int x = getX();
+        if (branch == null) return x + WIDTH / 2;
+        return branch ? x + WIDTH : x;
+    }
+
+    public int getOutputY(Boolean branch) {
+        return branch == null ? getY() + HEIGHT : getY() + HEIGHT / 3;
+    }
+
+    public int getInputX() {
+        return getX() + WIDTH / 2;
+    }
+
+    public int getInputY() {
+        return getY();
+    }
+
+    public Point getOutputPoint() {
+        return new Point(getOutputX(null), getOutputY(null));
+    }
+
+    public Point getInputPoint() {
+        return new Point(getInputX(), getInputY());
+    }
+
+    public Point getTrueOutputPoint() {
+        return new Point(getOutputX(true), getOutputY(true));
+    }
+
+    public Point getFalseOutputPoint() {
+        return new Point(getOutputX(false), getOutputY(false));
+    }
+
+    public void draw(Graphics2D g) {
+        BlockType type = getType();
+        int x = getX(), y = getY();
+        Color color;
+        switch (type) {
+            case START:
+                color = Color.GREEN;
+                break;
+            case END:
+                color = Color.RED;
+                break;
+            case CONDITION:
+                color = Color.YELLOW;
+                break;
+            default:
+                color = Color.CYAN;
+        }
+
+        g.translate(x, y);
+        g.setColor(color);
+
+        if (type == BlockType.START || type == BlockType.END) {
+            g.fillOval(0, 0, WIDTH, HEIGHT);
+        } else if (type == BlockType.CONDITION) {
+            g.fillPolygon(DIAMOND_X, DIAMOND_Y, 4);
+        } else {
+            g.fillRoundRect(0, 0, WIDTH, HEIGHT, 20, 20);
+        }
+
+        g.setColor(Color.BLACK);
+        if (type == BlockType.START || type == BlockType.END) {
+            g.drawOval(0, 0, WIDTH, HEIGHT);
+        } else if (type == BlockType.CONDITION) {
+            g.drawPolygon(DIAMOND_X, DIAMOND_Y, 4);
+        } else {
+            g.drawRoundRect(0, 0, WIDTH, HEIGHT, 20, 20);
+        }
+
+        if (store != null) {
+            String label = store.getLabel(slot, g);
+            g.drawString(label, store.getLabelDX(slot), store.getLabelDY(slot));
+        } else {
+            FontMetrics fm = g.getFontMetrics();
+            String label = BlockStore.label(type, getCode(), fm);
+            g.drawString(label, BlockStore.labelDX(label, fm), BlockStore.labelDY(fm));
+        }
+        g.translate(-x, -y);
+
+        g.setColor(Color.RED);
+        if (type != BlockType.END) {
+            if (type == BlockType.CONDITION) {
+                g.fillOval(getOutputX(true) - 3, getOutputY(true) - 3, 6, 6);
+                g.fillOval(getOutputX(false) - 3, getOutputY(false) - 3, 6, 6);
+            } else {
+                g.fillOval(getOutputX(null) - 3, getOutputY(null) - 3, 6, 6);
+            }
+        }
+
+        if (type != BlockType.START) {
+            g.fillOval(getInputX() - 3, getInputY() - 3, 6, 6);
+        }
+    }
+}
+class Connection implements Serializable {
+    private static final long serialVersionUID = 5407050698750724860L;
+    // Стрілка (8 пікселів) і підпис T/F біля середини лінії.
+    private static final int PAINT_MARGIN = 16;
+
+    private Block from;
+    private Block to;
+    private Point dragPoint;
+    Boolean condition;
+    // Кеш геометрії стрілки (arrowX[0], arrowY[0] — кінець лінії).
+    private transient int[] arrowX, arrowY;
+    private transient int arrowStartX, arrowStartY;
+
+    public Connection(Block from, Block to) {
+        this.from = from;
+        this.to = to;
+    }
+
+    public Block getFrom() {
+        return from;
+    }
+
+    public Block getTo() {
+        return to;
+    }
+
+    public void setTo(Block to) {
+        this.to = to;
+    }
+
+    public void setDragPoint(Point p) {
+        this.dragPoint = p;
+    }
+
+    // Під час перетягування точка оновлюється на місці.
+    public void setDragPoint(int x, int y) {
+        if (dragPoint == null) {
+            dragPoint = new Point(x, y);
+        } else {
+            dragPoint.setLocation(x, y);
+        }
+    }
+
+    public boolean isCondition() {
+        return condition != null;
+    }
+
+    public void setCondition(boolean condition) {
+        this.condition = condition;
+    }
+
+    // Вихід блоку, з якого йде лінія: null — звичайний, true/false — гілки умови.
+    private Boolean startBranch() {
+        return from.getType() == BlockType.CONDITION ? condition : null;
+    }
+
+    // Лінія малюється, лише якщо є кінець: блок або точка перетягування.
+    private boolean hasEnd() {
+        return from != null && (to != null || dragPoint != null);
+    }
+
+    private int getEndX() {
+        return to != null ? to.getInputX() : dragPoint.x;
+    }
+
+    private int getEndY() {
+        return to != null ? to.getInputY() : dragPoint.y;
+    }
+
+    // Межі лінії разом зі стрілкою та підписом гілки; null, якщо з'єднання не малюється.
+    public Rectangle getBounds() {
+        if (!hasEnd()) return null;
+        Rectangle bounds = new Rectangle(from.getOutputX(startBranch()), from.getOutputY(startBranch()), 0, 0);
+        addBounds(bounds);
+        return bounds;
+    }
+
+    public void addBounds(Rectangle r) {
+        if (!hasEnd()) return;
+        Boolean branch = startBranch();
+        int startX = from.getOutputX(branch), startY = from.getOutputY(branch);
+        int endX = getEndX(), endY = getEndY();
+        r.add(Math.min(startX, endX) - PAINT_MARGIN, Math.min(startY, endY) - PAINT_MARGIN);
+        r.add(Math.max(startX, endX) + PAINT_MARGIN, Math.max(startY, endY) + PAINT_MARGIN);
+    }
+
+    public boolean intersects(Rectangle r) {
+        if (!hasEnd()) return false;
+        Boolean branch = startBranch();
+        int startX = from.getOutputX(branch), startY = from.getOutputY(branch);
+        int endX = getEndX(), endY = getEndY();
+        return Math.min(startX, endX) - PAINT_MARGIN < r.x + r.width && r.x < Math.max(startX, endX) + PAINT_MARGIN
+                && Math.min(startY, endY) - PAINT_MARGIN < r.y + r.height && r.y < Math.max(startY, endY) + PAINT_MARGIN;
+    }
+
+    // Вершини стрілки; перераховуються лише тоді, коли зсунувся хоч один кінець лінії.
+    private void updateArrow(int startX, int startY, int endX, int endY) {
+        if (arrowX == null) {
+            arrowX = new int[3];
+            arrowY = new int[3];
+        }
+        int arrowSize = 8;
+        double angle = Math.atan2(endY - startY, endX - startX);
+
+        arrowX[0] = endX;
+        arrowY[0] = endY;
+        arrowX[1] = (int) (endX - arrowSize * Math.cos(angle - Math.PI / 6));
+        arrowY[1] = (int) (endY - arrowSize * Math.sin(angle - Math.PI / 6));
+        arrowX[2] = (int) (endX - arrowSize * Math.cos(angle + Math.PI / 6));
+        arrowY[2] = (int) (endY - arrowSize * Math.sin(angle + Math.PI / 6));
+        arrowStartX = startX;
+        arrowStartY = startY;
+    }
+
+    public void draw(Graphics2D g) {
+        if (!hasEnd()) return;
+
+        Boolean branch = startBranch();
+        int startX = from.getOutputX(branch), startY = from.getOutputY(branch);
+        int endX = getEndX(), endY = getEndY();
+
+        g.setColor(Color.BLUE);
+        g.drawLine(startX, startY, endX, endY);
+
+        // Draw arrowhead
+        if (arrowX == null || startX != arrowStartX || startY != arrowStartY || endX != arrowX[0] || endY != arrowY[0]) {
+            updateArrow(startX, startY, endX, endY);
+        }
+        g.fillPolygon(arrowX, arrowY, 3);
+
+        // Draw condition label
+        if (branch != null) {
+            String label = branch ? "T" : "F";
+            int labelX = (startX + endX) / 2;
+            int labelY = (startY + endY) / 2;
+            g.drawString(label, labelX, labelY);
+        }
+    }
+}
+
+enum BlockType {
+    START, END, ASSIGNMENT, INPUT, OUTPUT, CONDITION
+}
+class ProjectData implements Serializable {
+    // Значення, обчислене для класу в пакеті за замовчуванням, щоб старі .ser-файли читалися й надалі.
+    private static final long serialVersionUID = 1830922054452759527L;
+    private List<String> sharedVariables;
+    private List<FlowchartData> flowchartData;
+
+    public List<String> getSharedVariables() {
+        return sharedVariables;
+    }
+
+    public void setSharedVariables(List<String> sharedVariables) {
+        this.sharedVariables = sharedVariables;
+    }
+
+    public List<FlowchartData> getFlowchartData() {
+        return flowchartData;
+    }
+
+    public void setFlowchartData(List<FlowchartData> flowchartData) {
+        this.flowchartData = flowchartData;
+    }
+}
+class FlowchartData implements Serializable {
+    private static final long serialVersionUID = -4974107902778164326L;
+    private List<Block> blocks;
+    private List<Connection> connections;
+
+    public List<Block> getBlocks() {
+        return blocks;
+    }
+
+    public void setBlocks(List<Block> blocks) {
+        this.blocks = blocks;
+    }
+
+    public List<Connection> getConnections() {
+        return connections;
+    }
+
+    public void setConnections(List<Connection> connections) {
+        this.connections = connections;
+    }
+}
+
+class TestCase {
+    private String input;
+    private String expectedOutput;
+
+    public TestCase(String input, String expectedOutput) {
+        this.input = input;
+        this.expectedOutput = expectedOutput;
+    }
+
+    public String getInput() {
+        return input;
+    }
+
+    public String getExpectedOutput() {
+        return expectedOutput;
+    }
+
+    @Override
+    public String toString() {
+        return "Input: " + input + " -> Expected: " + expectedOutput;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,133 @@
+package flowchart;
+
+import java.util.*;
+
+// Інкрементально шукає очікуваний результат у виводі програми, не зберігаючи
+// його повністю. Вивід нормалізується так само, як раніше: кожен рядок
+// обрізається від пробілів, рядки з'єднуються через '\n'. Пошук — алгоритм
+// Кнута-Морріса-Пратта, тому кожен символ обробляється один раз.
+class OutputMatcher {
+    // Скільки символів виводу кожного потоку зберігати для показу у звіті.
+    private static final int CAPTURE_LIMIT = 4096;
+
+    private final char[] pattern;
+    private final int[] failure;
+    private final List<Channel> channels = new ArrayList<>();
+    private volatile boolean matched;
+
+    public OutputMatcher(String expectedOutput) {
+        pattern = expectedOutput.trim().toCharArray();
+        failure = new int[pattern.length];
+        for (int i = 1, k = 0; i < pattern.length; i++) {
+            while (k > 0 && pattern[i] != pattern[k]) k = failure[k - 1];
+            if (pattern[i] == pattern[k]) k++;
+            failure[i] = k;
+        }
+        matched = pattern.length == 0;
+    }
+
+    // Окремий канал для кожного потоку (stdout, stderr): стан пошуку
+    // у різних потоках не змішується.
+    public synchronized Channel channel() {
+        Channel channel = new Channel();
+        channels.add(channel);
+        return channel;
+    }
+
+    // Нормалізований вигляд усього тексту — для порівняння виводів між собою.
+    public static String normalize(String text) {
+        StringBuilder result = new StringBuilder();
+        for (String line : text.split("\\r\\n|\\r|\\n")) {
+            result.append(line.trim()).append('\n');
+        }
+        return result.toString().trim();
+    }
+
+    public boolean isMatched() {
+        return matched;
+    }
+
+    public synchronized String getCapturedOutput() {
+        StringBuilder output = new StringBuilder();
+        for (Channel channel : channels) {
+            String text = channel.captured.toString().trim();
+            if (text.isEmpty()) continue;
+            if (output.length() > 0) output.append('\n');
+            output.append(text);
+            if (channel.truncated) output.append(" …");
+        }
+        return output.toString();
+    }
+
+    class Channel {
+        private final StringBuilder captured = new StringBuilder();
+        // Пробіли всередині рядка чекають наступного символу: в кінці рядка їх відкидають.
+        // Шаблон обрізаний, тож довший за нього пробіл не може лежати всередині
+        // збігу: такий пробіл скидає пошук і йде лише в показаний вивід.
+        private final StringBuilder pendingSpace = new StringBuilder();
+        private boolean spaceOverflow;
+        private boolean truncated;
+        private boolean lineStart = true;
+        private boolean afterCarriageReturn;
+        private int state;
+
+        // Повертає true, щойно очікуваний результат знайдено.
+        public boolean feed(char[] buffer, int offset, int length) {
+            for (int i = offset; i < offset + length; i++) {
+                char c = buffer[i];
+                if (c == '\n' && afterCarriageReturn) {
+                    afterCarriageReturn = false;
+                    continue;
+                }
+                afterCarriageReturn = c == '\r';
+
+                if (c == '\n' || c == '\r') {
+                    pendingSpace.setLength(0);
+                    spaceOverflow = false;
+                    lineStart = true;
+                    emit('\n');
+                } else if (c <= ' ') {
+                    if (lineStart) continue;
+                    if (spaceOverflow) {
+                        capture(c);
+                    } else if (pendingSpace.length() < pattern.length) {
+                        pendingSpace.append(c);
+                    } else {
+                        state = 0;
+                        for (int j = 0; j < pendingSpace.length(); j++) {
+                            capture(pendingSpace.charAt(j));
+                        }
+                        pendingSpace.setLength(0);
+                        capture(c);
+                        spaceOverflow = true;
+                    }
+                } else {
+                    lineStart = false;
+                    spaceOverflow = false;
+                    for (int j = 0; j < pendingSpace.length(); j++) {
+                        emit(pendingSpace.charAt(j));
+                    }
+                    pendingSpace.setLength(0);
+                    emit(c);
+                }
+            }
+            return matched;
+        }
+
+        private void emit(char c) {
+            capture(c);
+            if (matched) return;
+            while (state > 0 && c != pattern[state]) state = failure[state - 1];
+            if (c == pattern[state]) state++;
+            if (state == pattern.length) matched = true;
+        }
+
+        private void capture(char c) {
+            if (captured.length() < CAPTURE_LIMIT) {
+                captured.append(c);
+            } else {
+                truncated = true;
+            }
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package flowchart;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+// Паралельний варіант InterleavingExplorer на ForkJoinPool: кожна задача
+// обходить свою частину простору станів у глибину і віддає гілки іншим
+// потокам пулу, коли в них закінчується робота (work stealing). Відвідані
+// стани — у спільній сегментованій множині; за потреби обмежити пам'ять
+// використовується bit-state хешування.
+class ParallelInterleavingExplorer {
+    private final FlowchartProgram program;
+    private final int maxStates;
+    private final int parallelism;
+    private final long bitStateBytes;
+
+    // bitStateBytes == 0 — точна таблиця хешів станів з лімітом maxStates, інакше
+    // bit-state заданого розміру; тоді ліміт визначає сам масив (BitStateHashSet.capacity).
+    public ParallelInterleavingExplorer(FlowchartProgram program, int maxStates, int parallelism, long bitStateBytes) {
+        this.program = program;
+        this.maxStates = maxStates;
+        this.parallelism = Math.max(1, parallelism);
+        this.bitStateBytes = bitStateBytes;
+    }
+
+    public ExplorationResult explore(TestCase tc) throws InterruptedException {
+        Search search = new Search(new ExplorationModel(program, tc.getInput()), tc);
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        long started = System.nanoTime();
+
+        try {
+            ForkJoinTask<?> root = pool.submit(search::start);
+            try {
+                root.get();
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+                throw new IllegalStateException(e.getCause());
+            } catch (InterruptedException e) {
+                search.cancelled = true;
+                throw e;
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        long elapsed = System.nanoTime() - started;
+        ExplorationResult result = search.result;
+        result.setComplete(!search.limitReached);
+        result.setStatistics(search.visited.size(), search.transitions.sum(), search.reduced.sum(), elapsed);
+        result.setDetails(String.format("%.0f станів/с, потоків: %d, пам'ять станів: %d КБ%s",
+                search.visited.size() / Math.max(elapsed / 1e9, 1e-9), parallelism,
+                search.visited.memoryBytes() / 1024,
+                search.visited.isExact() ? "" : ", bit-state (наближено)"));
+        return result;
+    }
+
+    // Вузол розкладу: шлях від початкового стану зберігається як незмінний
+    // зв'язний список, спільний для всіх нащадків.
+    private static class Step {
+        final Step parent;
+        final int thread;
+        final int block;
+
+        Step(Step parent, int thread, int block) {
+            this.parent = parent;
+            this.thread = thread;
+            this.block = block;
+        }
+    }
+
+    private static class Node {
+        final ExplorationModel.State state;
+        final Step path;
+
+        Node(ExplorationModel.State state, Step path) {
+            this.state = state;
+            this.path = path;
+        }
+    }
+
+    private class Search {
+        final ExplorationModel model;
+        final TestCase testCase;
+        final ExplorationResult result;
+        final StateSet visited;
+        final long limit;
+        final LongAdder transitions = new LongAdder();
+        final LongAdder reduced = new LongAdder();
+        volatile boolean limitReached;
+        volatile boolean cancelled;
+
+        Search(ExplorationModel model, TestCase testCase) {
+            this.model = model;
+            this.testCase = testCase;
+            this.result = new ExplorationResult(testCase);
+            if (bitStateBytes > 0) {
+                BitStateHashSet bitState = new BitStateHashSet(bitStateBytes);
+                this.visited = bitState;
+                this.limit = bitState.capacity();
+            } else {
+                this.visited = new ConcurrentLongHashSet();
+                this.limit = maxStates;
+            }
+        }
+
+        void start() {
+            ExplorationModel.State initial = model.initialState();
+            visited.add(initial.hash());
+            Node root = new Node(initial, null);
+            if (model.isTerminal(initial)) {
+                record(root);
+            } else {
+                new ExploreTask(root).invoke();
+            }
+        }
+
+        void record(Node node) {
+            String output = model.getOutput(node.state);
+            if (result.hasOutput(output)) return;
+            boolean passed = model.matches(node.state, testCase.getExpectedOutput());
+            result.addOutput(output, passed, passed ? null : schedule(node.path));
+        }
+
+        List<String> schedule(Step path) {
+            LinkedList<String> steps = new LinkedList<>();
+            for (Step step = path; step != null; step = step.parent) {
+                steps.addFirst("Потік " + (step.thread + 1) + ": " + program.describe(step.thread, step.block));
+            }
+            return new ArrayList<>(steps);
+        }
+
+        int[] choices(ExplorationModel.State state) {
+            int threads = state.pcs.length;
+            int count = 0;
+            int[] enabled = new int[threads];
+            for (int t = 0; t < threads; t++) {
+                if (model.isEnabled(state, t)) enabled[count++] = t;
+            }
+
+            if (count > 1) {
+                for (int i = 0; i < count; i++) {
+                    int t = enabled[i];
+                    if (model.isSafeStep(state, t) && !visited.contains(model.step(state, t).hash())) {
+                        reduced.increment();
+                        return new int[]{t};
+                    }
+                }
+            }
+            return Arrays.copyOf(enabled, count);
+        }
+
+        private class ExploreTask extends RecursiveAction {
+            private final Node start;
+
+            ExploreTask(Node start) {
+                this.start = start;
+            }
+
+            @Override
+            protected void compute() {
+                List<ExploreTask> forked = new ArrayList<>();
+                Deque<Node> local = new ArrayDeque<>();
+                local.push(start);
+
+                while (!local.isEmpty() && !limitReached && !cancelled) {
+                    Node node = local.pop();
+                    for (int thread : choices(node.state)) {
+                        ExplorationModel.State successor = model.step(node.state, thread);
+                        transitions.increment();
+                        if (!visited.add(successor.hash())) continue;
+                        if (visited.size() >= limit) {
+                            limitReached = true;
+                            break;
+                        }
+
+                        Node child = new Node(successor, new Step(node.path, thread, node.state.pcs[thread]));
+                        if (model.isTerminal(successor)) {
+                            record(child);
+                        } else if (getSurplusQueuedTaskCount() < 2) {
+                            // Інші потоки пулу голодують — віддаємо їм гілку.
+                            ExploreTask task = new ExploreTask(child);
+                            task.fork();
+                            forked.add(task);
+                        } else {
+                            local.push(child);
+                        }
+                    }
+                }
+
+                for (ExploreTask task : forked) {
+                    task.join();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package flowchart;
+
+import java.util.*;
+
+// Незмінний вектор зі спільною структурою: 32-арне дерево, де set() і append()
+// копіюють лише шлях від кореня до листа (log32 n вузлів по 32 посилання),
+// а решта вузлів лишається спільною з попередньою версією.
+final class PersistentVector<T> {
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+    private static final PersistentVector<?> EMPTY = new PersistentVector<>(0, 0, new Object[WIDTH]);
+
+    private final int size;
+    // Зсув номера для кореня; 0 — корінь і є листом.
+    private final int shift;
+    private final Object[] root;
+
+    private PersistentVector(int size, int shift, Object[] root) {
+        this.size = size;
+        this.shift = shift;
+        this.root = root;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> PersistentVector<T> empty() {
+        return (PersistentVector<T>) EMPTY;
+    }
+
+    // Будує дерево одразу, без проміжних версій.
+    public static <T> PersistentVector<T> of(List<? extends T> items) {
+        if (items.size() <= WIDTH) {
+            Object[] leaf = new Object[WIDTH];
+            for (int i = 0; i < items.size(); i++) {
+                leaf[i] = items.get(i);
+            }
+            return new PersistentVector<>(items.size(), 0, leaf);
+        }
+        List<Object[]> level = new ArrayList<>(items.size() / WIDTH + 1);
+        for (int i = 0; i < items.size(); i += WIDTH) {
+            Object[] leaf = new Object[WIDTH];
+            for (int j = 0; j < WIDTH && i + j < items.size(); j++) {
+                leaf[j] = items.get(i + j);
+            }
+            level.add(leaf);
+        }
+        int shift = 0;
+        while (level.size() > 1) {
+            List<Object[]> parents = new ArrayList<>(level.size() / WIDTH + 1);
+            for (int i = 0; i < level.size(); i += WIDTH) {
+                Object[] node = new Object[WIDTH];
+                for (int j = 0; j < WIDTH && i + j < level.size(); j++) {
+                    node[j] = level.get(i + j);
+                }
+                parents.add(node);
+            }
+            level = parents;
+            shift += BITS;
+        }
+        return new PersistentVector<>(items.size(), shift, level.get(0));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        Objects.checkIndex(index, size);
+        Object[] node = root;
+        for (int level = shift; level > 0; level -= BITS) {
+            node = (Object[]) node[(index >>> level) & MASK];
+        }
+        return (T) node[index & MASK];
+    }
+
+    public PersistentVector<T> set(int index, T value) {
+        Objects.checkIndex(index, size);
+        return new PersistentVector<>(size, shift, copyPath(root, shift, index, value));
+    }
+
+    public PersistentVector<T> append(T value) {
+        // Дерево заповнене — над коренем з'являється новий рівень.
+        if (size == 1 << (shift + BITS)) {
+            Object[] newRoot = new Object[WIDTH];
+            newRoot[0] = root;
+            return new PersistentVector<>(size + 1, shift + BITS, copyPath(newRoot, shift + BITS, size, value));
+        }
+        return new PersistentVector<>(size + 1, shift, copyPath(root, shift, size, value));
+    }
+
+    private static Object[] copyPath(Object[] node, int level, int index, Object value) {
+        Object[] copy = node != null ? node.clone() : new Object[WIDTH];
+        if (level == 0) {
+            copy[index & MASK] = value;
+        } else {
+            int child = (index >>> level) & MASK;
+            copy[child] = copyPath((Object[]) copy[child], level - BITS, index, value);
+        }
+        return copy;
+    }
+}
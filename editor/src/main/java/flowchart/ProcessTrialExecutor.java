@@ -0,0 +1,88 @@
+package flowchart;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Один запуск інтерпретатора Python на кожне випробування.
+// stdout і stderr вичитуються одночасно на віртуальних потоках, тому програма
+// не може заблокуватися на переповненому буфері stderr; випробування
+// завершується, щойно очікуваний результат з'явився у виводі.
+class ProcessTrialExecutor implements TrialExecutor {
+    private final File programFile;
+
+    public ProcessTrialExecutor(File programFile) {
+        this.programFile = programFile;
+    }
+
+    @Override
+    public void execute(String input, OutputMatcher matcher, long timeoutMillis)
+            throws IOException, InterruptedException, TimeoutException {
+        Process runProcess = new ProcessBuilder("python", programFile.getAbsolutePath()).start();
+        ProcessWatchdog watchdog = ProcessWatchdog.start(runProcess, timeoutMillis);
+        CompletableFuture<Void> finished = new CompletableFuture<>();
+        AtomicInteger openStreams = new AtomicInteger(2);
+
+        Thread stdinWriter = Thread.ofVirtual().start(() -> writeInput(runProcess, input));
+        Thread stdoutReader = Thread.ofVirtual().start(
+                () -> drain(runProcess.getInputStream(), matcher.channel(), finished, openStreams));
+        Thread stderrReader = Thread.ofVirtual().start(
+                () -> drain(runProcess.getErrorStream(), matcher.channel(), finished, openStreams));
+
+        try {
+            finished.get();
+            if (!matcher.isMatched()) {
+                runProcess.waitFor();
+            }
+        } catch (ExecutionException e) {
+            throw new IOException(e.getCause());
+        } finally {
+            // Після збігу решта виводу не потрібна — завершуємо програму одразу.
+            if (runProcess.isAlive()) {
+                ProcessWatchdog.killTree(runProcess);
+            }
+            stdinWriter.join();
+            stdoutReader.join();
+            stderrReader.join();
+            if (watchdog.stop() && !matcher.isMatched()) {
+                throw new TimeoutException();
+            }
+        }
+    }
+
+    private static void writeInput(Process runProcess, String input) {
+        try (PrintWriter writer = new PrintWriter(runProcess.getOutputStream(), true, StandardCharsets.UTF_8)) {
+            writer.println(input);
+        }
+    }
+
+    private static void drain(InputStream stream, OutputMatcher.Channel channel,
+                              CompletableFuture<Void> finished, AtomicInteger openStreams) {
+        char[] buffer = new char[8192];
+        try (Reader reader = new InputStreamReader(stream, StandardCharsets.UTF_8)) {
+            int read;
+            while ((read = reader.read(buffer)) != -1) {
+                if (channel.feed(buffer, 0, read)) {
+                    finished.complete(null);
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            // Потік закрито примусово (тайм-аут або збіг в іншому потоці).
+        } finally {
+            if (openStreams.decrementAndGet() == 0) {
+                finished.complete(null);
+            }
+        }
+    }
+
+    @Override
+    public boolean isAlive() {
+        return true;
+    }
+
+    @Override
+    public void close() {
+    }
+}
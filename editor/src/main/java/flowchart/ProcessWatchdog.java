@@ -0,0 +1,40 @@
+package flowchart;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Спільний таймер, який примусово завершує процес разом з усіма його
+// нащадками, якщо випробування не вклалося у відведений час.
+class ProcessWatchdog {
+    private static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "trial-watchdog");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final ScheduledFuture<?> deadline;
+    private final AtomicBoolean fired = new AtomicBoolean();
+
+    private ProcessWatchdog(Process process, long timeoutMillis) {
+        deadline = TIMER.schedule(() -> {
+            fired.set(true);
+            killTree(process);
+        }, timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public static ProcessWatchdog start(Process process, long timeoutMillis) {
+        return new ProcessWatchdog(process, timeoutMillis);
+    }
+
+    // Повертає true, якщо процес було вбито за тайм-аутом.
+    public boolean stop() {
+        deadline.cancel(false);
+        return fired.get();
+    }
+
+    public static void killTree(Process process) {
+        // Нащадків збираємо до завершення батька, інакше вони переходять до init.
+        process.descendants().forEach(ProcessHandle::destroyForcibly);
+        process.destroyForcibly();
+    }
+}
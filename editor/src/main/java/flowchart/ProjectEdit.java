@@ -0,0 +1,175 @@
+package flowchart;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+// Одна зміна проекту для журналу автозбереження. Блоки й з'єднання
+// задаються номерами в списках потоку, тож записи відтворюються на знімку
+// проекту в тому самому порядку, в якому їх зробив користувач.
+class ProjectEdit {
+    enum Kind {
+        ADD_THREAD, REMOVE_THREAD, ADD_VARIABLE,
+        ADD_BLOCK, REMOVE_BLOCK, MOVE_BLOCK, SET_CODE, ADD_CONNECTION,
+        // Нові види — лише в кінці: у журналі записано порядковий номер.
+        REMOVE_VARIABLE
+    }
+
+    private static final Kind[] KINDS = Kind.values();
+    private static final BlockType[] TYPES = BlockType.values();
+
+    private final Kind kind;
+    private final int thread;
+    // ADD_BLOCK: тип; для решти змін блоку — його номер; ADD_CONNECTION — номер from.
+    private final int block;
+    // MOVE_BLOCK і ADD_BLOCK: координати; ADD_CONNECTION: x — номер to, y — гілка (0, 1 — True, 2 — False).
+    private final int x, y;
+    // SET_CODE і ADD_BLOCK: код блоку; ADD_VARIABLE і REMOVE_VARIABLE: назва змінної.
+    private final String text;
+
+    private ProjectEdit(Kind kind, int thread, int block, int x, int y, String text) {
+        this.kind = kind;
+        this.thread = thread;
+        this.block = block;
+        this.x = x;
+        this.y = y;
+        this.text = text;
+    }
+
+    public static ProjectEdit addThread() {
+        return new ProjectEdit(Kind.ADD_THREAD, -1, 0, 0, 0, null);
+    }
+
+    public static ProjectEdit removeThread(int thread) {
+        return new ProjectEdit(Kind.REMOVE_THREAD, thread, 0, 0, 0, null);
+    }
+
+    public static ProjectEdit addVariable(String name) {
+        return new ProjectEdit(Kind.ADD_VARIABLE, -1, 0, 0, 0, name);
+    }
+
+    public static ProjectEdit removeVariable(String name) {
+        return new ProjectEdit(Kind.REMOVE_VARIABLE, -1, 0, 0, 0, name);
+    }
+
+    // Зміни всередині потоку; номер потоку підставляє редактор через inThread().
+    public static ProjectEdit addBlock(BlockType type, int x, int y, String code) {
+        return new ProjectEdit(Kind.ADD_BLOCK, -1, type.ordinal(), x, y, code);
+    }
+
+    public static ProjectEdit removeBlock(int block) {
+        return new ProjectEdit(Kind.REMOVE_BLOCK, -1, block, 0, 0, null);
+    }
+
+    public static ProjectEdit moveBlock(int block, int x, int y) {
+        return new ProjectEdit(Kind.MOVE_BLOCK, -1, block, x, y, null);
+    }
+
+    public static ProjectEdit setCode(int block, String code) {
+        return new ProjectEdit(Kind.SET_CODE, -1, block, 0, 0, code);
+    }
+
+    // Нове з'єднання замінює наявні з'єднання з from у to (див. FlowchartPanel.removeDuplicateConnections).
+    public static ProjectEdit addConnection(int from, int to, Boolean condition) {
+        return new ProjectEdit(Kind.ADD_CONNECTION, -1, from, to, condition == null ? 0 : condition ? 1 : 2, null);
+    }
+
+    public ProjectEdit inThread(int thread) {
+        return new ProjectEdit(kind, thread, block, x, y, text);
+    }
+
+    public void apply(ProjectData project) throws IOException {
+        List<FlowchartData> flowcharts = project.getFlowchartData();
+        switch (kind) {
+            case ADD_THREAD:
+                FlowchartData empty = new FlowchartData();
+                empty.setBlocks(new ArrayList<>());
+                empty.setConnections(new ArrayList<>());
+                flowcharts.add(empty);
+                return;
+            case REMOVE_THREAD:
+                flowcharts.remove(thread(flowcharts));
+                return;
+            case ADD_VARIABLE:
+                if (!project.getSharedVariables().contains(text)) project.getSharedVariables().add(text);
+                return;
+            case REMOVE_VARIABLE:
+                project.getSharedVariables().remove(text);
+                return;
+            default:
+                break;
+        }
+
+        FlowchartData flowchart = thread(flowcharts);
+        List<Block> blocks = flowchart.getBlocks();
+        switch (kind) {
+            case ADD_BLOCK:
+                if (block < 0 || block >= TYPES.length) throw new IOException("Невідомий тип блоку: " + block);
+                Block added = new Block(TYPES[block], x, y);
+                added.setCode(text);
+                blocks.add(added);
+                break;
+            case REMOVE_BLOCK:
+                Block removed = blocks.remove(block(blocks, block));
+                flowchart.getConnections().removeIf(c -> c.getFrom() == removed || c.getTo() == removed);
+                break;
+            case MOVE_BLOCK:
+                Block moved = blocks.get(block(blocks, block));
+                moved.move(x - moved.getX(), y - moved.getY());
+                break;
+            case SET_CODE:
+                blocks.get(block(blocks, block)).setCode(text);
+                break;
+            case ADD_CONNECTION:
+                Block from = blocks.get(block(blocks, block));
+                Block to = blocks.get(block(blocks, x));
+                Connection conn = new Connection(from, to);
+                if (y != 0) conn.setCondition(y == 1);
+                flowchart.getConnections().removeIf(c -> c.getFrom() == from && c.getTo() == to
+                        && (from.getType() != BlockType.CONDITION || c.isCondition() == conn.isCondition()));
+                flowchart.getConnections().add(conn);
+                break;
+            default:
+                throw new IllegalStateException(kind.toString());
+        }
+    }
+
+    private FlowchartData thread(List<FlowchartData> flowcharts) throws IOException {
+        if (thread < 0 || thread >= flowcharts.size()) throw new IOException("Немає потоку " + thread);
+        return flowcharts.get(thread);
+    }
+
+    private static int block(List<Block> blocks, int index) throws IOException {
+        if (index < 0 || index >= blocks.size()) throw new IOException("Немає блоку " + index);
+        return index;
+    }
+
+    public void write(DataOutput out) throws IOException {
+        out.writeByte(kind.ordinal());
+        ProjectFormat.writeVarint(out, thread + 1);
+        ProjectFormat.writeVarint(out, block);
+        ProjectFormat.writeVarint(out, ProjectFormat.zigzag(x));
+        ProjectFormat.writeVarint(out, ProjectFormat.zigzag(y));
+        // Довжина тексту + 1; 0 — тексту немає.
+        byte[] bytes = text != null ? text.getBytes(StandardCharsets.UTF_8) : null;
+        ProjectFormat.writeVarint(out, bytes != null ? bytes.length + 1 : 0);
+        if (bytes != null) out.write(bytes);
+    }
+
+    public static ProjectEdit read(DataInput in) throws IOException {
+        int kind = in.readUnsignedByte();
+        if (kind >= KINDS.length) throw new IOException("Невідомий запис журналу: " + kind);
+        int thread = ProjectFormat.readVarint(in) - 1;
+        int block = ProjectFormat.readVarint(in);
+        int x = ProjectFormat.unzigzag(ProjectFormat.readVarint(in));
+        int y = ProjectFormat.unzigzag(ProjectFormat.readVarint(in));
+        int length = ProjectFormat.readCount(in);
+        String text = null;
+        if (length > 0) {
+            byte[] bytes = new byte[length - 1];
+            in.readFully(bytes);
+            text = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return new ProjectEdit(KINDS[kind], thread, block, x, y, text);
+    }
+}
@@ -0,0 +1,254 @@
+package flowchart;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+// Відкритий файл проекту з доступом до окремих потоків. При відкритті файлу
+// версії 2 читаються лише заголовок, зсуви рядків і таблиця розділів, а блоки
+// потоку декодуються в readThread() — тоді, коли вкладка справді потрібна.
+// Розділи й рядки читаються з каналу за зсувом у звичайні буфери: відображення
+// в пам'ять тримало б файл аж до збирання сміття, і на Windows збереження
+// поверх нього не вдавалося б. Канал закривається, щойно кожен потік
+// декодовано (далі потоки будуються з копій), або викликом close().
+// Старі формати (версія 1 і ObjectOutputStream) читаються повністю одразу.
+class ProjectFile implements Closeable {
+    private final List<String> sharedVariables;
+    private final int threadCount;
+    // Файл версії 2; null, коли канал уже закрито.
+    private FileChannel channel;
+    private final long[] stringOffsets;
+    private final int[] stringLengths;
+    private final String[] strings;
+    private final long[] sectionOffsets;
+    private final int[] sectionLengths;
+    // Копії вже декодованих потоків; для старих форматів заповнені одразу.
+    private final FlowchartSnapshot[] loaded;
+    private int remaining;
+
+    // Розбирає заголовок файлу версії 2; in стоїть одразу після версії.
+    private ProjectFile(FileChannel channel, ChannelInputStream in) throws IOException {
+        this.channel = channel;
+        long size = channel.size();
+        DataInputStream data = new DataInputStream(in);
+
+        int stringCount = ProjectFormat.readCount(data);
+        // Кожен рядок займає щонайменше байт довжини.
+        if (stringCount > size - in.position()) throw new IOException("Пошкоджений файл проекту");
+        stringOffsets = new long[stringCount];
+        stringLengths = new int[stringCount];
+        strings = new String[stringCount];
+        for (int i = 0; i < stringCount; i++) {
+            int length = ProjectFormat.readCount(data);
+            if (length > size - in.position()) throw new IOException("Пошкоджений файл проекту");
+            stringOffsets[i] = in.position();
+            stringLengths[i] = length;
+            in.skipNBytes(length);
+        }
+
+        sharedVariables = ProjectFormat.readVariables(data, this::string);
+
+        threadCount = ProjectFormat.readCount(data);
+        if ((long) threadCount * ProjectFormat.SECTION_ENTRY_SIZE > size - in.position()) {
+            throw new IOException("Пошкоджений файл проекту");
+        }
+        sectionOffsets = new long[threadCount];
+        sectionLengths = new int[threadCount];
+        for (int t = 0; t < threadCount; t++) {
+            long offset = data.readLong();
+            int length = data.readInt();
+            if (offset < in.position() || length < 0 || offset + length > size) {
+                throw new IOException("Пошкоджена таблиця потоків у файлі проекту");
+            }
+            sectionOffsets[t] = offset;
+            sectionLengths[t] = length;
+        }
+        loaded = new FlowchartSnapshot[threadCount];
+        remaining = threadCount;
+        if (remaining == 0) close();
+    }
+
+    private ProjectFile(ProjectData project) {
+        this.stringOffsets = null;
+        this.stringLengths = null;
+        this.strings = null;
+        this.sectionOffsets = null;
+        this.sectionLengths = null;
+        this.sharedVariables = project.getSharedVariables();
+        this.threadCount = project.getFlowchartData().size();
+        this.loaded = new FlowchartSnapshot[threadCount];
+        for (int i = 0; i < threadCount; i++) {
+            FlowchartData flowchart = project.getFlowchartData().get(i);
+            loaded[i] = new FlowchartSnapshot(flowchart.getBlocks(), flowchart.getConnections());
+        }
+    }
+
+    // Проект, уже прочитаний іншим шляхом (наприклад, відновлений автозбереженням).
+    public static ProjectFile of(ProjectData project) {
+        return new ProjectFile(project);
+    }
+
+    public static ProjectFile open(File file) throws IOException {
+        FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        try {
+            ChannelInputStream in = new ChannelInputStream(channel, 0);
+            if (ProjectFormat.isLegacy(in)) {
+                try (channel) {
+                    return new ProjectFile(ProjectFormat.readLegacy(in));
+                }
+            }
+            if (ProjectFormat.readHeader(new DataInputStream(in)) < 2) {
+                try (channel) {
+                    return new ProjectFile(ProjectFormat.read(new ChannelInputStream(channel, 0)));
+                }
+            }
+            return new ProjectFile(channel, in);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public List<String> getSharedVariables() {
+        return sharedVariables;
+    }
+
+    public int getThreadCount() {
+        return threadCount;
+    }
+
+    // Декодує один потік. Можна викликати з будь-якого потоку виконання;
+    // кожен виклик повертає нові об'єкти.
+    public FlowchartData readThread(int index) throws IOException {
+        FileChannel source;
+        synchronized (this) {
+            if (loaded[index] != null) return loaded[index].call();
+            source = channel;
+        }
+        if (source == null) throw new IOException("Файл проекту вже закрито");
+
+        ByteBuffer section = ByteBuffer.allocate(sectionLengths[index]);
+        readFully(source, section, sectionOffsets[index]);
+        FlowchartData data;
+        try {
+            data = ProjectFormat.readThread(
+                    new DataInputStream(new ByteArrayInputStream(section.array())), this::string);
+        } catch (EOFException e) {
+            throw new IOException("Пошкоджений потік " + (index + 1) + " у файлі проекту", e);
+        }
+
+        FlowchartSnapshot snapshot = new FlowchartSnapshot(data.getBlocks(), data.getConnections());
+        synchronized (this) {
+            if (loaded[index] == null) {
+                loaded[index] = snapshot;
+                if (--remaining == 0) close();
+            }
+        }
+        return data;
+    }
+
+    // Закриває файл. Потоки, декодовані раніше, і далі доступні через readThread().
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel == null) return;
+        channel.close();
+        channel = null;
+    }
+
+    private String string(int index) throws IOException {
+        if (index < 0 || index >= strings.length) throw new IOException("Посилання на неіснуючий рядок: " + index);
+        String s = strings[index];
+        if (s == null) {
+            FileChannel source;
+            synchronized (this) {
+                source = channel;
+            }
+            if (source == null) throw new IOException("Файл проекту вже закрито");
+            // Гонка двох потоків лише декодує рядок двічі.
+            ByteBuffer bytes = ByteBuffer.allocate(stringLengths[index]);
+            readFully(source, bytes, stringOffsets[index]);
+            s = new String(bytes.array(), StandardCharsets.UTF_8);
+            strings[index] = s;
+        }
+        return s;
+    }
+
+    // Позиційне читання не зсуває спільну позицію каналу, тож потоки читають паралельно.
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int n = channel.read(buffer, position + buffer.position());
+            if (n < 0) throw new EOFException("Файл проекту обрізано");
+        }
+    }
+
+    // Послідовне читання з каналу за зсувом через невеликий буфер.
+    private static final class ChannelInputStream extends InputStream {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(8192);
+        // Зсув у файлі першого байта буфера.
+        private long bufferStart;
+        private long position;
+        private long mark;
+
+        ChannelInputStream(FileChannel channel, long position) {
+            this.channel = channel;
+            this.position = position;
+            buffer.limit(0);
+        }
+
+        long position() {
+            return position;
+        }
+
+        private boolean fill() throws IOException {
+            if (position >= bufferStart && position < bufferStart + buffer.limit()) return true;
+            buffer.clear();
+            bufferStart = position;
+            int n = channel.read(buffer, position);
+            buffer.flip();
+            return n > 0;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (!fill()) return -1;
+            return buffer.get((int) (position++ - bufferStart)) & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) return 0;
+            if (!fill()) return -1;
+            int offset = (int) (position - bufferStart);
+            len = Math.min(len, buffer.limit() - offset);
+            buffer.get(offset, b, off, len);
+            position += len;
+            return len;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            n = Math.max(0, Math.min(n, channel.size() - position));
+            position += n;
+            return n;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return true;
+        }
+
+        @Override
+        public void mark(int readlimit) {
+            mark = position;
+        }
+
+        @Override
+        public void reset() {
+            position = mark;
+        }
+    }
+}
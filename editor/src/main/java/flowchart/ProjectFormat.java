@@ -0,0 +1,313 @@
+package flowchart;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+// Двійковий формат файлу проекту замість Java-серіалізації.
+//
+//   "FCHP", версія (varint)
+//   таблиця рядків: кількість, далі для кожного довжина в байтах і UTF-8
+//   змінні: кількість, номери рядків
+//   кількість потоків
+//   (з версії 2) таблиця розділів: для кожного потоку зсув від початку файлу
+//     (8 байтів) і довжина (4 байти), щоб потік можна було прочитати окремо
+//   розділи потоків, для кожного
+//     блоки: кількість, для кожного тип, x, y (zigzag) і код (номер рядка + 1, 0 — немає)
+//     з'єднання: кількість, для кожного from і to (номер блоку + 1, 0 — немає)
+//       та гілка (0 — звичайний перехід, 1 — True, 2 — False)
+//
+// Усі цілі, крім таблиці розділів, — varint (LEB128). Старі файли
+// ObjectOutputStream (починаються з 0xACED) читаються через фільтр, що
+// пропускає лише класи проекту. Читання окремих потоків — ProjectFile.
+class ProjectFormat {
+    private static final byte[] MAGIC = {'F', 'C', 'H', 'P'};
+    static final int VERSION = 2;
+    static final int SECTION_ENTRY_SIZE = 12;
+    private static final BlockType[] TYPES = BlockType.values();
+    // java.lang.Object потрібен лише для перевірки внутрішнього масиву ArrayList.
+    private static final ObjectInputFilter LEGACY_FILTER = ObjectInputFilter.Config.createFilter(
+            "flowchart.ProjectData;flowchart.FlowchartData;flowchart.Block;flowchart.Connection;flowchart.BlockType;"
+                    + "java.lang.Enum;java.util.ArrayList;"
+                    + "java.lang.Object;java.lang.String;java.lang.Boolean;java.awt.Point;"
+                    + "maxdepth=16;maxarray=67108864;!*");
+    // Старі файли збережено, коли класи проекту були в пакеті за замовчуванням.
+    private static final Map<String, Class<?>> LEGACY_CLASSES = Map.of(
+            "ProjectData", ProjectData.class,
+            "FlowchartData", FlowchartData.class,
+            "Block", Block.class,
+            "Connection", Connection.class,
+            "BlockType", BlockType.class);
+
+    // Рядок таблиці за номером.
+    interface Strings {
+        String get(int index) throws IOException;
+    }
+
+    private ProjectFormat() {
+    }
+
+    public static void write(ProjectData project, OutputStream stream) throws IOException {
+        Map<String, Integer> strings = new LinkedHashMap<>();
+        for (String var : project.getSharedVariables()) {
+            strings.putIfAbsent(var, strings.size());
+        }
+        for (FlowchartData flowchart : project.getFlowchartData()) {
+            for (Block block : flowchart.getBlocks()) {
+                if (block.getCode() != null) strings.putIfAbsent(block.getCode(), strings.size());
+            }
+        }
+
+        ByteArrayOutputStream headBytes = new ByteArrayOutputStream();
+        DataOutputStream head = new DataOutputStream(headBytes);
+        head.write(MAGIC);
+        writeVarint(head, VERSION);
+
+        writeVarint(head, strings.size());
+        for (String s : strings.keySet()) {
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            writeVarint(head, bytes.length);
+            head.write(bytes);
+        }
+
+        writeVarint(head, project.getSharedVariables().size());
+        for (String var : project.getSharedVariables()) {
+            writeVarint(head, strings.get(var));
+        }
+
+        List<FlowchartData> flowcharts = project.getFlowchartData();
+        writeVarint(head, flowcharts.size());
+
+        // Розділи кодуються заздалегідь, щоб записати таблицю зсувів перед ними.
+        byte[][] sections = new byte[flowcharts.size()][];
+        for (int t = 0; t < sections.length; t++) {
+            ByteArrayOutputStream section = new ByteArrayOutputStream();
+            writeThread(flowcharts.get(t), strings, new DataOutputStream(section));
+            sections[t] = section.toByteArray();
+        }
+
+        DataOutputStream out = new DataOutputStream(stream);
+        headBytes.writeTo(out);
+        long offset = headBytes.size() + (long) SECTION_ENTRY_SIZE * sections.length;
+        for (byte[] section : sections) {
+            out.writeLong(offset);
+            out.writeInt(section.length);
+            offset += section.length;
+        }
+        for (byte[] section : sections) {
+            out.write(section);
+        }
+        out.flush();
+    }
+
+    private static void writeThread(FlowchartData flowchart, Map<String, Integer> strings, DataOutputStream out)
+            throws IOException {
+        List<Block> blocks = flowchart.getBlocks();
+        Map<Block, Integer> numbers = new IdentityHashMap<>(blocks.size() * 2);
+        writeVarint(out, blocks.size());
+        for (Block block : blocks) {
+            numbers.put(block, numbers.size());
+            out.writeByte(block.getType().ordinal());
+            writeVarint(out, zigzag(block.getX()));
+            writeVarint(out, zigzag(block.getY()));
+            writeVarint(out, block.getCode() != null ? strings.get(block.getCode()) + 1 : 0);
+        }
+
+        List<Connection> connections = flowchart.getConnections();
+        writeVarint(out, connections.size());
+        for (Connection conn : connections) {
+            writeVarint(out, blockRef(numbers, conn.getFrom()));
+            writeVarint(out, blockRef(numbers, conn.getTo()));
+            out.writeByte(conn.condition == null ? 0 : conn.condition ? 1 : 2);
+        }
+        out.flush();
+    }
+
+    // Читає весь проект послідовно. stream має підтримувати mark/reset
+    // (наприклад, BufferedInputStream).
+    public static ProjectData read(InputStream stream) throws IOException {
+        if (isLegacy(stream)) {
+            return readLegacy(stream);
+        }
+
+        DataInputStream in = new DataInputStream(stream);
+        int version = readHeader(in);
+
+        int stringCount = readCount(in);
+        List<String> stringList = new ArrayList<>(initialCapacity(stringCount));
+        for (int i = 0; i < stringCount; i++) {
+            int length = readCount(in);
+            // readNBytes читає частинами, тож заявлена довжина не виділяється наперед.
+            byte[] bytes = in.readNBytes(length);
+            if (bytes.length != length) throw new EOFException();
+            stringList.add(new String(bytes, StandardCharsets.UTF_8));
+        }
+        String[] strings = stringList.toArray(new String[0]);
+        Strings table = index -> string(strings, index);
+
+        List<String> variables = readVariables(in, table);
+
+        int threadCount = readCount(in);
+        if (version >= 2) {
+            // Розділи йдуть підряд у порядку потоків, тож таблиця зсувів тут не потрібна.
+            in.skipNBytes((long) SECTION_ENTRY_SIZE * threadCount);
+        }
+        List<FlowchartData> flowcharts = new ArrayList<>(initialCapacity(threadCount));
+        for (int t = 0; t < threadCount; t++) {
+            flowcharts.add(readThread(in, table));
+        }
+
+        ProjectData project = new ProjectData();
+        project.setSharedVariables(variables);
+        project.setFlowchartData(flowcharts);
+        return project;
+    }
+
+    static boolean isLegacy(InputStream stream) throws IOException {
+        stream.mark(2);
+        int first = stream.read();
+        int second = stream.read();
+        stream.reset();
+        return first == 0xAC && second == 0xED;
+    }
+
+    // Перевіряє сигнатуру й повертає версію формату.
+    static int readHeader(DataInput in) throws IOException {
+        byte[] magic = new byte[MAGIC.length];
+        try {
+            in.readFully(magic);
+        } catch (EOFException e) {
+            throw new IOException("Невідомий формат файлу проекту");
+        }
+        if (!Arrays.equals(magic, MAGIC)) {
+            throw new IOException("Невідомий формат файлу проекту");
+        }
+        int version = readVarint(in);
+        if (version < 1 || version > VERSION) {
+            throw new IOException("Непідтримувана версія файлу проекту: " + version);
+        }
+        return version;
+    }
+
+    static List<String> readVariables(DataInput in, Strings strings) throws IOException {
+        int varCount = readCount(in);
+        List<String> variables = new ArrayList<>(initialCapacity(varCount));
+        for (int i = 0; i < varCount; i++) {
+            variables.add(strings.get(readVarint(in)));
+        }
+        return variables;
+    }
+
+    static FlowchartData readThread(DataInput in, Strings strings) throws IOException {
+        int blockCount = readCount(in);
+        BlockStore store = new BlockStore(initialCapacity(blockCount));
+        List<Block> blocks = new ArrayList<>(initialCapacity(blockCount));
+        for (int i = 0; i < blockCount; i++) {
+            int type = in.readUnsignedByte();
+            if (type >= TYPES.length) throw new IOException("Невідомий тип блоку: " + type);
+            Block block = store.create(TYPES[type], unzigzag(readVarint(in)), unzigzag(readVarint(in)));
+            int code = readVarint(in);
+            if (code != 0) block.setCode(strings.get(code - 1));
+            blocks.add(block);
+        }
+
+        int connectionCount = readCount(in);
+        List<Connection> connections = new ArrayList<>(initialCapacity(connectionCount));
+        for (int i = 0; i < connectionCount; i++) {
+            Connection conn = new Connection(block(blocks, readVarint(in)), block(blocks, readVarint(in)));
+            int condition = in.readUnsignedByte();
+            if (condition > 2) throw new IOException("Невідома гілка з'єднання: " + condition);
+            if (condition != 0) conn.setCondition(condition == 1);
+            connections.add(conn);
+        }
+
+        FlowchartData flowchart = new FlowchartData();
+        flowchart.setBlocks(blocks);
+        flowchart.setConnections(connections);
+        return flowchart;
+    }
+
+    // Файли, збережені ObjectOutputStream до появи цього формату.
+    static ProjectData readLegacy(InputStream stream) throws IOException {
+        ObjectInputStream in = new ObjectInputStream(stream) {
+            @Override
+            protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+                Class<?> cl = LEGACY_CLASSES.get(desc.getName());
+                return cl != null ? cl : super.resolveClass(desc);
+            }
+        };
+        in.setObjectInputFilter(LEGACY_FILTER);
+        try {
+            Object data = in.readObject();
+            if (!(data instanceof ProjectData)) throw new IOException("Файл не містить проекту");
+            ProjectData project = (ProjectData) data;
+            if (project.getSharedVariables() == null || project.getFlowchartData() == null) {
+                throw new IOException("Пошкоджений файл проекту");
+            }
+            for (FlowchartData flowchart : project.getFlowchartData()) {
+                if (flowchart == null || flowchart.getBlocks() == null || flowchart.getConnections() == null) {
+                    throw new IOException("Пошкоджений файл проекту");
+                }
+            }
+            return project;
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new IOException("Пошкоджений файл проекту: " + e.getMessage(), e);
+        }
+    }
+
+    private static int blockRef(Map<Block, Integer> numbers, Block block) {
+        Integer number = block != null ? numbers.get(block) : null;
+        return number != null ? number + 1 : 0;
+    }
+
+    private static Block block(List<Block> blocks, int ref) throws IOException {
+        if (ref == 0) return null;
+        if (ref > blocks.size()) throw new IOException("Посилання на неіснуючий блок: " + ref);
+        return blocks.get(ref - 1);
+    }
+
+    static String string(String[] strings, int index) throws IOException {
+        if (index < 0 || index >= strings.length) throw new IOException("Посилання на неіснуючий рядок: " + index);
+        return strings[index];
+    }
+
+    static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    static int unzigzag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    static void writeVarint(DataOutput out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    static int readVarint(DataInput in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IOException("Пошкоджене число у файлі проекту");
+    }
+
+    // Розмір списку; обмежується, щоб пошкоджений файл не виділяв гігабайти.
+    static int readCount(DataInput in) throws IOException {
+        int count = readVarint(in);
+        if (count < 0 || count > 1 << 26) throw new IOException("Пошкоджений розмір у файлі проекту: " + count);
+        return count;
+    }
+
+    // Місткість для списку, розмір якого заявлено у файлі. Навіть допустимий
+    // розмір нічого не гарантує — крихітний пошкоджений файл може заявити
+    // мільйони блоків, — тож списки починають з малого й ростуть у міру читання.
+    static int initialCapacity(int count) {
+        return Math.min(count, 1024);
+    }
+}
@@ -0,0 +1,68 @@
+package flowchart;
+
+import java.io.*;
+
+// Пише Python-код рядок за рядком одразу у Writer. Відступ — стан емітера
+// (indent/dedent), тож код не треба спершу збирати в рядок, а потім зсувати
+// регулярним виразом. Помилки запису передаються як UncheckedIOException,
+// щоб їх не оголошувати в кожному методі генератора.
+class PythonEmitter {
+    private static final String INDENT = "    ";
+
+    private final Writer out;
+    private int depth;
+    private int statementCount;
+
+    public PythonEmitter(Writer out) {
+        this(out, 0);
+    }
+
+    public PythonEmitter(Writer out, int depth) {
+        this.out = out;
+        this.depth = depth;
+    }
+
+    public void line(String text) {
+        try {
+            for (int i = 0; i < depth; i++) {
+                out.write(INDENT);
+            }
+            out.write(text);
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (!text.startsWith("#")) statementCount++;
+    }
+
+    public void blankLine() {
+        try {
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Вже готовий фрагмент коду (з власними відступами) без змін.
+    public void raw(String code) {
+        try {
+            out.write(code);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void indent() {
+        depth++;
+    }
+
+    public void dedent() {
+        depth--;
+    }
+
+    // Кількість записаних рядків, що не є коментарями: блок Python лише з
+    // коментарів (наприклад, "# Кінець потоку") потребує pass.
+    public int getStatementCount() {
+        return statementCount;
+    }
+}
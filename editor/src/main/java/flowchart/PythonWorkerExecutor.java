@@ -0,0 +1,325 @@
+package flowchart;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.*;
+import java.nio.file.*;
+import java.util.concurrent.TimeoutException;
+
+// Постійний процес Python ("fork-сервер"): програма компілюється один раз,
+// а кожне випробування виконується у відгалуженому дочірньому процесі
+// (або у свіжому просторі імен, якщо os.fork недоступний).
+//
+// Протокол через stdin/stdout помічника:
+//   <- "READY fork\n" або "READY\n" (без fork) після запуску
+//   -> "RUN <n> <timeoutMs>\n" + n байтів вхідних даних (UTF-8)
+//   <- "OUT <1|2> <n>\n" + n байтів stdout (1) чи stderr (2), по мірі виводу
+//   <- "DONE\n" після завершення або "TIMEOUT\n", якщо дочірній процес
+//      не вклався в час і був знищений
+//   -> "ABORT\n", щойно результат знайдено (лише в режимі fork): дочірній
+//      процес знищується і помічник відповідає "DONE\n"; запізнілий ABORT
+//      ігнорується
+// Якщо помічник сам не відповідає (режим без fork), сторожовий таймер
+// на боці Java знищує весь процес воркера.
+class PythonWorkerExecutor implements TrialExecutor {
+    private static final String WORKER_SCRIPT = """
+            import io, os, select, signal, sys, threading, time, traceback
+
+            def run_program(code, data, out, err):
+                saved = sys.stdin, sys.stdout, sys.stderr
+                sys.stdin, sys.stdout, sys.stderr = io.StringIO(data), out, err
+                try:
+                    try:
+                        exec(code, {'__name__': '__main__'})
+                    except SystemExit:
+                        pass
+                    except BaseException:
+                        traceback.print_exc()
+                    for t in threading.enumerate():
+                        if t is not threading.main_thread():
+                            t.join()
+                finally:
+                    sys.stdin, sys.stdout, sys.stderr = saved
+
+            def send(proto_out, stream, payload):
+                proto_out.write(b'OUT %d %d\\n' % (stream, len(payload)))
+                proto_out.write(payload)
+                proto_out.flush()
+
+            # Без fork вивід програми одразу йде кадрами в протокол.
+            class FrameWriter(io.TextIOBase):
+                def __init__(self, proto_out, stream):
+                    self.proto_out, self.stream = proto_out, stream
+
+                def writable(self):
+                    return True
+
+                def write(self, text):
+                    if text:
+                        send(self.proto_out, self.stream, text.encode('utf-8'))
+                    return len(text)
+
+            def run_forked(code, data, timeout, proto_in, proto_out):
+                r_out, w_out = os.pipe()
+                r_err, w_err = os.pipe()
+                pid = os.fork()
+                if pid == 0:
+                    try:
+                        os.setsid()
+                        os.close(r_out)
+                        os.close(r_err)
+                        devnull = os.open(os.devnull, os.O_RDONLY)
+                        os.dup2(devnull, 0)
+                        os.dup2(w_out, 1)
+                        os.dup2(w_err, 2)
+                        out = open(1, 'w', encoding='utf-8', errors='replace', closefd=False, buffering=1)
+                        err = open(2, 'w', encoding='utf-8', errors='replace', closefd=False, buffering=1)
+                        run_program(code, data, out, err)
+                        out.flush()
+                        err.flush()
+                    finally:
+                        os._exit(0)
+                os.close(w_out)
+                os.close(w_err)
+                streams = {r_out: 1, r_err: 2}
+                control = proto_in.fileno()
+                deadline = time.monotonic() + timeout
+                timed_out = aborted = False
+                while streams:
+                    remaining = deadline - time.monotonic()
+                    if remaining <= 0:
+                        timed_out = True
+                        break
+                    ready = select.select(list(streams) + [control], [], [], remaining)[0]
+                    if not ready:
+                        timed_out = True
+                        break
+                    if control in ready:
+                        proto_in.readline()
+                        aborted = True
+                        break
+                    for fd in ready:
+                        chunk = os.read(fd, 65536)
+                        if chunk:
+                            send(proto_out, streams[fd], chunk)
+                        else:
+                            os.close(fd)
+                            del streams[fd]
+                for fd in streams:
+                    os.close(fd)
+                if timed_out or aborted:
+                    os.killpg(pid, signal.SIGKILL)
+                os.waitpid(pid, 0)
+                return not timed_out
+
+            def main():
+                proto_in, proto_out = sys.stdin.buffer, sys.stdout.buffer
+                path = sys.argv[1]
+                with open(path, encoding='utf-8') as f:
+                    source = f.read()
+                try:
+                    code, compile_error = compile(source, path, 'exec'), None
+                except SyntaxError:
+                    code, compile_error = None, traceback.format_exc()
+                use_fork = hasattr(os, 'fork')
+                proto_out.write(b'READY fork\\n' if use_fork else b'READY\\n')
+                proto_out.flush()
+                while True:
+                    header = proto_in.readline().split()
+                    if header == [b'ABORT']:
+                        continue
+                    if len(header) != 3 or header[0] != b'RUN':
+                        break
+                    data = proto_in.read(int(header[1])).decode('utf-8')
+                    finished = True
+                    if compile_error:
+                        send(proto_out, 2, compile_error.encode('utf-8'))
+                    elif use_fork:
+                        finished = run_forked(code, data, int(header[2]) / 1000, proto_in, proto_out)
+                    else:
+                        run_program(code, data, FrameWriter(proto_out, 1), FrameWriter(proto_out, 2))
+                    proto_out.write(b'DONE\\n' if finished else b'TIMEOUT\\n')
+                    proto_out.flush()
+
+            main()
+            """;
+
+    // Запас часу, після якого вважаємо, що завис сам помічник, а не програма.
+    private static final long WORKER_GRACE_MILLIS = 2000;
+    // Найдовший заголовок кадру — "OUT 2 " і десять цифр довжини.
+    private static final int MAX_HEADER_LENGTH = 64;
+
+    private static Path scriptPath;
+
+    private final Process process;
+    private final OutputStream toWorker;
+    private final InputStream fromWorker;
+    // Чи виконує помічник програму у дочірньому процесі, який можна перервати.
+    private final boolean forking;
+
+    public PythonWorkerExecutor(File programFile) throws IOException {
+        this(new ProcessBuilder("python", workerScript().toString(), programFile.getAbsolutePath()));
+    }
+
+    // Для тестів: помічник із заданою командою.
+    PythonWorkerExecutor(ProcessBuilder worker) throws IOException {
+        process = worker.redirectError(ProcessBuilder.Redirect.DISCARD).start();
+        toWorker = new BufferedOutputStream(process.getOutputStream());
+        fromWorker = new BufferedInputStream(process.getInputStream());
+
+        String ready = readHeader();
+        if (ready == null || !ready.startsWith("READY")) {
+            close();
+            throw new IOException("Python-воркер не запустився");
+        }
+        forking = ready.equals("READY fork");
+    }
+
+    private static synchronized Path workerScript() throws IOException {
+        if (scriptPath == null) {
+            Path path = Files.createTempFile("flowchart_worker", ".py");
+            Files.writeString(path, WORKER_SCRIPT, StandardCharsets.UTF_8);
+            path.toFile().deleteOnExit();
+            scriptPath = path;
+        }
+        return scriptPath;
+    }
+
+    @Override
+    public void execute(String input, OutputMatcher matcher, long timeoutMillis) throws IOException, TimeoutException {
+        byte[] data = (input + "\n").getBytes(StandardCharsets.UTF_8);
+        StreamDecoder[] streams = {new StreamDecoder(matcher.channel()), new StreamDecoder(matcher.channel())};
+        ProcessWatchdog watchdog = ProcessWatchdog.start(process, timeoutMillis + WORKER_GRACE_MILLIS);
+        String header = null;
+        IOException failure = null;
+        boolean killed;
+        try {
+            toWorker.write(("RUN " + data.length + " " + timeoutMillis + "\n").getBytes(StandardCharsets.US_ASCII));
+            toWorker.write(data);
+            toWorker.flush();
+
+            boolean aborted = false;
+            while ((header = readHeader()) != null && header.startsWith("OUT ")) {
+                String[] parts = header.split(" ", -1);
+                if (parts.length != 3 || !(parts[1].equals("1") || parts[1].equals("2"))) {
+                    throw new ProtocolException();
+                }
+                streams[parts[1].equals("2") ? 1 : 0].read(fromWorker, frameLength(parts[2]));
+                // Без fork програму не перервати: вивід дочитується до кінця, а
+                // нескінченну програму зупиняє сторожовий таймер разом з воркером.
+                if (forking && !aborted && matcher.isMatched()) {
+                    aborted = true;
+                    toWorker.write("ABORT\n".getBytes(StandardCharsets.US_ASCII));
+                    toWorker.flush();
+                }
+            }
+            for (StreamDecoder stream : streams) {
+                stream.finish();
+            }
+        } catch (IOException e) {
+            failure = e;
+        } finally {
+            killed = watchdog.stop();
+        }
+
+        // Порушений протокол (без fork програма може писати прямо в канал воркера)
+        // означає, що воркер непридатний, навіть якщо вивід уже збігся.
+        if (failure instanceof ProtocolException) throw failure;
+        if (matcher.isMatched()) return;
+        if (killed || "TIMEOUT".equals(header)) {
+            throw new TimeoutException();
+        }
+        if (failure != null) throw failure;
+        if (header != null && !"DONE".equals(header)) throw new ProtocolException();
+        if (!"DONE".equals(header)) {
+            throw new IOException("Python-воркер завершився несподівано");
+        }
+    }
+
+    private static class ProtocolException extends IOException {
+        ProtocolException() {
+            super("протокол воркера порушено");
+        }
+    }
+
+    private static int frameLength(String text) throws ProtocolException {
+        if (text.isEmpty() || text.length() > 10) throw new ProtocolException();
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) < '0' || text.charAt(i) > '9') throw new ProtocolException();
+        }
+        long length = Long.parseLong(text);
+        if (length > Integer.MAX_VALUE) throw new ProtocolException();
+        return (int) length;
+    }
+
+    // Декодує кадри одного потоку виводу частинами по 8 КБ і передає їх у
+    // matcher; символ UTF-8, розрізаний між кадрами, доповнюється наступним кадром.
+    private static class StreamDecoder {
+        private final OutputMatcher.Channel channel;
+        private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        private final ByteBuffer bytes = ByteBuffer.allocate(8192);
+        private final CharBuffer chars = CharBuffer.allocate(8192);
+
+        StreamDecoder(OutputMatcher.Channel channel) {
+            this.channel = channel;
+        }
+
+        void read(InputStream in, int length) throws IOException {
+            int remaining = length;
+            while (remaining > 0) {
+                int read = in.read(bytes.array(), bytes.position(), Math.min(bytes.remaining(), remaining));
+                if (read == -1) {
+                    throw new EOFException("Python-воркер завершився несподівано");
+                }
+                remaining -= read;
+                bytes.position(bytes.position() + read);
+                bytes.flip();
+                decoder.decode(bytes, chars, false);
+                bytes.compact();
+                emit();
+            }
+        }
+
+        void finish() {
+            bytes.flip();
+            decoder.decode(bytes, chars, true);
+            decoder.flush(chars);
+            bytes.clear();
+            emit();
+        }
+
+        private void emit() {
+            chars.flip();
+            channel.feed(chars.array(), 0, chars.limit());
+            chars.clear();
+        }
+    }
+
+    private String readHeader() throws IOException {
+        StringBuilder header = new StringBuilder();
+        int b;
+        while ((b = fromWorker.read()) != -1 && b != '\n') {
+            // Справжній заголовок короткий; довгий рядок — це чужий вивід у каналі.
+            if (header.length() >= MAX_HEADER_LENGTH) throw new ProtocolException();
+            header.append((char) b);
+        }
+        return b == -1 && header.length() == 0 ? null : header.toString();
+    }
+
+    @Override
+    public boolean isAlive() {
+        return process.isAlive();
+    }
+
+    @Override
+    public void close() {
+        try {
+            toWorker.close();
+        } catch (IOException ignored) {
+        }
+        ProcessWatchdog.killTree(process);
+    }
+}
@@ -0,0 +1,196 @@
+package flowchart;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+// Дисковий кеш вердиктів тестів. Ключ — SHA-256 від відбитка програми
+// (байти Python-файлу або згенерований код), вхідних даних і очікуваного
+// результату, тож будь-яка зміна програми чи тесту дає новий ключ.
+// Зберігаються лише детерміновані вердикти (див. TestEngine). Понад
+// MAX_ENTRIES витісняються записи, до яких найдовше не зверталися; файл
+// пишеться в тому самому порядку (рядок на запис), тож порядок переживає перезапуск.
+class ResultCache {
+    static final int MAX_ENTRIES = 10_000;
+    private static final String HEADER = "# Flowchart editor test results v2";
+
+    private final File file;
+    private final Map<String, String> entries = new LinkedHashMap<String, String>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+    private boolean loaded;
+    private boolean dirty;
+
+    public ResultCache(File file) {
+        this.file = file;
+    }
+
+    public static ResultCache openDefault() {
+        return new ResultCache(new File(System.getProperty("user.home"), ".flowchart-editor/test-results.txt"));
+    }
+
+    // Відбиток програми; kind розділяє режими виконання, вердикти яких
+    // не обов'язково збігаються (Python та вбудований інтерпретатор).
+    public static String programDigest(String kind, byte[] program) {
+        MessageDigest digest = sha256();
+        digest.update(kind.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(program);
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    // Те саме для програми, яку зручніше не збирати в пам'яті: текст
+    // пишеться (у UTF-8) прямо в обчислення хешу.
+    public static String programDigest(String kind, Source program) throws IOException {
+        MessageDigest digest = sha256();
+        digest.update(kind.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(
+                new DigestOutputStream(OutputStream.nullOutputStream(), digest), StandardCharsets.UTF_8))) {
+            program.writeTo(out);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    interface Source {
+        void writeTo(Writer out) throws IOException;
+    }
+
+    private static String key(String programDigest, TestCase tc) {
+        MessageDigest digest = sha256();
+        for (String part : new String[]{programDigest, tc.getInput(), tc.getExpectedOutput()}) {
+            digest.update(part.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Збережений вердикт або null. Формат значення: "P:" чи "F:" і вивід програми.
+    public synchronized TrialResult lookup(String programDigest, TestCase tc, int testIndex, int trial) {
+        load();
+        String value = entries.get(key(programDigest, tc));
+        if (value == null || value.length() < 2 || value.charAt(1) != ':') return null;
+        // Звернення змінило порядок витіснення, і його теж варто зберегти.
+        dirty = true;
+        return TrialResult.fromCache(testIndex, trial, value.charAt(0) == 'P', value.substring(2));
+    }
+
+    public synchronized void store(String programDigest, TestCase tc, boolean passed, String output) {
+        load();
+        entries.put(key(programDigest, tc), (passed ? "P:" : "F:") + (output != null ? output : ""));
+        dirty = true;
+    }
+
+    public synchronized void save() throws IOException {
+        if (!dirty) return;
+        File dir = file.getParentFile();
+        if (dir != null && !dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("Не вдалося створити каталог " + dir);
+        }
+        File temp = new File(file.getPath() + ".tmp");
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(temp), StandardCharsets.UTF_8))) {
+            out.write(HEADER);
+            out.write('\n');
+            // Від найдавнішого звернення до найсвіжішого.
+            for (Map.Entry<String, String> entry : entries.entrySet()) {
+                out.write(entry.getKey());
+                out.write('\t');
+                out.write(escape(entry.getValue()));
+                out.write('\n');
+            }
+        }
+        if (!temp.renameTo(file)) {
+            file.delete();
+            if (!temp.renameTo(file)) throw new IOException("Не вдалося записати " + file);
+        }
+        dirty = false;
+    }
+
+    private void load() {
+        if (loaded) return;
+        loaded = true;
+        if (!file.isFile()) return;
+        Map<String, String> read = new LinkedHashMap<>();
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            if (!HEADER.equals(in.readLine())) return;
+            String line;
+            while ((line = in.readLine()) != null) {
+                int tab = line.indexOf('\t');
+                if (tab < 0) throw new IllegalArgumentException("Рядок без значення");
+                read.put(line.substring(0, tab), unescape(line.substring(tab + 1)));
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            // Пошкоджений кеш просто ігнорується: він буде перезаписаний.
+            return;
+        }
+        entries.putAll(read);
+    }
+
+    // Вивід програми в один рядок файлу.
+    private static String escape(String value) {
+        StringBuilder out = new StringBuilder(value.length() + 8);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\':
+                    out.append("\\\\");
+                    break;
+                case '\n':
+                    out.append("\\n");
+                    break;
+                case '\r':
+                    out.append("\\r");
+                    break;
+                case '\t':
+                    out.append("\\t");
+                    break;
+                default:
+                    out.append(c);
+            }
+        }
+        return out.toString();
+    }
+
+    private static String unescape(String text) {
+        StringBuilder out = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c != '\\') {
+                out.append(c);
+                continue;
+            }
+            if (++i == text.length()) throw new IllegalArgumentException("Обірване екранування");
+            switch (text.charAt(i)) {
+                case '\\':
+                    out.append('\\');
+                    break;
+                case 'n':
+                    out.append('\n');
+                    break;
+                case 'r':
+                    out.append('\r');
+                    break;
+                case 't':
+                    out.append('\t');
+                    break;
+                default:
+                    throw new IllegalArgumentException("Невідоме екранування");
+            }
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,16 @@
+package flowchart;
+
+// Множина відвіданих станів, спільна для кількох потоків пошуку.
+interface StateSet {
+    // Повертає true, якщо хеш додано вперше.
+    boolean add(long hash);
+
+    boolean contains(long hash);
+
+    long size();
+
+    long memoryBytes();
+
+    // false для наближених множин, які можуть помилково вважати стан відвіданим.
+    boolean isExact();
+}
@@ -0,0 +1,461 @@
+package flowchart;
+
+import java.io.*;
+import java.util.*;
+
+// Структурна генерація Python-коду з блок-схеми одного потоку.
+//
+// Блоки нумеруються в порядку обходу від стартового; усі кінці потоку
+// (END і блоки без наступного) ведуть у віртуальний вузол EXIT. Зворотні дуги
+// (знайдені обходом у глибину) — це цикли: їхні цілі стають заголовками
+// while. Для решти графа, який після вилучення зворотних дуг ациклічний,
+// будується дерево постдомінаторів (алгоритм Cooper–Harvey–Kennedy), і точка
+// злиття гілок if/else — найближчий постдомінатор умови. Усе це лінійне чи
+// майже лінійне від розміру схеми, без копіювання множин відвіданих блоків.
+class StructuredCodeGenerator {
+    interface Statements {
+        // Рядок коду для блоку без розгалуження (усе, крім CONDITION), без відступу.
+        String statement(Block block);
+
+        // Умова блоку CONDITION.
+        String condition(Block block);
+    }
+
+    private final ConnectionGraph graph;
+    private final Statements statements;
+
+    private Block[] blocks;
+    private int exit;
+    private int[][] successors;
+    private boolean[][] backEdges;
+    private int[] postDominator;
+    private int[] postOrder;
+    private Loop[] loops;
+    private PythonEmitter out;
+    // Блоки, що генеруються поточною ділянкою або однією з охопних. Повторний
+    // прихід у такий блок (не через заголовок циклу) буває лише в
+    // неструктурованих схемах і без цієї перевірки генерувався б нескінченно.
+    private boolean[] onPath;
+    private int[] pathStack;
+    private int pathSize;
+
+    private static class Loop {
+        int header;
+        boolean[] body;
+        int follow;
+        // Гілка заголовка-умови, що лишається в циклі (while cond / while not cond), або -1.
+        int conditionBranch = -1;
+    }
+
+    public StructuredCodeGenerator(ConnectionGraph graph, Statements statements) {
+        this.graph = graph;
+        this.statements = statements;
+    }
+
+    public String generate(Block start) {
+        StringWriter code = new StringWriter();
+        try {
+            generate(start, new PythonEmitter(code));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return code.toString();
+    }
+
+    // Пише код потоку в emitter з його поточним відступом.
+    public void generate(Block start, PythonEmitter emitter) throws IOException {
+        buildGraph(start);
+        findBackEdges();
+        findLoops();
+        computeFollows();
+
+        out = emitter;
+        onPath = new boolean[blocks.length];
+        pathStack = new int[blocks.length];
+        pathSize = 0;
+        int mark = out.getStatementCount();
+        try {
+            region(0, exit, null, false);
+            // Тіло функції не може складатися лише з коментарів.
+            if (out.getStatementCount() == mark) out.line("pass");
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void buildGraph(Block start) {
+        Map<Block, Integer> index = new IdentityHashMap<>();
+        List<Block> order = new ArrayList<>();
+        index.put(start, 0);
+        order.add(start);
+
+        for (int i = 0; i < order.size(); i++) {
+            for (Block next : targets(order.get(i))) {
+                if (next != null && !index.containsKey(next)) {
+                    index.put(next, order.size());
+                    order.add(next);
+                }
+            }
+        }
+
+        blocks = order.toArray(new Block[0]);
+        exit = blocks.length;
+        successors = new int[blocks.length][];
+        for (int i = 0; i < blocks.length; i++) {
+            Block[] targets = targets(blocks[i]);
+            successors[i] = new int[targets.length];
+            for (int k = 0; k < targets.length; k++) {
+                successors[i][k] = targets[k] != null ? index.get(targets[k]) : exit;
+            }
+        }
+    }
+
+    // Наступні блоки: для умови — гілки True і False, для END — жодного
+    // (потік завершується), для решти — перший звичайний перехід.
+    private Block[] targets(Block block) {
+        switch (block.getType()) {
+            case CONDITION:
+                return new Block[]{target(block, true), target(block, false)};
+            case END:
+                return new Block[]{null};
+            default:
+                return new Block[]{target(block, null)};
+        }
+    }
+
+    private Block target(Block block, Boolean condition) {
+        Connection conn = graph.first(block, condition);
+        return conn != null ? conn.getTo() : null;
+    }
+
+    // Ітеративний обхід у глибину: дуга до блоку, який ще на стеку, — зворотна.
+    private void findBackEdges() {
+        backEdges = new boolean[blocks.length][];
+        for (int i = 0; i < blocks.length; i++) {
+            backEdges[i] = new boolean[successors[i].length];
+        }
+
+        byte[] state = new byte[blocks.length]; // 0 — не відвіданий, 1 — на стеку, 2 — завершений
+        int[] stack = new int[blocks.length];
+        int[] position = new int[blocks.length];
+        int top = 0;
+        stack[0] = 0;
+        state[0] = 1;
+
+        while (top >= 0) {
+            int node = stack[top];
+            if (position[node] == successors[node].length) {
+                state[node] = 2;
+                top--;
+                continue;
+            }
+            int k = position[node]++;
+            int next = successors[node][k];
+            if (next == exit) continue;
+            if (state[next] == 1) {
+                backEdges[node][k] = true;
+            } else if (state[next] == 0) {
+                state[next] = 1;
+                stack[++top] = next;
+            }
+        }
+    }
+
+    // Наступник у графі для постдомінаторів: зворотна дуга веде туди, куди
+    // виконання йде після циклу. Якби вона вела в EXIT, if з циклом усередині не
+    // мав би точки злиття, і код після нього повторювався б у кожній гілці.
+    private int forwardSuccessor(int node, int k) {
+        return backEdges[node][k] ? loopExit(loops[successors[node][k]]) : successors[node][k];
+    }
+
+    // Продовження циклу, а якщо це заголовок охопного циклу (continue) — його
+    // продовження, і так далі назовні.
+    private int loopExit(Loop loop) {
+        Loop current = loop;
+        for (int step = 0; step < blocks.length; step++) {
+            int follow = current.follow;
+            if (follow == exit || loops[follow] == null || !loops[follow].body[current.header]) break;
+            current = loops[follow];
+        }
+        int follow = current.follow;
+        // У неструктурованих схемах продовження може лежати в самому циклі.
+        return follow == exit || loop.body[follow] ? exit : follow;
+    }
+
+    private void computePostDominators() {
+        // Попередники у графі без зворотних дуг (обернений граф для постдомінаторів).
+        int[] predecessorCount = new int[exit + 1];
+        for (int i = 0; i < blocks.length; i++) {
+            for (int k = 0; k < successors[i].length; k++) {
+                predecessorCount[forwardSuccessor(i, k)]++;
+            }
+        }
+        int[][] predecessors = new int[exit + 1][];
+        for (int i = 0; i <= exit; i++) {
+            predecessors[i] = new int[predecessorCount[i]];
+            predecessorCount[i] = 0;
+        }
+        for (int i = 0; i < blocks.length; i++) {
+            for (int k = 0; k < successors[i].length; k++) {
+                int s = forwardSuccessor(i, k);
+                predecessors[s][predecessorCount[s]++] = i;
+            }
+        }
+
+        // Зворотний постпорядок оберненого графа від EXIT.
+        postOrder = new int[exit + 1];
+        Arrays.fill(postOrder, -1);
+        int[] order = new int[exit + 1];
+        int count = 0;
+        int[] stack = new int[exit + 1];
+        int[] position = new int[exit + 1];
+        boolean[] seen = new boolean[exit + 1];
+        int top = 0;
+        stack[0] = exit;
+        seen[exit] = true;
+        while (top >= 0) {
+            int node = stack[top];
+            if (position[node] == predecessors[node].length) {
+                postOrder[node] = count;
+                order[count++] = node;
+                top--;
+                continue;
+            }
+            int p = predecessors[node][position[node]++];
+            if (!seen[p]) {
+                seen[p] = true;
+                stack[++top] = p;
+            }
+        }
+
+        postDominator = new int[exit + 1];
+        Arrays.fill(postDominator, -1);
+        postDominator[exit] = exit;
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int i = count - 2; i >= 0; i--) {
+                int node = order[i];
+                int dominator = -1;
+                for (int k = 0; k < successors[node].length; k++) {
+                    int s = forwardSuccessor(node, k);
+                    if (postDominator[s] == -1) continue;
+                    dominator = dominator == -1 ? s : intersect(s, dominator);
+                }
+                if (dominator != postDominator[node]) {
+                    postDominator[node] = dominator;
+                    changed = true;
+                }
+            }
+        }
+    }
+
+    private int intersect(int a, int b) {
+        while (a != b) {
+            while (postOrder[a] < postOrder[b]) a = postDominator[a];
+            while (postOrder[b] < postOrder[a]) b = postDominator[b];
+        }
+        return a;
+    }
+
+    private void findLoops() {
+        loops = new Loop[blocks.length];
+        int[][] predecessors = predecessorsWithBackEdges();
+
+        for (int node = 0; node < blocks.length; node++) {
+            for (int k = 0; k < successors[node].length; k++) {
+                if (!backEdges[node][k]) continue;
+                int header = successors[node][k];
+                Loop loop = loops[header];
+                if (loop == null) {
+                    loop = new Loop();
+                    loop.header = header;
+                    loop.body = new boolean[blocks.length];
+                    loop.body[header] = true;
+                    loops[header] = loop;
+                }
+                // Тіло циклу — блоки, з яких можна дійти до зворотної дуги, не проходячи заголовок.
+                Deque<Integer> queue = new ArrayDeque<>();
+                if (!loop.body[node]) {
+                    loop.body[node] = true;
+                    queue.add(node);
+                }
+                while (!queue.isEmpty()) {
+                    for (int p : predecessors[queue.poll()]) {
+                        if (!loop.body[p]) {
+                            loop.body[p] = true;
+                            queue.add(p);
+                        }
+                    }
+                }
+            }
+        }
+
+        for (Loop loop : loops) {
+            if (loop != null) findConditionExit(loop);
+        }
+    }
+
+    // Продовження while True залежить від постдомінаторів, а ті — від того, куди
+    // ведуть зворотні дуги, тож обидва уточнюються по черзі, доки не перестануть
+    // змінюватися. Спершу зворотні дуги таких циклів ведуть у EXIT.
+    private void computeFollows() {
+        computePostDominators();
+        for (int round = 0; round < blocks.length; round++) {
+            boolean changed = false;
+            for (Loop loop : loops) {
+                if (loop == null || loop.conditionBranch >= 0) continue;
+                int follow = findFollow(loop);
+                if (follow != loop.follow) {
+                    loop.follow = follow;
+                    changed = true;
+                }
+            }
+            if (!changed) return;
+            computePostDominators();
+        }
+    }
+
+    private int[][] predecessorsWithBackEdges() {
+        List<List<Integer>> lists = new ArrayList<>();
+        for (int i = 0; i < blocks.length; i++) lists.add(new ArrayList<>(1));
+        for (int i = 0; i < blocks.length; i++) {
+            for (int s : successors[i]) {
+                if (s != exit) lists.get(s).add(i);
+            }
+        }
+        int[][] predecessors = new int[blocks.length][];
+        for (int i = 0; i < blocks.length; i++) {
+            predecessors[i] = lists.get(i).stream().mapToInt(Integer::intValue).toArray();
+        }
+        return predecessors;
+    }
+
+    // Блок, з якого виконання продовжується після циклу. Якщо заголовок — умова
+    // з однією гілкою всередині циклу, цикл стає while cond, а продовження —
+    // друга гілка; інакше while True (продовження знаходить findFollow).
+    private void findConditionExit(Loop loop) {
+        loop.follow = exit;
+        int header = loop.header;
+        if (blocks[header].getType() != BlockType.CONDITION) return;
+        int inTrue = successors[header][0];
+        int inFalse = successors[header][1];
+        boolean trueInside = inTrue != exit && loop.body[inTrue];
+        boolean falseInside = inFalse != exit && loop.body[inFalse];
+        if (trueInside != falseInside) {
+            loop.conditionBranch = trueInside ? 0 : 1;
+            loop.follow = trueInside ? inFalse : inTrue;
+        }
+    }
+
+    // Продовження while True — спільний постдомінатор усіх виходів з циклу.
+    private int findFollow(Loop loop) {
+        int follow = -1;
+        for (int node = 0; node < blocks.length; node++) {
+            if (!loop.body[node]) continue;
+            for (int s : successors[node]) {
+                if (s != exit && loop.body[s]) continue;
+                // Блок, з якого EXIT недосяжний (неструктурована схема), точки злиття не має.
+                if (s != exit && postDominator[s] == -1) continue;
+                follow = follow == -1 ? s : intersect(s, follow);
+            }
+        }
+        return follow == -1 ? exit : follow;
+    }
+
+    // Генерує ділянку від node до stop (не включно). Повертає true, якщо
+    // ділянка закінчилась переходом (return/break/continue), тобто виконання
+    // не доходить до коду після неї. first — node вже є заголовком поточного
+    // циклу і генерується як звичайний блок.
+    private boolean region(int node, int stop, Loop loop, boolean first) {
+        int mark = pathSize;
+        try {
+            return walk(node, stop, loop, first);
+        } finally {
+            while (pathSize > mark) onPath[pathStack[--pathSize]] = false;
+        }
+    }
+
+    private boolean walk(int node, int stop, Loop loop, boolean first) {
+        while (true) {
+            if (!first) {
+                if (node == stop) return false;
+                if (node == exit) {
+                    out.line("return");
+                    return true;
+                }
+                if (loop != null) {
+                    if (node == loop.header) {
+                        out.line("continue");
+                        return true;
+                    }
+                    if (!loop.body[node]) return leaveLoop(node, loop);
+                }
+                if (onPath[node]) {
+                    out.line("# [ПОМИЛКА] Неструктурований перехід до блоку " + blocks[node].getType());
+                    return true;
+                }
+                onPath[node] = true;
+                pathStack[pathSize++] = node;
+
+                Loop inner = loops[node];
+                if (inner != null) {
+                    loopStatement(inner);
+                    node = inner.follow;
+                    continue;
+                }
+            }
+            first = false;
+
+            Block block = blocks[node];
+            if (block.getType() != BlockType.CONDITION) {
+                out.line(statements.statement(block));
+                node = successors[node][0];
+                continue;
+            }
+
+            int join = postDominator[node];
+            out.line("if " + statements.condition(block) + ":");
+            boolean trueJumps = branch(successors[node][0], join, loop);
+            out.line("else:");
+            boolean falseJumps = branch(successors[node][1], join, loop);
+            if (trueJumps && falseJumps) return true;
+            node = join;
+        }
+    }
+
+    // Вкладений блок коду (гілка if/else або тіло while) з відступом.
+    private boolean branch(int node, int stop, Loop loop) {
+        out.indent();
+        int mark = out.getStatementCount();
+        boolean jumps = region(node, stop, loop, false);
+        if (out.getStatementCount() == mark) out.line("pass");
+        out.dedent();
+        return jumps;
+    }
+
+    // Вихід з циклу: до продовження — break, до іншого блоку — його код, а потім break.
+    private boolean leaveLoop(int node, Loop loop) {
+        if (node != loop.follow) {
+            if (region(node, loop.follow, null, false)) return true;
+        }
+        out.line("break");
+        return true;
+    }
+
+    private void loopStatement(Loop loop) {
+        int header = loop.header;
+        if (loop.conditionBranch >= 0) {
+            String condition = statements.condition(blocks[header]);
+            out.line("while " + (loop.conditionBranch == 0 ? condition : "not (" + condition + ")") + ":");
+            branch(successors[header][loop.conditionBranch], header, loop);
+        } else {
+            out.line("while True:");
+            out.indent();
+            int mark = out.getStatementCount();
+            region(header, header, loop, true);
+            if (out.getStatementCount() == mark) out.line("pass");
+            out.dedent();
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package flowchart;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+class TestEngine {
+    private final TrialExecutor.Factory executorFactory;
+    private final int workerCount;
+    private final long timeoutMillis;
+    private ResultCache cache;
+    private String programDigest;
+
+    public TestEngine(TrialExecutor.Factory executorFactory, int workerCount, long timeoutMillis) {
+        this.executorFactory = executorFactory;
+        this.workerCount = Math.max(1, workerCount);
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    public static int defaultWorkerCount() {
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+    public int getWorkerCount() {
+        return workerCount;
+    }
+
+    // Вмикає кеш вердиктів для програми з відбитком programDigest. Кешувати
+    // можна лише детерміновану програму, тому для багатопотокових викликати не слід.
+    public void setCache(ResultCache cache, String programDigest) {
+        this.cache = cache;
+        this.programDigest = programDigest;
+    }
+
+    // Запускає K випробувань для кожного тесту на пулі з workerCount процесів.
+    // Результати віддаються слухачу в порядку завершення, а не запуску.
+    public TestReport run(List<TestCase> testCases, int trials, TrialListener listener) throws InterruptedException {
+        TestReport report = new TestReport(testCases, trials, workerCount);
+        ExecutorService executor = Executors.newFixedThreadPool(workerCount);
+        ExecutorPool pool = new ExecutorPool();
+        CompletionService<TrialResult> completion = new ExecutorCompletionService<>(executor);
+        long started = System.nanoTime();
+
+        boolean[] fromCache = new boolean[testCases.size()];
+        int hits = 0;
+
+        try {
+            int submitted = 0;
+            for (int i = 0; i < testCases.size(); i++) {
+                TestCase tc = testCases.get(i);
+                if (cache != null && lookupCached(tc, i, trials, report, listener)) {
+                    fromCache[i] = true;
+                    hits++;
+                    continue;
+                }
+                for (int trial = 0; trial < trials; trial++) {
+                    int testIndex = i;
+                    int trialIndex = trial;
+                    completion.submit(() -> runTrial(pool, tc, testIndex, trialIndex));
+                    submitted++;
+                }
+            }
+
+            for (int i = 0; i < submitted; i++) {
+                TrialResult result;
+                try {
+                    result = completion.take().get();
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException(e.getCause());
+                }
+                report.add(result);
+                if (listener != null) {
+                    listener.trialFinished(result);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+            pool.close();
+        }
+
+        if (cache != null) {
+            storeVerdicts(report, fromCache);
+            String error = null;
+            try {
+                cache.save();
+            } catch (IOException e) {
+                error = e.getMessage();
+            }
+            report.setCacheStatistics(hits, testCases.size() - hits, error);
+        }
+
+        report.setWallTimeNanos(System.nanoTime() - started);
+        return report;
+    }
+
+    private boolean lookupCached(TestCase tc, int testIndex, int trials, TestReport report, TrialListener listener) {
+        TrialResult cached = cache.lookup(programDigest, tc, testIndex, 0);
+        if (cached == null) return false;
+        for (int trial = 0; trial < trials; trial++) {
+            TrialResult result = trial == 0
+                    ? cached
+                    : TrialResult.fromCache(testIndex, trial, cached.isPassed(), cached.getOutput());
+            report.add(result);
+            if (listener != null) {
+                listener.trialFinished(result);
+            }
+        }
+        return true;
+    }
+
+    // Вердикт кешується лише тоді, коли всі випробування тесту завершились
+    // однаково (без тайм-аутів і помилок запуску).
+    private void storeVerdicts(TestReport report, boolean[] fromCache) {
+        for (int i = 0; i < fromCache.length; i++) {
+            if (fromCache[i]) continue;
+            TrialResult first = report.getResult(i, 0);
+            boolean unanimous = true;
+            for (int trial = 0; trial < report.getTrialCount(i) && unanimous; trial++) {
+                TrialResult r = report.getResult(i, trial);
+                unanimous = r.getOutcome() == first.getOutcome()
+                        && (r.isPassed() || r.getOutcome() == TrialResult.Outcome.FAILED);
+            }
+            if (unanimous) {
+                cache.store(programDigest, report.getTestCases().get(i), first.isPassed(), first.getOutput());
+            }
+        }
+    }
+
+    // Адаптивний режим: кількість виконань кожного тесту не задана наперед.
+    // Щойно якесь виконання завершується, sampler оновлює інтервали і обирає,
+    // якому тесту віддати звільнений процес. У черзі тримається вдвічі більше
+    // виконань, ніж процесів, щоб пул не простоював між рішеннями.
+    public TestReport runAdaptive(List<TestCase> testCases, AdaptiveSampler sampler, TrialListener listener)
+            throws InterruptedException {
+        TestReport report = new TestReport(testCases, sampler, workerCount);
+        ExecutorService executor = Executors.newFixedThreadPool(workerCount);
+        ExecutorPool pool = new ExecutorPool();
+        CompletionService<TrialResult> completion = new ExecutorCompletionService<>(executor);
+        int[] nextTrial = new int[testCases.size()];
+        int inFlight = 0;
+        long started = System.nanoTime();
+
+        try {
+            while (true) {
+                int testIndex;
+                while (inFlight < workerCount * 2 && (testIndex = sampler.next()) >= 0) {
+                    TestCase tc = testCases.get(testIndex);
+                    int index = testIndex;
+                    int trialIndex = nextTrial[testIndex]++;
+                    completion.submit(() -> runTrial(pool, tc, index, trialIndex));
+                    inFlight++;
+                }
+                if (inFlight == 0) break;
+
+                TrialResult result;
+                try {
+                    result = completion.take().get();
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException(e.getCause());
+                }
+                inFlight--;
+                sampler.record(result);
+                report.add(result);
+                if (listener != null) {
+                    listener.trialFinished(result);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+            pool.close();
+        }
+
+        report.setWallTimeNanos(System.nanoTime() - started);
+        return report;
+    }
+
+    // Виконавці (наприклад, постійні Python-процеси) перевикористовуються між
+    // випробуваннями; після помилки виконавець закривається, а не повертається в пул.
+    // Тайм-аут — окремий результат: він не зупиняє решту випробувань.
+    private TrialResult runTrial(ExecutorPool pool, TestCase tc, int testIndex, int trial) {
+        long started = System.nanoTime();
+        TrialExecutor trialExecutor = pool.acquire();
+        try {
+            if (trialExecutor == null) {
+                trialExecutor = executorFactory.create();
+            }
+
+            OutputMatcher matcher = new OutputMatcher(tc.getExpectedOutput());
+            trialExecutor.execute(tc.getInput(), matcher, timeoutMillis);
+            if (trialExecutor.isAlive()) {
+                pool.release(trialExecutor);
+            } else {
+                trialExecutor.close();
+            }
+
+            return TrialResult.completed(testIndex, trial, matcher.isMatched(), matcher.getCapturedOutput(),
+                    System.nanoTime() - started);
+        } catch (TimeoutException e) {
+            if (trialExecutor.isAlive()) {
+                pool.release(trialExecutor);
+            } else {
+                trialExecutor.close();
+            }
+            return TrialResult.timedOut(testIndex, trial, System.nanoTime() - started);
+        } catch (IOException | InterruptedException e) {
+            if (trialExecutor != null) {
+                trialExecutor.close();
+            }
+            return TrialResult.error(testIndex, trial, e.getMessage(), System.nanoTime() - started);
+        } catch (RuntimeException e) {
+            // Збій самого виконавця: його процес закривається, а не лишається
+            // поза пулом, і решта випробувань продовжується.
+            if (trialExecutor != null) {
+                trialExecutor.close();
+            }
+            return TrialResult.error(testIndex, trial, e.toString(), System.nanoTime() - started);
+        }
+    }
+
+    // Простоюючі виконавці одного запуску. Після скасування випробування, що
+    // ще виконуються, завершуються вже після close(): такий виконавець
+    // закривається одразу, а не повертається у пул, який більше ніхто не спорожнить.
+    private static class ExecutorPool {
+        private final Deque<TrialExecutor> idle = new ArrayDeque<>();
+        private boolean closed;
+
+        synchronized TrialExecutor acquire() {
+            return idle.poll();
+        }
+
+        void release(TrialExecutor trialExecutor) {
+            synchronized (this) {
+                if (!closed) {
+                    idle.add(trialExecutor);
+                    return;
+                }
+            }
+            trialExecutor.close();
+        }
+
+        void close() {
+            List<TrialExecutor> toClose;
+            synchronized (this) {
+                closed = true;
+                toClose = new ArrayList<>(idle);
+                idle.clear();
+            }
+            for (TrialExecutor trialExecutor : toClose) {
+                trialExecutor.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package flowchart;
+
+import java.util.*;
+
+class TestReport {
+    private final List<TestCase> testCases;
+    private final int trials;
+    private final int workerCount;
+    private final List<List<TrialResult>> results = new ArrayList<>();
+    private AdaptiveSampler sampler;
+    private long trialTimeNanos;
+    private long wallTimeNanos;
+    private boolean cacheUsed;
+    private int cacheHits;
+    private int cacheMisses;
+    private String cacheError;
+
+    public TestReport(List<TestCase> testCases, int trials, int workerCount) {
+        this.testCases = new ArrayList<>(testCases);
+        this.trials = trials;
+        this.workerCount = workerCount;
+        for (int i = 0; i < testCases.size(); i++) {
+            results.add(new ArrayList<>(Collections.nCopies(trials, null)));
+        }
+    }
+
+    // Звіт адаптивного режиму: кількість виконань кожного тесту визначає sampler.
+    public TestReport(List<TestCase> testCases, AdaptiveSampler sampler, int workerCount) {
+        this(testCases, 0, workerCount);
+        this.sampler = sampler;
+    }
+
+    public void add(TrialResult result) {
+        List<TrialResult> testResults = results.get(result.getTestIndex());
+        while (testResults.size() <= result.getTrial()) {
+            testResults.add(null);
+        }
+        testResults.set(result.getTrial(), result);
+        trialTimeNanos += result.getDurationNanos();
+    }
+
+    public List<TestCase> getTestCases() {
+        return testCases;
+    }
+
+    public int getTrials() {
+        return trials;
+    }
+
+    public boolean isAdaptive() {
+        return sampler != null;
+    }
+
+    public AdaptiveSampler getSampler() {
+        return sampler;
+    }
+
+    public int getTrialCount(int testIndex) {
+        return results.get(testIndex).size();
+    }
+
+    public TrialResult getResult(int testIndex, int trial) {
+        return results.get(testIndex).get(trial);
+    }
+
+    public int getPassed(int testIndex) {
+        int passed = 0;
+        for (TrialResult r : results.get(testIndex)) {
+            if (r != null && r.isPassed()) passed++;
+        }
+        return passed;
+    }
+
+    public int getTimedOut(int testIndex) {
+        int timedOut = 0;
+        for (TrialResult r : results.get(testIndex)) {
+            if (r != null && r.isTimedOut()) timedOut++;
+        }
+        return timedOut;
+    }
+
+    public int getCompleted(int testIndex) {
+        int completed = 0;
+        for (TrialResult r : results.get(testIndex)) {
+            if (r != null && !r.isError()) completed++;
+        }
+        return completed;
+    }
+
+    // 95% інтервал Вілсона для частки успішних виконань тесту.
+    public ConfidenceInterval getInterval(int testIndex) {
+        return ConfidenceInterval.wilson(getPassed(testIndex), getCompleted(testIndex), ConfidenceInterval.Z_95);
+    }
+
+    public void setCacheStatistics(int hits, int misses, String error) {
+        this.cacheUsed = true;
+        this.cacheHits = hits;
+        this.cacheMisses = misses;
+        this.cacheError = error;
+    }
+
+    public boolean isCacheUsed() {
+        return cacheUsed;
+    }
+
+    public String formatCacheStatistics() {
+        String text = "Кеш результатів: влучань " + cacheHits + ", промахів " + cacheMisses;
+        return cacheError != null ? text + " (не вдалося зберегти: " + cacheError + ")" : text;
+    }
+
+    public void setWallTimeNanos(long wallTimeNanos) {
+        this.wallTimeNanos = wallTimeNanos;
+    }
+
+    public long getWallTimeNanos() {
+        return wallTimeNanos;
+    }
+
+    // Прискорення відносно послідовного запуску: сумарний час випробувань / реальний час.
+    public double getSpeedup() {
+        return wallTimeNanos > 0 ? (double) trialTimeNanos / wallTimeNanos : 1.0;
+    }
+
+    public String formatTiming() {
+        return String.format("Час: %.2f с (послідовно ~%.2f с), процесів: %d, прискорення: %.2fx",
+                wallTimeNanos / 1e9, trialTimeNanos / 1e9, workerCount, getSpeedup());
+    }
+}
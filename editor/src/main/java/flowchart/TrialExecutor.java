@@ -0,0 +1,23 @@
+package flowchart;
+
+import java.io.*;
+import java.util.concurrent.TimeoutException;
+
+interface TrialExecutor extends Closeable {
+    // Виконує програму з заданим stdin, передаючи її вивід (stdout і stderr)
+    // у matcher по мірі надходження. Якщо програма не завершилась за
+    // timeoutMillis, її дерево процесів знищується і кидається TimeoutException.
+    void execute(String input, OutputMatcher matcher, long timeoutMillis)
+            throws IOException, InterruptedException, TimeoutException;
+
+    // Чи можна використати виконавця для наступного випробування
+    // (наприклад, після тайм-ауту воркер міг бути знищений цілком).
+    boolean isAlive();
+
+    @Override
+    void close();
+
+    interface Factory {
+        TrialExecutor create() throws IOException;
+    }
+}
@@ -0,0 +1,5 @@
+package flowchart;
+
+interface TrialListener {
+    void trialFinished(TrialResult result);
+}
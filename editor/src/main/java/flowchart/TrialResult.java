@@ -0,0 +1,94 @@
+package flowchart;
+
+class TrialResult {
+    enum Outcome { PASSED, FAILED, TIMEOUT, ERROR }
+
+    private final int testIndex;
+    private final int trial;
+    private final Outcome outcome;
+    private final String output;
+    private final String error;
+    private final long durationNanos;
+    private final boolean cached;
+
+    private TrialResult(int testIndex, int trial, Outcome outcome, String output, String error, long durationNanos,
+                        boolean cached) {
+        this.testIndex = testIndex;
+        this.trial = trial;
+        this.outcome = outcome;
+        this.output = output;
+        this.error = error;
+        this.durationNanos = durationNanos;
+        this.cached = cached;
+    }
+
+    public static TrialResult completed(int testIndex, int trial, boolean passed, String output, long durationNanos) {
+        return new TrialResult(testIndex, trial, passed ? Outcome.PASSED : Outcome.FAILED, output, null, durationNanos, false);
+    }
+
+    // Вердикт, узятий з ResultCache без запуску програми.
+    public static TrialResult fromCache(int testIndex, int trial, boolean passed, String output) {
+        return new TrialResult(testIndex, trial, passed ? Outcome.PASSED : Outcome.FAILED, output, null, 0, true);
+    }
+
+    public static TrialResult timedOut(int testIndex, int trial, long durationNanos) {
+        return new TrialResult(testIndex, trial, Outcome.TIMEOUT, null, null, durationNanos, false);
+    }
+
+    public static TrialResult error(int testIndex, int trial, String error, long durationNanos) {
+        return new TrialResult(testIndex, trial, Outcome.ERROR, null, error, durationNanos, false);
+    }
+
+    public int getTestIndex() {
+        return testIndex;
+    }
+
+    public int getTrial() {
+        return trial;
+    }
+
+    public Outcome getOutcome() {
+        return outcome;
+    }
+
+    public boolean isPassed() {
+        return outcome == Outcome.PASSED;
+    }
+
+    public boolean isTimedOut() {
+        return outcome == Outcome.TIMEOUT;
+    }
+
+    public boolean isError() {
+        return outcome == Outcome.ERROR;
+    }
+
+    public String getOutput() {
+        return output;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    public boolean isCached() {
+        return cached;
+    }
+
+    public String getStatusText() {
+        switch (outcome) {
+            case PASSED:
+                return "✔ ПРОЙДЕНО";
+            case FAILED:
+                return "✘ НЕ ПРОЙДЕНО";
+            case TIMEOUT:
+                return "⏱ ПЕРЕВИЩЕНО ЧАС";
+            default:
+                return "Помилка запуску: " + error;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package flowchart;
+
+import java.util.*;
+
+// Історія змін однієї схеми для скасування й повторення. Кожен стан — два
+// незмінні вектори (PersistentVector) зі станами блоків і з'єднань; наступний
+// стан ділить із попереднім усе, крім шляхів до змінених елементів, тож
+// пам'ять на крок росте з розміром зміни, а не схеми. Видалений елемент
+// лишає в векторі порожнє місце, щоб номери решти не зсувалися; коли порожніх
+// місць стає більше, ніж живих, поточний стан ущільнюється.
+//
+// Порядок непорожніх місць збігається з порядком списків панелі: нові блоки й
+// з'єднання панель дописує в кінець, а видалення порядку решти не змінює.
+class UndoHistory {
+    public static final int DEFAULT_DEPTH = 100;
+
+    // Значення блоку на момент кроку. Сам блок той самий об'єкт у всіх станах:
+    // видалений блок лишається придатним (BlockStore.release), тож його можна повернути.
+    static final class BlockState {
+        final Block block;
+        final int x, y;
+        final String code;
+
+        BlockState(Block block) {
+            this.block = block;
+            this.x = block.getX();
+            this.y = block.getY();
+            this.code = block.getCode();
+        }
+    }
+
+    static final class ConnectionState {
+        final Connection connection;
+        final Block to;
+        final Boolean condition;
+
+        ConnectionState(Connection connection) {
+            this.connection = connection;
+            this.to = connection.getTo();
+            this.condition = connection.condition;
+        }
+    }
+
+    static final class State {
+        final PersistentVector<BlockState> blocks;
+        final PersistentVector<ConnectionState> connections;
+
+        State(PersistentVector<BlockState> blocks, PersistentVector<ConnectionState> connections) {
+            this.blocks = blocks;
+            this.connections = connections;
+        }
+    }
+
+    private int depth = DEFAULT_DEPTH;
+    private final Deque<State> undo = new ArrayDeque<>();
+    private final Deque<State> redo = new ArrayDeque<>();
+    private State current;
+    // Наступний стан, що збирається до commit().
+    private PersistentVector<BlockState> blocks;
+    private PersistentVector<ConnectionState> connections;
+    private final Map<Block, Integer> blockSlots = new IdentityHashMap<>();
+    private final Map<Connection, Integer> connectionSlots = new IdentityHashMap<>();
+
+    public UndoHistory() {
+        reset(Collections.emptyList(), Collections.emptyList());
+    }
+
+    // Нова схема без історії.
+    public void reset(List<Block> blockList, List<Connection> connectionList) {
+        undo.clear();
+        redo.clear();
+        List<BlockState> blockStates = new ArrayList<>(blockList.size());
+        for (Block block : blockList) {
+            blockStates.add(new BlockState(block));
+        }
+        List<ConnectionState> connectionStates = new ArrayList<>(connectionList.size());
+        for (Connection conn : connectionList) {
+            connectionStates.add(new ConnectionState(conn));
+        }
+        load(new State(PersistentVector.of(blockStates), PersistentVector.of(connectionStates)));
+    }
+
+    public void setDepth(int depth) {
+        this.depth = depth;
+        while (undo.size() > depth) {
+            undo.removeLast();
+        }
+    }
+
+    public void blockChanged(Block block) {
+        Integer slot = blockSlots.get(block);
+        if (slot == null) {
+            blockSlots.put(block, blocks.size());
+            blocks = blocks.append(new BlockState(block));
+        } else {
+            blocks = blocks.set(slot, new BlockState(block));
+        }
+    }
+
+    public void blockRemoved(Block block) {
+        Integer slot = blockSlots.remove(block);
+        if (slot != null) blocks = blocks.set(slot, null);
+    }
+
+    public void connectionChanged(Connection conn) {
+        Integer slot = connectionSlots.get(conn);
+        if (slot == null) {
+            connectionSlots.put(conn, connections.size());
+            connections = connections.append(new ConnectionState(conn));
+        } else {
+            connections = connections.set(slot, new ConnectionState(conn));
+        }
+    }
+
+    public void connectionRemoved(Connection conn) {
+        Integer slot = connectionSlots.remove(conn);
+        if (slot != null) connections = connections.set(slot, null);
+    }
+
+    // Завершує крок: зібрані зміни стають поточним станом.
+    public void commit() {
+        if (blocks == current.blocks && connections == current.connections) return;
+        undo.push(current);
+        if (undo.size() > depth) undo.removeLast();
+        redo.clear();
+        current = new State(blocks, connections);
+        if (blocks.size() > 2 * blockSlots.size() + 64 || connections.size() > 2 * connectionSlots.size() + 64) {
+            compact();
+        }
+    }
+
+    // Попередній стан, який панель має відновити; null, якщо скасовувати нічого.
+    public State undo() {
+        if (undo.isEmpty()) return null;
+        redo.push(current);
+        load(undo.pop());
+        return current;
+    }
+
+    public State redo() {
+        if (redo.isEmpty()) return null;
+        undo.push(current);
+        load(redo.pop());
+        return current;
+    }
+
+    private void load(State state) {
+        current = state;
+        blocks = state.blocks;
+        connections = state.connections;
+        blockSlots.clear();
+        for (int i = 0; i < blocks.size(); i++) {
+            BlockState s = blocks.get(i);
+            if (s != null) blockSlots.put(s.block, i);
+        }
+        connectionSlots.clear();
+        for (int i = 0; i < connections.size(); i++) {
+            ConnectionState s = connections.get(i);
+            if (s != null) connectionSlots.put(s.connection, i);
+        }
+    }
+
+    // Прибирає порожні місця з поточного стану; старі стани лишаються як були.
+    private void compact() {
+        List<BlockState> blockStates = new ArrayList<>(blockSlots.size());
+        for (int i = 0; i < blocks.size(); i++) {
+            if (blocks.get(i) != null) blockStates.add(blocks.get(i));
+        }
+        List<ConnectionState> connectionStates = new ArrayList<>(connectionSlots.size());
+        for (int i = 0; i < connections.size(); i++) {
+            if (connections.get(i) != null) connectionStates.add(connections.get(i));
+        }
+        load(new State(PersistentVector.of(blockStates), PersistentVector.of(connectionStates)));
+    }
+}
@@ -0,0 +1,90 @@
+package flowchart;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveSamplerTest {
+    // Виконує вибірку по одному випробуванню за раз; outcome[test] дає
+    // результат за номером випробування цього тесту.
+    private static int[] sample(AdaptiveSampler sampler, int testCount, IntFunction<IntFunction<TrialResult>> outcome) {
+        int[] trials = new int[testCount];
+        int test;
+        while ((test = sampler.next()) >= 0) {
+            sampler.record(outcome.apply(test).apply(trials[test]++));
+        }
+        return trials;
+    }
+
+    private static TrialResult completed(int test, int trial, boolean passed) {
+        return TrialResult.completed(test, trial, passed, "", 0);
+    }
+
+    // Тест, що завжди проходить чи завжди падає, зупиняється, щойно
+    // z²/(2(n+z²)) не перевищує точності: при ±5% це 35 виконань.
+    @Test
+    void unanimousTestsStopEarly() {
+        AdaptiveSampler sampler = new AdaptiveSampler(3, 0.05, 1000);
+        int[] trials = sample(sampler, 3, test -> trial -> completed(test, trial, test == 0 || test == 2 && trial % 2 == 0));
+
+        assertEquals(35, trials[0]);
+        assertEquals(35, trials[1]);
+        assertEquals(AdaptiveSampler.StopReason.UNANIMOUS, sampler.getStopReason(0));
+        assertEquals(AdaptiveSampler.StopReason.UNANIMOUS, sampler.getStopReason(1));
+        assertEquals(1.0, sampler.getInterval(0).getUpper(), 1e-12);
+        assertEquals(0.0, sampler.getInterval(1).getLower(), 1e-12);
+
+        assertTrue(trials[2] > 300, "trials = " + trials[2]);
+        assertEquals(AdaptiveSampler.StopReason.PRECISE, sampler.getStopReason(2));
+        assertTrue(sampler.getInterval(2).getHalfWidth() <= 0.05);
+    }
+
+    @Test
+    void stopsAtTheTrialLimit() {
+        AdaptiveSampler sampler = new AdaptiveSampler(1, 0.01, 50);
+        int[] trials = sample(sampler, 1, test -> trial -> completed(test, trial, trial % 2 == 0));
+
+        assertEquals(50, trials[0]);
+        assertEquals(AdaptiveSampler.StopReason.LIMIT, sampler.getStopReason(0));
+    }
+
+    // Тест, який не вдається навіть запустити, не крутиться до ліміту.
+    @Test
+    void stopsAfterConsecutiveErrors() {
+        AdaptiveSampler sampler = new AdaptiveSampler(2, 0.05, 1000);
+        int[] trials = sample(sampler, 2, test -> trial -> test == 0
+                ? TrialResult.error(test, trial, "python не знайдено", 0)
+                : completed(test, trial, true));
+
+        assertEquals(AdaptiveSampler.MAX_CONSECUTIVE_ERRORS, trials[0]);
+        assertEquals(AdaptiveSampler.StopReason.ERROR, sampler.getStopReason(0));
+        assertEquals(AdaptiveSampler.StopReason.UNANIMOUS, sampler.getStopReason(1));
+    }
+
+    // Поодинокі помилки не зупиняють вибірку і не входять у частку успіхів.
+    @Test
+    void occasionalErrorsAreSkipped() {
+        AdaptiveSampler sampler = new AdaptiveSampler(1, 0.05, 1000);
+        int[] trials = sample(sampler, 1, test -> trial -> trial % 3 == 0
+                ? TrialResult.error(test, trial, "збій", 0)
+                : completed(test, trial, true));
+
+        assertEquals(AdaptiveSampler.StopReason.UNANIMOUS, sampler.getStopReason(0));
+        // Кожне третє виконання — помилка, тож успішних знову рівно 35.
+        assertEquals(35, trials[0] - (trials[0] + 2) / 3);
+    }
+
+    // Запущені, але ще не завершені виконання враховуються: тест не отримує
+    // більше виконань, ніж потрібно для точності.
+    @Test
+    void countsPendingTrials() {
+        AdaptiveSampler sampler = new AdaptiveSampler(1, 0.05, 1000);
+        int scheduled = 0;
+        while (sampler.next() >= 0) scheduled++;
+        assertTrue(scheduled < 1000, "scheduled = " + scheduled);
+        for (int trial = 0; trial < scheduled; trial++) sampler.record(completed(0, trial, true));
+        assertEquals(AdaptiveSampler.StopReason.UNANIMOUS, sampler.getStopReason(0));
+    }
+}
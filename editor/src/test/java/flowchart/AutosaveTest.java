@@ -0,0 +1,119 @@
+package flowchart;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AutosaveTest {
+    @TempDir
+    Path dir;
+
+    // Поточний стан «редактора», з якого Autosave знімає знімки.
+    private final List<String> variables = new ArrayList<>(List.of("x"));
+    private final List<FlowchartData> threads = new ArrayList<>();
+
+    private Autosave.Snapshot capture() {
+        List<Callable<FlowchartData>> copies = new ArrayList<>();
+        for (FlowchartData thread : threads) {
+            copies.add(new FlowchartSnapshot(thread.getBlocks(), thread.getConnections()));
+        }
+        return new Autosave.Snapshot(new ArrayList<>(variables), copies);
+    }
+
+    private Autosave open() {
+        return new Autosave(dir.toFile(), null, this::capture);
+    }
+
+    private static FlowchartData thread(Block... blocks) {
+        FlowchartData data = new FlowchartData();
+        data.setBlocks(new ArrayList<>(List.of(blocks)));
+        data.setConnections(new ArrayList<>());
+        return data;
+    }
+
+    // Знімок з одним потоком і журнал з двома змінами після нього.
+    private Autosave snapshotAndJournal() throws InterruptedException, ExecutionException {
+        Block start = new Block(BlockType.START, 0, 0);
+        threads.add(thread(start));
+        Autosave autosave = open();
+        autosave.snapshot();
+        autosave.record(ProjectEdit.addBlock(BlockType.OUTPUT, 10, 100, "x").inThread(0));
+        autosave.record(ProjectEdit.addVariable("y"));
+        autosave.awaitWrites();
+        return autosave;
+    }
+
+    @Test
+    void recoverReplaysTheJournalOverTheSnapshot() throws Exception {
+        snapshotAndJournal();
+
+        ProjectData recovered = open().recover();
+        assertEquals(List.of("x", "y"), recovered.getSharedVariables());
+        List<Block> blocks = recovered.getFlowchartData().get(0).getBlocks();
+        assertEquals(2, blocks.size());
+        assertEquals(BlockType.START, blocks.get(0).getType());
+        assertEquals(BlockType.OUTPUT, blocks.get(1).getType());
+        assertEquals(10, blocks.get(1).getX());
+        assertEquals("x", blocks.get(1).getCode());
+    }
+
+    @Test
+    void recoverWithoutAutosaveReturnsNull() throws IOException {
+        assertNull(open().recover());
+    }
+
+    // Журнал від попереднього знімка вже врахований у новому знімку.
+    @Test
+    void journalOfAnotherGenerationIsIgnored() throws Exception {
+        Autosave autosave = snapshotAndJournal();
+        Path journal = dir.resolve("autosave.journal");
+        Path stale = dir.resolve("stale.journal");
+        Files.copy(journal, stale);
+
+        // Новий знімок уже містить обидві зміни; старий журнал підкладено,
+        // ніби збій стався між записом знімка й нового журналу.
+        threads.get(0).getBlocks().add(new Block(BlockType.OUTPUT, 10, 100));
+        variables.add("y");
+        autosave.snapshot();
+        autosave.awaitWrites();
+        Files.move(stale, journal, StandardCopyOption.REPLACE_EXISTING);
+
+        ProjectData recovered = open().recover();
+        assertEquals(List.of("x", "y"), recovered.getSharedVariables());
+        assertEquals(2, recovered.getFlowchartData().get(0).getBlocks().size());
+    }
+
+    // Запис, обірваний збоєм, відкидається; попередні відтворюються.
+    @Test
+    void tornTrailingRecordIsDropped() throws Exception {
+        snapshotAndJournal();
+        File journal = dir.resolve("autosave.journal").toFile();
+        try (OutputStream out = new FileOutputStream(journal, true)) {
+            out.write(new byte[]{20, 1, 0, 0});
+        }
+
+        ProjectData recovered = open().recover();
+        assertEquals(List.of("x", "y"), recovered.getSharedVariables());
+        assertEquals(2, recovered.getFlowchartData().get(0).getBlocks().size());
+    }
+
+    // Штатне закриття прибирає автозбереження.
+    @Test
+    void closeRemovesTheAutosave() throws Exception {
+        snapshotAndJournal().close();
+        assertNull(open().recover());
+    }
+}
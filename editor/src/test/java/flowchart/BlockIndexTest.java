@@ -0,0 +1,89 @@
+package flowchart;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BlockIndexTest {
+    private static final BlockType[] TYPES = BlockType.values();
+
+    // Індекс має знаходити те саме, що й перебір списку блоків панелі.
+    private static void assertMatchesLinearScan(List<Block> blocks, BlockIndex index, Random random) {
+        for (int i = 0; i < 2000; i++) {
+            int x = random.nextInt(1400) - 200;
+            int y = random.nextInt(1400) - 200;
+
+            Block expected = null;
+            for (Block block : blocks) {
+                if (block.contains(x, y)) {
+                    expected = block;
+                    break;
+                }
+            }
+            assertSame(expected, index.blockAt(x, y), "(" + x + ", " + y + ")");
+
+            List<Block> candidates = index.at(x, y);
+            int previous = -1;
+            for (Block block : candidates) {
+                int position = blocks.indexOf(block);
+                assertTrue(position > previous, "candidates out of list order");
+                previous = position;
+            }
+            for (Block block : blocks) {
+                if (block.contains(x, y) || block.isNearOutput(x, y)) {
+                    assertTrue(candidates.contains(block), "(" + x + ", " + y + ") missed " + block.getX() + "," + block.getY());
+                }
+            }
+        }
+    }
+
+    private static Block randomBlock(Random random) {
+        return new Block(TYPES[random.nextInt(TYPES.length)], random.nextInt(1200) - 100, random.nextInt(1200) - 100);
+    }
+
+    @Test
+    void findsTheSameBlocksAsAScanAfterEdits() {
+        Random random = new Random(42);
+        List<Block> blocks = new ArrayList<>();
+        for (int i = 0; i < 200; i++) blocks.add(randomBlock(random));
+        BlockIndex index = new BlockIndex();
+        index.rebuild(blocks);
+        assertMatchesLinearScan(blocks, index, random);
+
+        for (int i = 0; i < 100; i++) {
+            Block block = blocks.get(random.nextInt(blocks.size()));
+            index.move(block, random.nextInt(601) - 300, random.nextInt(601) - 300);
+        }
+        for (int i = 0; i < 50; i++) {
+            Block removed = blocks.remove(random.nextInt(blocks.size()));
+            index.remove(removed);
+        }
+        for (int i = 0; i < 50; i++) {
+            Block added = randomBlock(random);
+            blocks.add(added);
+            index.add(added);
+        }
+        assertMatchesLinearScan(blocks, index, random);
+    }
+
+    // Блоки, що перекриваються, повертаються в порядку списку, навіть коли
+    // лежать у різних клітинках.
+    @Test
+    void overlappingBlocksAcrossCellsKeepListOrder() {
+        Block late = new Block(BlockType.ASSIGNMENT, 250, 250);
+        Block early = new Block(BlockType.ASSIGNMENT, 200, 200);
+        List<Block> blocks = List.of(late, early);
+        BlockIndex index = new BlockIndex();
+        index.rebuild(blocks);
+
+        assertEquals(List.of(late, early), index.at(260, 260));
+        assertSame(late, index.blockAt(260, 260));
+        index.move(late, 0, 1000);
+        assertSame(early, index.blockAt(260, 260));
+        assertEquals(List.of(), index.at(-500, -500));
+    }
+}
@@ -0,0 +1,110 @@
+package flowchart;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BlockStoreTest {
+    // Блок, створений конструктором, не має сховища, доки його не перенесуть.
+    @Test
+    void detachedBlockKeepsItsDataUntilAdopted() {
+        Block block = new Block(BlockType.ASSIGNMENT, 10, 20);
+        block.setCode("x = 1");
+        block.move(5, -5);
+        assertNull(block.getStore());
+
+        BlockStore store = new BlockStore();
+        store.adopt(block);
+        assertSame(store, block.getStore());
+        assertEquals(1, store.size());
+        assertEquals(BlockType.ASSIGNMENT, block.getType());
+        assertEquals(15, block.getX());
+        assertEquals(15, block.getY());
+        assertEquals("x = 1", block.getCode());
+    }
+
+    @Test
+    void adoptMovesTheBlockAndFreesTheOldSlot() {
+        BlockStore from = new BlockStore();
+        Block first = from.create(BlockType.INPUT, 1, 2);
+        first.setCode("x");
+        Block second = from.create(BlockType.OUTPUT, 3, 4);
+
+        BlockStore to = new BlockStore(1);
+        to.adopt(first);
+        to.adopt(first);
+        assertEquals(1, from.size());
+        assertEquals(1, to.size());
+        assertEquals("x", first.getCode());
+        assertEquals(1, first.getX());
+
+        // Звільнений слот використовується знову раніше за новий.
+        int freed = second.getSlot() == 0 ? 1 : 0;
+        Block third = from.create(BlockType.END, 5, 6);
+        assertEquals(freed, third.getSlot());
+        assertNull(from.getCode(third.getSlot()));
+    }
+
+    // Видалений блок лишається придатним (його повертає скасування) і
+    // повертається у сховище з усіма змінами.
+    @Test
+    void releasedBlockStaysUsable() {
+        BlockStore store = new BlockStore();
+        Block block = store.create(BlockType.CONDITION, 0, 0);
+        block.setCode("x > 0");
+        store.release(block);
+        assertNull(block.getStore());
+        assertEquals(0, store.size());
+
+        block.move(10, 20);
+        block.setCode("x > 1");
+        assertEquals(BlockType.CONDITION, block.getType());
+
+        store.adopt(block);
+        assertEquals(1, store.size());
+        assertEquals(10, block.getX());
+        assertEquals(20, block.getY());
+        assertEquals("x > 1", block.getCode());
+
+        // Блок з чужого сховища release() не чіпає.
+        new BlockStore().release(block);
+        assertSame(store, block.getStore());
+    }
+
+    @Test
+    void equalCodesAreStoredOnce() {
+        BlockStore store = new BlockStore();
+        Block a = store.create(BlockType.ASSIGNMENT, 0, 0);
+        Block b = store.create(BlockType.ASSIGNMENT, 0, 100);
+        a.setCode(new String("x = x + 1"));
+        b.setCode(new String("x = x + 1"));
+        assertSame(a.getCode(), b.getCode());
+
+        Block c = new Block(BlockType.ASSIGNMENT, 0, 200);
+        c.setCode(new String("x = x + 1"));
+        store.adopt(c);
+        assertSame(a.getCode(), c.getCode());
+    }
+
+    @Test
+    void serializedBlockReadsBackDetached() throws IOException, ClassNotFoundException {
+        BlockStore store = new BlockStore();
+        Block block = store.create(BlockType.OUTPUT, 7, 8);
+        block.setCode("x");
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(block);
+        }
+        Block copy;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            copy = (Block) in.readObject();
+        }
+        assertNull(copy.getStore());
+        assertEquals(BlockType.OUTPUT, copy.getType());
+        assertEquals(7, copy.getX());
+        assertEquals(8, copy.getY());
+        assertEquals("x", copy.getCode());
+    }
+}
@@ -0,0 +1,49 @@
+package flowchart;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConfidenceIntervalTest {
+    private static final double EPSILON = 1e-4;
+
+    @Test
+    void matchesWilsonBoundsForAHalfRate() {
+        ConfidenceInterval interval = ConfidenceInterval.wilson(5, 10, ConfidenceInterval.Z_95);
+        assertEquals(0.2366, interval.getLower(), EPSILON);
+        assertEquals(0.7634, interval.getUpper(), EPSILON);
+    }
+
+    // При 0% і 100% інтервал не вироджується в точку: ширина z²/(n+z²).
+    @Test
+    void staysOpenAtZeroAndFullRate() {
+        double z2 = ConfidenceInterval.Z_95 * ConfidenceInterval.Z_95;
+
+        ConfidenceInterval none = ConfidenceInterval.wilson(0, 10, ConfidenceInterval.Z_95);
+        assertEquals(0.0, none.getLower(), EPSILON);
+        assertEquals(z2 / (10 + z2), none.getUpper(), EPSILON);
+
+        ConfidenceInterval all = ConfidenceInterval.wilson(10, 10, ConfidenceInterval.Z_95);
+        assertEquals(10 / (10 + z2), all.getLower(), EPSILON);
+        assertEquals(1.0, all.getUpper(), EPSILON);
+        assertEquals(none.getHalfWidth(), all.getHalfWidth(), EPSILON);
+    }
+
+    @Test
+    void narrowsWithMoreTrials() {
+        double previous = 1.0;
+        for (int n = 10; n <= 10_000; n *= 10) {
+            ConfidenceInterval interval = ConfidenceInterval.wilson(n / 4, n, ConfidenceInterval.Z_95);
+            assertTrue(interval.getLower() < 0.25 && 0.25 < interval.getUpper(), interval.toString());
+            assertTrue(interval.getHalfWidth() < previous);
+            previous = interval.getHalfWidth();
+        }
+    }
+
+    @Test
+    void coversEverythingWithoutTrials() {
+        ConfidenceInterval interval = ConfidenceInterval.wilson(0, 0, ConfidenceInterval.Z_95);
+        assertEquals(0.0, interval.getLower());
+        assertEquals(1.0, interval.getUpper());
+    }
+}
@@ -0,0 +1,89 @@
+package flowchart;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConnectionGraphTest {
+    private final Block condition = new Block(BlockType.CONDITION, 0, 0);
+    private final Block yes = new Block(BlockType.ASSIGNMENT, 200, 100);
+    private final Block no = new Block(BlockType.ASSIGNMENT, -200, 100);
+    private final Block end = new Block(BlockType.END, 0, 300);
+
+    private static Connection branch(Block from, Block to, boolean value) {
+        Connection conn = new Connection(from, to);
+        conn.setCondition(value);
+        return conn;
+    }
+
+    // first() дає те саме з'єднання, що й перебір списку від початку.
+    @Test
+    void firstMatchesTheListOrder() {
+        Connection toYes = branch(condition, yes, true);
+        Connection toNo = branch(condition, no, false);
+        Connection secondYes = branch(condition, end, true);
+        Connection yesEnd = new Connection(yes, end);
+        ConnectionGraph graph = new ConnectionGraph();
+        graph.rebuild(List.of(toYes, toNo, secondYes, yesEnd));
+
+        assertSame(toYes, graph.first(condition, true));
+        assertSame(toNo, graph.first(condition, false));
+        assertNull(graph.first(condition, null));
+        assertSame(yesEnd, graph.first(yes, null));
+        assertNull(graph.first(end, null));
+        assertEquals(List.of(toYes, secondYes), graph.outgoing(condition, true));
+        assertEquals(List.of(secondYes, yesEnd), graph.incoming(end));
+    }
+
+    @Test
+    void retargetsAndRebranchesIndexedConnections() {
+        Connection conn = branch(condition, yes, true);
+        ConnectionGraph graph = new ConnectionGraph();
+        graph.add(conn);
+
+        graph.setTo(conn, no);
+        assertSame(no, conn.getTo());
+        assertEquals(List.of(), graph.incoming(yes));
+        assertEquals(List.of(conn), graph.incoming(no));
+
+        graph.setCondition(conn, false);
+        assertNull(graph.first(condition, true));
+        assertSame(conn, graph.first(condition, false));
+
+        graph.remove(conn);
+        assertNull(graph.first(condition, false));
+        assertEquals(List.of(), graph.incoming(no));
+    }
+
+    // Незавершене з'єднання (ще тягнеться мишею) не має кінця.
+    @Test
+    void acceptsAConnectionWithoutAnEnd() {
+        Connection dragged = new Connection(yes, null);
+        ConnectionGraph graph = new ConnectionGraph();
+        graph.add(dragged);
+        assertSame(dragged, graph.first(yes, null));
+        graph.setTo(dragged, end);
+        assertEquals(List.of(dragged), graph.incoming(end));
+    }
+
+    @Test
+    void removeBlockReturnsAndUnlinksEveryIncidentConnection() {
+        Connection toYes = branch(condition, yes, true);
+        Connection toNo = branch(condition, no, false);
+        Connection yesEnd = new Connection(yes, end);
+        Connection noEnd = new Connection(no, end);
+        Connection loop = new Connection(yes, yes);
+        ConnectionGraph graph = new ConnectionGraph();
+        graph.rebuild(List.of(toYes, toNo, yesEnd, noEnd, loop));
+
+        Set<Connection> removed = graph.removeBlock(yes);
+        assertEquals(Set.of(toYes, yesEnd, loop), removed);
+        assertNull(graph.first(condition, true));
+        assertSame(toNo, graph.first(condition, false));
+        assertEquals(List.of(noEnd), graph.incoming(end));
+        assertTrue(graph.removeBlock(yes).isEmpty());
+    }
+}
@@ -0,0 +1,239 @@
+package flowchart;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class FlowchartInterpreterTest {
+    // Вирази, на яких інтерпретатор має давати той самий вивід, що й CPython.
+    private static final List<String> EXPRESSIONS = List.of(
+            "3 ** 50",
+            "9223372036854775807 + 1",
+            "-9223372036854775807 - 2",
+            "-(-9223372036854775807 - 1)",
+            "(-2) ** 63",
+            "(-2) ** 64 // 3",
+            "-(2 ** 64) % 7",
+            "2 ** 64 * 2 ** 64 - 1",
+            "(2 ** 100 + 1) // (2 ** 40)",
+            "2 ** 100 % -(2 ** 70 + 3)",
+            "7 // -2",
+            "-7 // 2",
+            "-7 % 3",
+            "7 % -3",
+            "7.5 // 2",
+            "-7.5 // 2",
+            "-7.5 % 2",
+            "7 % -3.5",
+            "0.0 % -2",
+            "1 // 0",
+            "1 % 0",
+            "1.0 // 0",
+            "2 ** -1",
+            "0 ** -1",
+            "0.0 ** -1",
+            "10.0 ** 400",
+            "2 ** 0.5",
+            "1 < 2 < 3",
+            "1 < 3 < 2",
+            "3 > 2 >= 2",
+            "1 <= 1.0 != 2",
+            "2 ** 53 + 1 != 2.0 ** 53",
+            "2 ** 53 + 1 > 2.0 ** 53",
+            "10 ** 400 > 10.0 ** 300",
+            "0.1 + 0.2",
+            "1 / 3",
+            "-0.0",
+            "10.0 ** 16",
+            "10.0 ** 15 + 0.5",
+            "10.0 ** -5",
+            "0.0001",
+            "12345678.5",
+            "2.0 ** 70",
+            "10.0 ** 300 * 10.0 ** 10",
+            "10 ** 20 / 3",
+            "True + True",
+            "not 0",
+            "5 and 0",
+            "0 or 7",
+            "y + 1",
+            "10 ** 5000",
+            "1e5",
+            "2.5E-3",
+            "1_000 * 3",
+            "0x1F + 0o17 + 0b101",
+            "0XfF_fF",
+            "1_0.5_0e1_0",
+            "1.",
+            ".5e+2",
+            "0x1e-5",
+            "1e400",
+            "00 + 0_0",
+            "07.5 + 09e1",
+            "0x_ffff_ffff_ffff_ffff_ff",
+            "99_999_999_999_999_999_999");
+
+    private static boolean pythonAvailable() {
+        try {
+            Process process = new ProcessBuilder("python", "--version").redirectErrorStream(true).start();
+            return process.waitFor(10, TimeUnit.SECONDS) && process.exitValue() == 0;
+        } catch (IOException | InterruptedException e) {
+            return false;
+        }
+    }
+
+    private static FlowchartData assignAndPrint(String expression) {
+        Block start = new Block(BlockType.START, 0, 0);
+        Block assign = new Block(BlockType.ASSIGNMENT, 0, 100);
+        assign.setCode("x = " + expression);
+        Block output = new Block(BlockType.OUTPUT, 0, 200);
+        output.setCode("x");
+        Block end = new Block(BlockType.END, 0, 300);
+        FlowchartData data = new FlowchartData();
+        data.setBlocks(new ArrayList<>(List.of(start, assign, output, end)));
+        data.setConnections(new ArrayList<>(List.of(
+                new Connection(start, assign), new Connection(assign, output), new Connection(output, end))));
+        return data;
+    }
+
+    // Виконує схему одного потоку блок за блоком; помилка подається назвою типу винятку.
+    private static String interpret(FlowchartData data) {
+        FlowchartProgram program = FlowchartProgram.compile(List.of(data), List.of("x"));
+        Object[] slots = new Object[program.getSlotCount()];
+        slots[0] = 0L;
+        StringBuilder output = new StringBuilder();
+        FlowchartProgram.Environment env = new FlowchartProgram.Environment() {
+            @Override
+            public Object get(int slot) {
+                return slots[slot];
+            }
+
+            @Override
+            public void set(int slot, Object value) {
+                slots[slot] = value;
+            }
+
+            @Override
+            public String readLine() {
+                return null;
+            }
+
+            @Override
+            public void write(String text) {
+                output.append(text);
+            }
+        };
+        try {
+            for (int block = program.getStartBlock(0); block != FlowchartProgram.END; ) {
+                block = program.execute(0, block, env);
+            }
+        } catch (FlowchartProgram.ExecutionError e) {
+            output.append(e.getMessage(), 0, e.getMessage().indexOf(':')).append('\n');
+        }
+        return output.toString();
+    }
+
+    // Згенерований код кожної схеми — тіло окремої функції з global x, як у
+    // програмі редактора; виняток друкується назвою типу.
+    private static List<String> runPython(List<FlowchartData> charts) throws IOException, InterruptedException {
+        StringWriter script = new StringWriter();
+        for (int i = 0; i < charts.size(); i++) {
+            StringWriter body = new StringWriter();
+            new FlowchartCodeWriter(charts.get(i), List.of("x")).write(new PythonEmitter(body));
+            script.write("def case_" + i + "():\n    global x\n");
+            for (String line : body.toString().split("\n")) script.write("    " + line + "\n");
+            script.write("x = 0\ntry:\n    case_" + i + "()\nexcept Exception as e:\n    print(type(e).__name__)\n");
+            script.write("print('---')\n");
+        }
+
+        File file = File.createTempFile("differential", ".py");
+        try {
+            try (Writer out = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) {
+                out.write(script.toString());
+            }
+            Process process = new ProcessBuilder("python", file.getAbsolutePath()).redirectErrorStream(true).start();
+            String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+            assertTrue(process.waitFor(30, TimeUnit.SECONDS));
+            List<String> results = new ArrayList<>();
+            StringBuilder current = new StringBuilder();
+            for (String line : output.split("\\r?\\n")) {
+                if (line.equals("---")) {
+                    results.add(current.toString());
+                    current.setLength(0);
+                } else {
+                    current.append(line).append('\n');
+                }
+            }
+            return results;
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    void matchesCPython() throws IOException, InterruptedException {
+        assumeTrue(pythonAvailable(), "python is not installed");
+        List<FlowchartData> charts = new ArrayList<>();
+        for (String expression : EXPRESSIONS) charts.add(assignAndPrint(expression));
+
+        List<String> expected = runPython(charts);
+        assertEquals(EXPRESSIONS.size(), expected.size(), String.join("|", expected));
+        for (int i = 0; i < EXPRESSIONS.size(); i++) {
+            assertEquals(expected.get(i), interpret(charts.get(i)), EXPRESSIONS.get(i));
+        }
+    }
+
+    // Літерали, які CPython відкидає як SyntaxError.
+    @Test
+    void rejectsMalformedNumericLiterals() {
+        for (String literal : List.of("1__0", "1_", "0x", "0x_", "07", "0b102", "1e", "1e+", "1.5.2", "1_.5", "0o8", "1j")) {
+            assertThrows(FlowchartProgram.ExecutionError.class, () -> Expression.parse(literal, name -> 0), literal);
+        }
+    }
+
+    // Величезний степінь не зациклює потік між перевірками тайм-ауту.
+    @Test
+    void hugePowerFailsFast() throws InterruptedException, TimeoutException {
+        FlowchartProgram program = FlowchartProgram.compile(List.of(assignAndPrint("2 ** 20000000000")), List.of("x"));
+        OutputMatcher matcher = new OutputMatcher("x = ");
+        long started = System.nanoTime();
+        new FlowchartInterpreter(program).execute("", matcher, 500);
+        assertTrue(System.nanoTime() - started < TimeUnit.SECONDS.toNanos(2));
+        assertFalse(matcher.isMatched());
+        assertTrue(matcher.getCapturedOutput().startsWith("Exception in thread thread_1:\nOverflowError"),
+                matcher.getCapturedOutput());
+    }
+
+    @Test
+    void reportsErrorsPerThreadAndKeepsOtherThreadsRunning() throws InterruptedException, TimeoutException {
+        FlowchartProgram program = FlowchartProgram.compile(
+                List.of(assignAndPrint("y + 1"), assignAndPrint("3 ** 50")), List.of("x"));
+        OutputMatcher matcher = new OutputMatcher("x = 717897987691852588770249");
+        new FlowchartInterpreter(program).execute("", matcher, 5000);
+        assertTrue(matcher.isMatched(), matcher.getCapturedOutput());
+    }
+
+    @Test
+    void timesOutAnEndlessLoop() {
+        Block start = new Block(BlockType.START, 0, 0);
+        Block loop = new Block(BlockType.CONDITION, 0, 100);
+        loop.setCode("x == 0");
+        FlowchartData data = new FlowchartData();
+        data.setBlocks(new ArrayList<>(List.of(start, loop)));
+        Connection back = new Connection(loop, loop);
+        back.setCondition(true);
+        data.setConnections(new ArrayList<>(List.of(new Connection(start, loop), back)));
+
+        FlowchartProgram program = FlowchartProgram.compile(List.of(data), List.of("x"));
+        assertThrows(TimeoutException.class,
+                () -> new FlowchartInterpreter(program).execute("", new OutputMatcher("never"), 100));
+    }
+}
@@ -0,0 +1,63 @@
+package flowchart;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.event.InputEvent;
+import java.awt.event.MouseEvent;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlowchartPanelTest {
+    // Панель, у якій діалог вибору гілки одразу закривають.
+    private static class ClosingPanel extends FlowchartPanel {
+        ClosingPanel() {
+            super(new ArrayList<>(List.of("x")));
+        }
+
+        @Override
+        Boolean chooseBranch() {
+            return null;
+        }
+    }
+
+    private static void mouse(FlowchartPanel panel, int id, int x, int y) {
+        int modifiers = id == MouseEvent.MOUSE_RELEASED ? 0 : InputEvent.BUTTON1_DOWN_MASK;
+        panel.dispatchEvent(new MouseEvent(panel, id, 0, modifiers, x, y, 1, false, MouseEvent.BUTTON1));
+    }
+
+    private static void drag(FlowchartPanel panel, int fromX, int fromY, int toX, int toY) {
+        mouse(panel, MouseEvent.MOUSE_PRESSED, fromX, fromY);
+        mouse(panel, MouseEvent.MOUSE_DRAGGED, toX, toY);
+        mouse(panel, MouseEvent.MOUSE_RELEASED, toX, toY);
+    }
+
+    // Закритий діалог гілки скасовує з'єднання, але не блокує скасування кроків.
+    @Test
+    void undoWorksAfterTheBranchDialogIsClosed() {
+        FlowchartPanel panel = new ClosingPanel();
+        Block condition = new Block(BlockType.CONDITION, 0, 0);
+        condition.setCode("x > 0");
+        Block target = new Block(BlockType.ASSIGNMENT, 300, 0);
+        target.setCode("x = 1");
+        FlowchartData data = new FlowchartData();
+        data.setBlocks(new ArrayList<>(List.of(condition, target)));
+        data.setConnections(new ArrayList<>());
+        panel.setFlowchartData(data);
+
+        int centerX = target.getX() + Block.WIDTH / 2;
+        int centerY = target.getY() + Block.HEIGHT / 2;
+        drag(panel, centerX, centerY, centerX + 40, centerY);
+        assertEquals(340, target.getX());
+
+        drag(panel, condition.getOutputX(true), condition.getOutputY(true),
+                target.getX() + Block.WIDTH / 2, target.getY() + Block.HEIGHT / 2);
+        assertTrue(panel.getFlowchartData().getConnections().isEmpty());
+
+        panel.undo();
+        assertEquals(300, target.getX());
+        panel.redo();
+        assertEquals(340, target.getX());
+    }
+}
@@ -0,0 +1,62 @@
+package flowchart;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyStatsTest {
+    @Test
+    void emptyStatsReportZero() {
+        LatencyStats stats = new LatencyStats();
+        assertEquals(0, stats.getCount());
+        assertEquals(0, stats.percentileNanos(0.99));
+    }
+
+    // Перцентиль — верхня межа кошика: не менший за вимір і не більший на чверть.
+    @Test
+    void bucketBoundStaysWithinAQuarter() {
+        Random random = new Random(24);
+        for (int i = 0; i < 10_000; i++) {
+            long nanos = random.nextLong() >>> (1 + random.nextInt(63));
+            LatencyStats stats = new LatencyStats();
+            stats.add(nanos);
+            stats.add(Long.MAX_VALUE);
+            long bound = stats.percentileNanos(0.5);
+            assertTrue(bound >= nanos, nanos + " -> " + bound);
+            assertTrue(bound - nanos <= nanos / 4, nanos + " -> " + bound);
+        }
+    }
+
+    @Test
+    void smallValuesAreExact() {
+        LatencyStats stats = new LatencyStats();
+        for (long nanos = 0; nanos < 4; nanos++) stats.add(nanos);
+        stats.add(-5);
+        assertEquals(5, stats.getCount());
+        assertEquals(0, stats.percentileNanos(0.4));
+        assertEquals(1, stats.percentileNanos(0.6));
+        assertEquals(3, stats.percentileNanos(1.0));
+    }
+
+    @Test
+    void percentilesFollowTheDistribution() {
+        LatencyStats stats = new LatencyStats();
+        for (int ms = 1; ms <= 1000; ms++) stats.add(ms * 1_000_000L);
+
+        assertEquals(1000, stats.getCount());
+        assertEquals(1_000_000_000L, stats.getMaxNanos());
+        long p50 = stats.percentileNanos(0.5);
+        assertTrue(p50 >= 500_000_000L && p50 <= 625_000_000L, "p50 = " + p50);
+        long p99 = stats.percentileNanos(0.99);
+        assertTrue(p99 >= 990_000_000L && p99 <= 1_000_000_000L, "p99 = " + p99);
+        // Межа кошика не перевищує найбільшого виміру.
+        assertEquals(1_000_000_000L, stats.percentileNanos(1.0));
+
+        stats.clear();
+        assertEquals(0, stats.getCount());
+        assertEquals(0, stats.getMaxNanos());
+        assertEquals(0, stats.percentileNanos(0.5));
+    }
+}
@@ -0,0 +1,132 @@
+package flowchart;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OutputMatcherTest {
+    private static boolean feed(OutputMatcher.Channel channel, String text) {
+        return channel.feed(text.toCharArray(), 0, text.length());
+    }
+
+    // Подає текст по одному символу: стан пошуку не залежить від меж частин.
+    private static boolean feedByChar(OutputMatcher.Channel channel, String text) {
+        boolean matched = false;
+        for (int i = 0; i < text.length(); i++) {
+            matched = channel.feed(text.toCharArray(), i, 1);
+        }
+        return matched;
+    }
+
+    @Test
+    void findsExpectedTextAcrossChunks() {
+        OutputMatcher matcher = new OutputMatcher("x = 3");
+        OutputMatcher.Channel stdout = matcher.channel();
+        assertFalse(feed(stdout, "Введіть x: x ="));
+        assertFalse(matcher.isMatched());
+        assertTrue(feed(stdout, " 3\n"));
+        assertTrue(matcher.isMatched());
+    }
+
+    // Префікс-функція КМП: після невдалого збігу "aab" пошук не пропускає "aaab".
+    @Test
+    void restartsFromTheLongestBorder() {
+        OutputMatcher matcher = new OutputMatcher("aaab");
+        assertTrue(feedByChar(matcher.channel(), "aaaaab"));
+
+        matcher = new OutputMatcher("abab");
+        assertFalse(feedByChar(matcher.channel(), "abaabba"));
+        assertTrue(feedByChar(new OutputMatcher("abab").channel(), "ababab"));
+    }
+
+    // Рядки виводу обрізаються від пробілів, а \r\n, \r і \n однаково
+    // завершують рядок; очікуваний текст, як і раніше, лише обрізається по краях.
+    @Test
+    void normalizesLineEndingsAndSpaces() {
+        OutputMatcher matcher = new OutputMatcher("  a = 1\nb = 2  \n");
+        OutputMatcher.Channel channel = matcher.channel();
+        assertTrue(feedByChar(channel, "x\r\n   a = 1   \rb = 2"));
+        assertEquals("x\na = 1\nb = 2", matcher.getCapturedOutput());
+
+        matcher = new OutputMatcher("a = 1\nb = 2");
+        assertTrue(feed(matcher.channel(), "a = 1 \t\r\n\tb = 2"));
+
+        // Розрив \r|\n між частинами — один кінець рядка, а не два.
+        matcher = new OutputMatcher("a\nb");
+        channel = matcher.channel();
+        assertFalse(feed(channel, "a\r"));
+        assertTrue(feed(channel, "\nb"));
+    }
+
+    @Test
+    void keepsInnerSpacesOfALine() {
+        OutputMatcher matcher = new OutputMatcher("a  b");
+        assertFalse(feed(matcher.channel(), "a b"));
+        assertTrue(feed(matcher.channel(), "a  b"));
+    }
+
+    @Test
+    void channelsAreSearchedSeparately() {
+        OutputMatcher matcher = new OutputMatcher("ab");
+        OutputMatcher.Channel stdout = matcher.channel();
+        OutputMatcher.Channel stderr = matcher.channel();
+        assertFalse(feed(stdout, "a"));
+        assertFalse(feed(stderr, "b"));
+        assertEquals("a\nb", matcher.getCapturedOutput());
+        assertTrue(feed(stdout, "b"));
+    }
+
+    @Test
+    void emptyExpectationMatchesAtOnce() {
+        assertTrue(new OutputMatcher("  \n").isMatched());
+    }
+
+    @Test
+    void capturesOnlyTheStartOfLongOutput() {
+        OutputMatcher matcher = new OutputMatcher("end");
+        OutputMatcher.Channel channel = matcher.channel();
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < 1000; i++) line.append("0123456789\n");
+        for (int i = 0; i < 100; i++) assertFalse(feed(channel, line.toString()));
+        assertTrue(feed(channel, "end"));
+        String captured = matcher.getCapturedOutput();
+        assertTrue(captured.endsWith(" …"));
+        assertTrue(captured.length() <= 4096 + 2, "length = " + captured.length());
+    }
+
+    @Test
+    void normalizeMatchesTheIncrementalRules() {
+        assertEquals("a\nb\n\nc", OutputMatcher.normalize("  a \r\nb\r\rc  \n"));
+    }
+
+    // Довгий пробіл без кінця рядка не накопичується: він довший за шаблон,
+    // тож лише скидає пошук, а показаний вивід і далі обмежений.
+    @Test
+    void longWhitespaceRunsStayBounded() {
+        OutputMatcher matcher = new OutputMatcher("a  b");
+        OutputMatcher.Channel stdout = matcher.channel();
+        char[] spaces = new char[1 << 16];
+        Arrays.fill(spaces, ' ');
+        assertFalse(feed(stdout, "a"));
+        for (int i = 0; i < 64; i++) {
+            assertFalse(stdout.feed(spaces, 0, spaces.length));
+        }
+        assertFalse(feed(stdout, "b"));
+        String captured = matcher.getCapturedOutput();
+        assertTrue(captured.length() < 4200, "captured " + captured.length());
+        assertTrue(captured.endsWith(" …"));
+
+        // Пробіл, не довший за шаблон, і далі входить у збіг.
+        assertTrue(feed(stdout, "\na  b"));
+    }
+
+    @Test
+    void whitespaceRunLongerThanThePatternBreaksAPartialMatch() {
+        OutputMatcher matcher = new OutputMatcher("x =  1");
+        OutputMatcher.Channel stdout = matcher.channel();
+        assertFalse(feedByChar(stdout, "x =       1"));
+        assertTrue(feedByChar(stdout, " x =  1"));
+    }
+}
@@ -0,0 +1,178 @@
+package flowchart;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelInterleavingExplorerTest {
+    // Потік, що iterations разів виконує x = x + 1 (лічильник — локальний counter).
+    private static FlowchartData incrementer(String counter, int iterations, boolean print) {
+        List<Block> blocks = new ArrayList<>();
+        List<Connection> connections = new ArrayList<>();
+        Block start = new Block(BlockType.START, 0, 0);
+        Block init = new Block(BlockType.ASSIGNMENT, 0, 100);
+        init.setCode(counter + " = 0");
+        Block loop = new Block(BlockType.CONDITION, 0, 200);
+        loop.setCode(counter + " < " + iterations);
+        Block body = new Block(BlockType.ASSIGNMENT, 0, 300);
+        body.setCode("x = x + 1");
+        Block step = new Block(BlockType.ASSIGNMENT, 0, 400);
+        step.setCode(counter + " = " + counter + " + 1");
+        Block output = new Block(BlockType.OUTPUT, 200, 200);
+        output.setCode("x");
+        Block end = new Block(BlockType.END, 200, 300);
+        blocks.addAll(List.of(start, init, loop, body, step, end));
+        connections.add(new Connection(start, init));
+        connections.add(new Connection(init, loop));
+        Connection yes = new Connection(loop, body);
+        yes.setCondition(true);
+        connections.add(yes);
+        connections.add(new Connection(body, step));
+        connections.add(new Connection(step, loop));
+        Connection no = new Connection(loop, print ? output : end);
+        no.setCondition(false);
+        connections.add(no);
+        if (print) {
+            blocks.add(output);
+            connections.add(new Connection(output, end));
+        }
+        FlowchartData data = new FlowchartData();
+        data.setBlocks(blocks);
+        data.setConnections(connections);
+        return data;
+    }
+
+    private static FlowchartProgram race(int iterations) {
+        return FlowchartProgram.compile(List.of(incrementer("i", iterations, false), incrementer("j", iterations, true)),
+                List.of("x"));
+    }
+
+    @Test
+    void parallelSearchFindsTheSameOutputs() throws InterruptedException {
+        FlowchartProgram program = race(2);
+        TestCase tc = new TestCase("", "x = 4");
+        ExplorationResult sequential = new InterleavingExplorer(program, InterleavingExplorer.DEFAULT_MAX_STATES).explore(tc);
+        ExplorationResult exact = new ParallelInterleavingExplorer(program, InterleavingExplorer.DEFAULT_MAX_STATES, 4, 0).explore(tc);
+        ExplorationResult bitState = new ParallelInterleavingExplorer(program, InterleavingExplorer.DEFAULT_MAX_STATES, 4, 1 << 20).explore(tc);
+
+        assertTrue(sequential.isComplete());
+        assertTrue(sequential.getOutputs().size() > 1, "гонка має давати кілька виводів");
+        assertTrue(exact.isComplete());
+        assertEquals(sequential.getOutputs(), exact.getOutputs());
+        assertTrue(bitState.isComplete());
+        assertEquals(sequential.getOutputs(), bitState.getOutputs());
+    }
+
+    @Test
+    void exactSearchStopsAtMaxStates() throws InterruptedException {
+        ExplorationResult result = new ParallelInterleavingExplorer(race(30), 500, 2, 0).explore(new TestCase("", ""));
+        assertFalse(result.isComplete());
+        assertTrue(result.getStates() <= 500 + 2, "станів: " + result.getStates());
+    }
+
+    // У bit-state режимі ліміт визначає розмір масиву, а не maxStates.
+    @Test
+    void bitStateLimitFollowsBitmapSize() throws InterruptedException {
+        BitStateHashSet smallest = new BitStateHashSet(1);
+        long capacity = smallest.capacity();
+        assertEquals(smallest.memoryBytes() * Byte.SIZE / 8, capacity);
+
+        ExplorationResult result = new ParallelInterleavingExplorer(race(60), Integer.MAX_VALUE, 2, 1).explore(new TestCase("", ""));
+        assertFalse(result.isComplete());
+        assertTrue(result.getStates() <= capacity + 2, "станів: " + result.getStates());
+
+        ExplorationResult small = new ParallelInterleavingExplorer(race(2), 1, 2, 1 << 20).explore(new TestCase("", ""));
+        assertTrue(small.isComplete(), "maxStates не має обмежувати bit-state пошук");
+    }
+
+    @Test
+    void exactSetGrowsFromSmallAndCountsConcurrentAdds() throws Exception {
+        ConcurrentLongHashSet set = new ConcurrentLongHashSet();
+        long initial = set.memoryBytes();
+        assertTrue(initial < 64 * 1024, "початкова пам'ять: " + initial);
+
+        int threads = 4;
+        int perThread = 50_000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Integer>> added = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                // Половина хешів спільна для всіх потоків, тож додати їх має лише один.
+                int offset = t * perThread / 2;
+                added.add(pool.submit(() -> {
+                    int count = 0;
+                    for (int i = 0; i < perThread; i++) {
+                        if (set.add(mix(offset + i))) count++;
+                    }
+                    return count;
+                }));
+            }
+            int total = 0;
+            for (Future<Integer> f : added) total += f.get();
+            long distinct = (long) (threads - 1) * perThread / 2 + perThread;
+            assertEquals(distinct, total);
+            assertEquals(distinct, set.size());
+        } finally {
+            pool.shutdownNow();
+        }
+        assertTrue(set.contains(mix(0)));
+        assertFalse(set.contains(mix(-1)));
+        assertTrue(set.memoryBytes() > initial);
+    }
+
+    // Читання не чекають переносу таблиці: хеш, уже доданий будь-яким потоком,
+    // знаходиться і посеред росту сегмента, а відсутній — не знаходиться.
+    @Test
+    void exactSetFindsEveryAddedHashWhileGrowing() throws Exception {
+        ConcurrentLongHashSet set = new ConcurrentLongHashSet();
+        int writers = 3;
+        int perWriter = 100_000;
+        AtomicIntegerArray published = new AtomicIntegerArray(writers);
+        ExecutorService pool = Executors.newFixedThreadPool(writers + 1);
+        try {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int w = 0; w < writers; w++) {
+                int writer = w;
+                tasks.add(pool.submit(() -> {
+                    for (int i = 0; i < perWriter; i++) {
+                        long hash = mix((long) writer * perWriter + i);
+                        assertTrue(set.add(hash));
+                        assertTrue(set.contains(hash));
+                        published.set(writer, i + 1);
+                    }
+                }));
+            }
+            tasks.add(pool.submit(() -> {
+                Random random = new Random(7);
+                for (int round = 0; round < 200_000; round++) {
+                    int writer = random.nextInt(writers);
+                    int done = published.get(writer);
+                    if (done > 0) assertTrue(set.contains(mix((long) writer * perWriter + random.nextInt(done))));
+                    assertFalse(set.contains(mix(-1 - random.nextInt(1000))));
+                }
+            }));
+            for (Future<?> task : tasks) task.get();
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals((long) writers * perWriter, set.size());
+        for (int i = 0; i < writers * perWriter; i++) {
+            assertFalse(set.add(mix(i)));
+        }
+        // Таблиці, що наповнені не більше ніж наполовину, після всіх переносів.
+        assertTrue(set.memoryBytes() <= 4L * writers * perWriter * Long.BYTES, "пам'ять: " + set.memoryBytes());
+    }
+
+    private static long mix(long value) {
+        long h = value * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 29);
+    }
+}
@@ -0,0 +1,72 @@
+package flowchart;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PersistentVectorTest {
+    private static List<Integer> range(int n) {
+        return IntStream.range(0, n).boxed().collect(java.util.stream.Collectors.toList());
+    }
+
+    private static List<Integer> items(PersistentVector<Integer> vector) {
+        List<Integer> items = new ArrayList<>(vector.size());
+        for (int i = 0; i < vector.size(); i++) items.add(vector.get(i));
+        return items;
+    }
+
+    private static Object[] root(PersistentVector<?> vector) throws ReflectiveOperationException {
+        Field root = PersistentVector.class.getDeclaredField("root");
+        root.setAccessible(true);
+        return (Object[]) root.get(vector);
+    }
+
+    @Test
+    void appendMatchesBulkBuild() {
+        // Межі рівнів дерева: 32, 1024 і трохи далі.
+        for (int n : new int[]{0, 1, 31, 32, 33, 1023, 1024, 1025, 40_000}) {
+            PersistentVector<Integer> appended = PersistentVector.empty();
+            for (int i = 0; i < n; i++) appended = appended.append(i);
+            assertEquals(range(n), items(appended), "n = " + n);
+            assertEquals(range(n), items(PersistentVector.of(range(n))), "n = " + n);
+        }
+    }
+
+    @Test
+    void olderVersionsAreUnchanged() {
+        PersistentVector<Integer> v1 = PersistentVector.of(range(100));
+        PersistentVector<Integer> v2 = v1.set(50, -1);
+        PersistentVector<Integer> v3 = v2.append(100);
+
+        assertEquals(range(100), items(v1));
+        assertEquals(-1, v2.get(50));
+        assertEquals(100, v2.size());
+        assertEquals(101, v3.size());
+        assertEquals(-1, v3.get(50));
+        assertThrows(IndexOutOfBoundsException.class, () -> v1.get(100));
+        assertThrows(IndexOutOfBoundsException.class, () -> v1.set(100, 0));
+    }
+
+    @Test
+    void setCopiesOnlyThePathToTheLeaf() throws ReflectiveOperationException {
+        PersistentVector<Integer> before = PersistentVector.of(range(1024));
+        PersistentVector<Integer> after = before.set(1000, -1);
+
+        Object[] oldRoot = root(before);
+        Object[] newRoot = root(after);
+        assertNotSame(oldRoot, newRoot);
+        int changed = 1000 / 32;
+        for (int i = 0; i < 32; i++) {
+            if (i == changed) {
+                assertNotSame(oldRoot[i], newRoot[i]);
+            } else {
+                assertSame(oldRoot[i], newRoot[i], "leaf " + i);
+            }
+        }
+    }
+}
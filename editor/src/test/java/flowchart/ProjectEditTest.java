@@ -0,0 +1,95 @@
+package flowchart;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProjectEditTest {
+    private static ProjectData emptyProject() {
+        ProjectData project = new ProjectData();
+        project.setSharedVariables(new ArrayList<>());
+        project.setFlowchartData(new ArrayList<>());
+        return project;
+    }
+
+    // Записує зміни у журнал і відтворює прочитані записи на порожньому проекті.
+    private static ProjectData replay(List<ProjectEdit> edits) throws IOException {
+        ByteArrayOutputStream journal = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(journal);
+        for (ProjectEdit edit : edits) edit.write(out);
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(journal.toByteArray()));
+        ProjectData project = emptyProject();
+        for (int i = 0; i < edits.size(); i++) ProjectEdit.read(in).apply(project);
+        assertEquals(-1, in.read());
+        return project;
+    }
+
+    @Test
+    void replaysThreadAndBlockEdits() throws IOException {
+        ProjectData project = replay(List.of(
+                ProjectEdit.addThread(),
+                ProjectEdit.addThread(),
+                ProjectEdit.addBlock(BlockType.START, 10, 20, "").inThread(1),
+                ProjectEdit.addBlock(BlockType.CONDITION, 10, 120, "x > 0").inThread(1),
+                ProjectEdit.addBlock(BlockType.END, 10, 220, "").inThread(1),
+                ProjectEdit.addBlock(BlockType.ASSIGNMENT, 90, 160, "x = x + 1").inThread(1),
+                ProjectEdit.addConnection(0, 1, null).inThread(1),
+                ProjectEdit.addConnection(1, 3, true).inThread(1),
+                ProjectEdit.addConnection(1, 2, false).inThread(1),
+                ProjectEdit.addConnection(3, 2, null).inThread(1),
+                // Повторне з'єднання тієї самої гілки замінює попереднє.
+                ProjectEdit.addConnection(1, 3, true).inThread(1),
+                ProjectEdit.moveBlock(2, -30, 400).inThread(1),
+                ProjectEdit.setCode(1, "x < 5").inThread(1),
+                ProjectEdit.removeThread(0)));
+
+        assertEquals(1, project.getFlowchartData().size());
+        FlowchartData flowchart = project.getFlowchartData().get(0);
+        List<Block> blocks = flowchart.getBlocks();
+        assertEquals(4, blocks.size());
+        assertEquals("x < 5", blocks.get(1).getCode());
+        assertEquals(-30, blocks.get(2).getX());
+        assertEquals(400, blocks.get(2).getY());
+        List<Connection> connections = flowchart.getConnections();
+        assertEquals(4, connections.size());
+        assertEquals(Boolean.FALSE, connections.get(1).condition);
+        assertSame(blocks.get(2), connections.get(1).getTo());
+        assertEquals(Boolean.TRUE, connections.get(3).condition);
+        assertSame(blocks.get(3), connections.get(3).getTo());
+
+        project = replay(List.of(
+                ProjectEdit.addThread(),
+                ProjectEdit.addBlock(BlockType.START, 0, 0, "").inThread(0),
+                ProjectEdit.addBlock(BlockType.END, 0, 100, "").inThread(0),
+                ProjectEdit.addConnection(0, 1, null).inThread(0),
+                ProjectEdit.removeBlock(0).inThread(0)));
+        assertEquals(1, project.getFlowchartData().get(0).getBlocks().size());
+        assertTrue(project.getFlowchartData().get(0).getConnections().isEmpty());
+    }
+
+    @Test
+    void replaysVariableRemoval() throws IOException {
+        ProjectData project = replay(List.of(
+                ProjectEdit.addVariable("x"),
+                ProjectEdit.addVariable("лічильник"),
+                ProjectEdit.addVariable("y"),
+                ProjectEdit.removeVariable("x"),
+                ProjectEdit.removeVariable("немає")));
+        assertEquals(List.of("лічильник", "y"), project.getSharedVariables());
+    }
+
+    @Test
+    void editsOutsideTheProjectAreRejected() {
+        assertThrows(IOException.class, () -> replay(List.of(ProjectEdit.removeThread(0))));
+        assertThrows(IOException.class, () -> replay(List.of(
+                ProjectEdit.addThread(),
+                ProjectEdit.setCode(3, "x = 1").inThread(0))));
+        assertThrows(IOException.class, () -> ProjectEdit.read(
+                new DataInputStream(new ByteArrayInputStream(new byte[]{(byte) 200}))));
+    }
+}
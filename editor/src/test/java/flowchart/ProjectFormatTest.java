@@ -0,0 +1,241 @@
+package flowchart;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProjectFormatTest {
+    @TempDir
+    Path dir;
+
+    private static FlowchartData flowchart(int shift) {
+        Block start = new Block(BlockType.START, 10 + shift, 20);
+        Block input = new Block(BlockType.INPUT, 10, 120 + shift);
+        input.setCode("x");
+        Block condition = new Block(BlockType.CONDITION, -40, 220);
+        condition.setCode("x > " + shift);
+        Block assign = new Block(BlockType.ASSIGNMENT, 60, 320);
+        assign.setCode("y = \"Привіт\" + str(x)");
+        Block end = new Block(BlockType.END, 10, 420);
+
+        List<Connection> connections = new ArrayList<>();
+        connections.add(new Connection(start, input));
+        connections.add(new Connection(input, condition));
+        Connection yes = new Connection(condition, assign);
+        yes.setCondition(true);
+        connections.add(yes);
+        Connection no = new Connection(condition, end);
+        no.setCondition(false);
+        connections.add(no);
+        connections.add(new Connection(assign, end));
+
+        FlowchartData data = new FlowchartData();
+        data.setBlocks(new ArrayList<>(List.of(start, input, condition, assign, end)));
+        data.setConnections(connections);
+        return data;
+    }
+
+    private static ProjectData project() {
+        ProjectData project = new ProjectData();
+        project.setSharedVariables(new ArrayList<>(List.of("x", "y")));
+        project.setFlowchartData(new ArrayList<>(List.of(flowchart(0), flowchart(7))));
+        return project;
+    }
+
+    private static byte[] bytes(ProjectData project) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ProjectFormat.write(project, out);
+        return out.toByteArray();
+    }
+
+    private static ProjectData read(byte[] bytes) throws IOException {
+        return ProjectFormat.read(new BufferedInputStream(new ByteArrayInputStream(bytes)));
+    }
+
+    private static void assertSameFlowchart(FlowchartData expected, FlowchartData actual) {
+        assertEquals(expected.getBlocks().size(), actual.getBlocks().size());
+        for (int i = 0; i < expected.getBlocks().size(); i++) {
+            Block e = expected.getBlocks().get(i);
+            Block a = actual.getBlocks().get(i);
+            assertEquals(e.getType(), a.getType());
+            assertEquals(e.getX(), a.getX());
+            assertEquals(e.getY(), a.getY());
+            assertEquals(e.getCode(), a.getCode());
+        }
+        assertEquals(expected.getConnections().size(), actual.getConnections().size());
+        for (int i = 0; i < expected.getConnections().size(); i++) {
+            Connection e = expected.getConnections().get(i);
+            Connection a = actual.getConnections().get(i);
+            assertEquals(expected.getBlocks().indexOf(e.getFrom()), actual.getBlocks().indexOf(a.getFrom()));
+            assertEquals(expected.getBlocks().indexOf(e.getTo()), actual.getBlocks().indexOf(a.getTo()));
+            assertEquals(e.condition, a.condition);
+        }
+    }
+
+    @Test
+    void roundTrip() throws IOException {
+        ProjectData project = project();
+        ProjectData loaded = read(bytes(project));
+        assertEquals(project.getSharedVariables(), loaded.getSharedVariables());
+        assertEquals(2, loaded.getFlowchartData().size());
+        for (int t = 0; t < 2; t++) {
+            assertSameFlowchart(project.getFlowchartData().get(t), loaded.getFlowchartData().get(t));
+        }
+    }
+
+    @Test
+    void projectFileReadsThreadsOnDemand() throws IOException {
+        ProjectData project = project();
+        Path file = dir.resolve("project.fchp");
+        Files.write(file, bytes(project));
+
+        ProjectFile opened = ProjectFile.open(file.toFile());
+        assertEquals(List.of("x", "y"), opened.getSharedVariables());
+        assertEquals(2, opened.getThreadCount());
+        assertSameFlowchart(project.getFlowchartData().get(1), opened.readThread(1));
+        assertSameFlowchart(project.getFlowchartData().get(0), opened.readThread(0));
+        // Кожне читання дає нові об'єкти.
+        assertNotSame(opened.readThread(0).getBlocks().get(0), opened.readThread(0).getBlocks().get(0));
+    }
+
+    // Розділ потоку читається з файлу лише в readThread(): обрізаний кінець
+    // файлу зачіпає тільки останній потік.
+    @Test
+    void projectFileReadsSectionsLazily() throws IOException {
+        ProjectData project = project();
+        Path file = dir.resolve("project.fchp");
+        Files.write(file, bytes(project));
+
+        try (ProjectFile opened = ProjectFile.open(file.toFile())) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.truncate(channel.size() - 1);
+            }
+            assertSameFlowchart(project.getFlowchartData().get(0), opened.readThread(0));
+            assertThrows(IOException.class, () -> opened.readThread(1));
+        }
+    }
+
+    // Коли кожен потік декодовано, файл закривається: його можна замінити,
+    // а потоки й далі будуються з копій.
+    @Test
+    void projectFileReleasesTheFileOnceEveryThreadIsRead() throws IOException {
+        ProjectData project = project();
+        Path file = dir.resolve("project.fchp");
+        Files.write(file, bytes(project));
+
+        ProjectFile opened = ProjectFile.open(file.toFile());
+        opened.readThread(1);
+        opened.readThread(0);
+        Path replacement = dir.resolve("project.fchp.tmp");
+        Files.write(replacement, new byte[]{1, 2, 3});
+        Files.move(replacement, file, StandardCopyOption.REPLACE_EXISTING);
+
+        for (int t = 0; t < 2; t++) {
+            assertSameFlowchart(project.getFlowchartData().get(t), opened.readThread(t));
+        }
+    }
+
+    @Test
+    void closedProjectFileKeepsOnlyDecodedThreads() throws IOException {
+        ProjectData project = project();
+        Path file = dir.resolve("project.fchp");
+        Files.write(file, bytes(project));
+
+        ProjectFile opened = ProjectFile.open(file.toFile());
+        opened.readThread(1);
+        opened.close();
+        assertSameFlowchart(project.getFlowchartData().get(1), opened.readThread(1));
+        assertThrows(IOException.class, () -> opened.readThread(0));
+    }
+
+    // Таблиця рядків, більша за буфер читання заголовка.
+    @Test
+    void projectFileReadsALargeStringTable() throws IOException {
+        List<Block> blocks = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            Block block = new Block(BlockType.ASSIGNMENT, i, -i);
+            block.setCode("x = " + i + " + 1");
+            blocks.add(block);
+        }
+        FlowchartData flowchart = new FlowchartData();
+        flowchart.setBlocks(blocks);
+        flowchart.setConnections(new ArrayList<>());
+        ProjectData project = new ProjectData();
+        project.setSharedVariables(new ArrayList<>(List.of("x")));
+        project.setFlowchartData(new ArrayList<>(List.of(flowchart, flowchart(3))));
+        Path file = dir.resolve("large.fchp");
+        Files.write(file, bytes(project));
+
+        try (ProjectFile opened = ProjectFile.open(file.toFile())) {
+            assertEquals(List.of("x"), opened.getSharedVariables());
+            assertSameFlowchart(project.getFlowchartData().get(1), opened.readThread(1));
+            assertSameFlowchart(flowchart, opened.readThread(0));
+        }
+    }
+
+    @Test
+    void legacySerializedProjectLoads() throws IOException {
+        byte[] legacy;
+        try (InputStream in = getClass().getResourceAsStream("/legacy-project.ser")) {
+            legacy = in.readAllBytes();
+        }
+        ProjectData project = read(legacy);
+        assertEquals(List.of("x", "y"), project.getSharedVariables());
+        assertEquals(1, project.getFlowchartData().size());
+        assertEquals(6, project.getFlowchartData().get(0).getBlocks().size());
+
+        Path file = dir.resolve("legacy.ser");
+        Files.write(file, legacy);
+        ProjectFile opened = ProjectFile.open(file.toFile());
+        assertEquals(1, opened.getThreadCount());
+        assertSameFlowchart(project.getFlowchartData().get(0), opened.readThread(0));
+
+        // Після перезбереження у новому форматі проект не змінюється.
+        assertSameFlowchart(project.getFlowchartData().get(0),
+                read(bytes(project)).getFlowchartData().get(0));
+    }
+
+    // Крихітний файл, що заявляє 2^26 блоків, має падати з IOException,
+    // а не виділяти під них пам'ять.
+    @Test
+    void hugeCountInTinyFileIsRejected() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(out);
+        data.write(new byte[]{'F', 'C', 'H', 'P'});
+        ProjectFormat.writeVarint(data, 1);
+        ProjectFormat.writeVarint(data, 0);       // рядки
+        ProjectFormat.writeVarint(data, 0);       // змінні
+        ProjectFormat.writeVarint(data, 1);       // потоки
+        ProjectFormat.writeVarint(data, 1 << 26); // блоки
+        data.writeByte(BlockType.START.ordinal());
+        byte[] corrupt = out.toByteArray();
+
+        assertThrows(IOException.class, () -> read(corrupt));
+    }
+
+    @Test
+    void hugeStringTableInTinyFileIsRejected() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(out);
+        data.write(new byte[]{'F', 'C', 'H', 'P'});
+        ProjectFormat.writeVarint(data, ProjectFormat.VERSION);
+        ProjectFormat.writeVarint(data, 1 << 26); // рядки
+        ProjectFormat.writeVarint(data, 1 << 26); // довжина першого рядка
+        byte[] corrupt = out.toByteArray();
+
+        assertThrows(IOException.class, () -> read(corrupt));
+        Path file = dir.resolve("corrupt.fchp");
+        Files.write(file, corrupt);
+        assertThrows(IOException.class, () -> ProjectFile.open(file.toFile()));
+    }
+}
@@ -0,0 +1,117 @@
+package flowchart;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class PythonWorkerExecutorTest {
+    // Програма друкує введене число, а за від'ємного — нескінченно засмічує вивід.
+    private static final String PROGRAM = String.join("\n",
+            "import sys",
+            "n = int(input())",
+            "print('n = %d' % n)",
+            "print('діагностика', file=sys.stderr)",
+            "while n < 0:",
+            "    print('x' * 1000)",
+            "");
+
+    private File program;
+    private PythonWorkerExecutor worker;
+
+    @BeforeEach
+    void startWorker() throws IOException {
+        program = File.createTempFile("worker_test", ".py");
+        Files.writeString(program.toPath(), PROGRAM, StandardCharsets.UTF_8);
+        try {
+            worker = new PythonWorkerExecutor(program);
+        } catch (IOException e) {
+            assumeTrue(false, "python is not available: " + e.getMessage());
+        }
+    }
+
+    @AfterEach
+    void stopWorker() {
+        if (worker != null) worker.close();
+        program.delete();
+    }
+
+    @Test
+    void streamsBothChannelsToTheMatcher() throws Exception {
+        OutputMatcher matcher = new OutputMatcher("n = 5");
+        worker.execute("5", matcher, 5000);
+        assertTrue(matcher.isMatched());
+
+        matcher = new OutputMatcher("n = 6\nдіагностика");
+        worker.execute("7", matcher, 5000);
+        assertFalse(matcher.isMatched());
+        assertEquals("n = 7\nдіагностика", matcher.getCapturedOutput());
+    }
+
+    // Нескінченний вивід: після збігу дочірній процес перериває помічник,
+    // і воркер лишається придатним для наступних випробувань.
+    @Test
+    void abortsRunawayOutputOnMatch() throws Exception {
+        OutputMatcher matcher = new OutputMatcher("n = -1");
+        long started = System.nanoTime();
+        worker.execute("-1", matcher, 20_000);
+        assertTrue(matcher.isMatched());
+        assertTrue(System.nanoTime() - started < TimeUnit.SECONDS.toNanos(10));
+        assertTrue(worker.isAlive());
+
+        matcher = new OutputMatcher("n = 2");
+        worker.execute("2", matcher, 5000);
+        assertTrue(matcher.isMatched());
+    }
+
+    @Test
+    void timesOutRunawayOutputWithoutMatch() throws Exception {
+        OutputMatcher matcher = new OutputMatcher("never printed");
+        assertThrows(TimeoutException.class, () -> worker.execute("-1", matcher, 500));
+        assertTrue(matcher.getCapturedOutput().startsWith("n = -1\nxxxx"));
+
+        if (worker.isAlive()) {
+            OutputMatcher next = new OutputMatcher("n = 3");
+            worker.execute("3", next, 5000);
+            assertTrue(next.isMatched());
+        }
+    }
+
+    // Помічник, що після RUN надсилає заданий рядок замість кадру — як програма
+    // без fork, що пише прямо в канал протоколу.
+    private static PythonWorkerExecutor corruptWorker(String reply) throws IOException {
+        String script = String.join("\n",
+                "import sys",
+                "sys.stdout.write('READY\\n')",
+                "sys.stdout.flush()",
+                "sys.stdin.readline()",
+                "sys.stdout.write(" + reply + ")",
+                "sys.stdout.flush()",
+                "sys.stdin.read()");
+        return new PythonWorkerExecutor(new ProcessBuilder("python", "-c", script));
+    }
+
+    @Test
+    void malformedFramesAreProtocolErrors() throws IOException {
+        for (String reply : new String[]{"'OUT 1 x\\n'", "'OUT 3 5\\n'", "'OUT 1 -5\\n'", "'OUT 1\\n'",
+                "'OUT 1 5 6\\n'", "'OUT 1 99999999999\\n'", "'hello\\n'", "'x' * 100000"}) {
+            PythonWorkerExecutor corrupt = corruptWorker(reply);
+            try {
+                IOException e = assertThrows(IOException.class,
+                        () -> corrupt.execute("1", new OutputMatcher("1"), 5000), reply);
+                assertEquals("протокол воркера порушено", e.getMessage(), reply);
+            } finally {
+                corrupt.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package flowchart;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResultCacheTest {
+    private static final String PROGRAM = ResultCache.programDigest("python", "print(input())".getBytes(StandardCharsets.UTF_8));
+
+    @TempDir
+    Path dir;
+
+    private ResultCache cache() {
+        return new ResultCache(dir.resolve("results.txt").toFile());
+    }
+
+    @Test
+    void programDigestDependsOnKindAndText() throws IOException {
+        byte[] program = "print(1)".getBytes(StandardCharsets.UTF_8);
+        String digest = ResultCache.programDigest("python", program);
+        assertEquals(digest, ResultCache.programDigest("python", program.clone()));
+        assertEquals(digest, ResultCache.programDigest("python", out -> out.write("print(1)")));
+        assertNotEquals(digest, ResultCache.programDigest("interpreter", program));
+        assertNotEquals(digest, ResultCache.programDigest("python", "print(2)".getBytes(StandardCharsets.UTF_8)));
+        assertEquals(64, digest.length());
+    }
+
+    // Ключ залежить від змісту тесту, а не від об'єкта, і межі полів не зливаються.
+    @Test
+    void keyIsStableAndSeparatesFields() {
+        ResultCache cache = cache();
+        cache.store(PROGRAM, new TestCase("a", "bc"), true, "bc");
+
+        TrialResult hit = cache.lookup(PROGRAM, new TestCase("a", "bc"), 3, 1);
+        assertNotNull(hit);
+        assertTrue(hit.isPassed());
+        assertTrue(hit.isCached());
+        assertEquals(3, hit.getTestIndex());
+        assertEquals(1, hit.getTrial());
+        assertEquals("bc", hit.getOutput());
+
+        assertNull(cache.lookup(PROGRAM, new TestCase("ab", "c"), 0, 0));
+        assertNull(cache.lookup(PROGRAM, new TestCase("a", "b"), 0, 0));
+        assertNull(cache.lookup(ResultCache.programDigest("interpreter", new byte[0]), new TestCase("a", "bc"), 0, 0));
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedEntry() {
+        ResultCache cache = cache();
+        for (int i = 0; i < ResultCache.MAX_ENTRIES; i++) {
+            cache.store(PROGRAM, new TestCase("in" + i, "out"), true, "out");
+        }
+        // Звернення робить запис найсвіжішим, тож витісняється наступний за ним.
+        assertNotNull(cache.lookup(PROGRAM, new TestCase("in0", "out"), 0, 0));
+        cache.store(PROGRAM, new TestCase("new", "out"), true, "out");
+
+        assertNotNull(cache.lookup(PROGRAM, new TestCase("in0", "out"), 0, 0));
+        assertNull(cache.lookup(PROGRAM, new TestCase("in1", "out"), 0, 0));
+        assertNotNull(cache.lookup(PROGRAM, new TestCase("in2", "out"), 0, 0));
+        assertNotNull(cache.lookup(PROGRAM, new TestCase("new", "out"), 0, 0));
+    }
+
+    // Порядок витіснення, разом зі зверненнями, переживає перезапуск.
+    @Test
+    void recencySurvivesARestart() throws IOException {
+        ResultCache cache = cache();
+        for (int i = 0; i < ResultCache.MAX_ENTRIES; i++) {
+            cache.store(PROGRAM, new TestCase("in" + i, "out"), true, "out");
+        }
+        cache.save();
+
+        ResultCache reloaded = cache();
+        assertNotNull(reloaded.lookup(PROGRAM, new TestCase("in0", "out"), 0, 0));
+        reloaded.save();
+
+        ResultCache restarted = cache();
+        restarted.store(PROGRAM, new TestCase("new", "out"), true, "out");
+        restarted.store(PROGRAM, new TestCase("newer", "out"), true, "out");
+        assertNotNull(restarted.lookup(PROGRAM, new TestCase("in0", "out"), 0, 0));
+        assertNull(restarted.lookup(PROGRAM, new TestCase("in1", "out"), 0, 0));
+        assertNull(restarted.lookup(PROGRAM, new TestCase("in2", "out"), 0, 0));
+        assertNotNull(restarted.lookup(PROGRAM, new TestCase("in3", "out"), 0, 0));
+        assertNotNull(restarted.lookup(PROGRAM, new TestCase("in" + (ResultCache.MAX_ENTRIES - 1), "out"), 0, 0));
+    }
+
+    @Test
+    void savedVerdictsLoadBack() throws IOException {
+        String output = "рядок 1\nkey = value: #!\r\n\t\\end";
+        ResultCache cache = cache();
+        cache.store(PROGRAM, new TestCase("1", "2"), true, output);
+        cache.store(PROGRAM, new TestCase("3", "4"), false, null);
+        cache.save();
+
+        ResultCache reloaded = cache();
+        TrialResult passed = reloaded.lookup(PROGRAM, new TestCase("1", "2"), 0, 0);
+        assertTrue(passed.isPassed());
+        assertEquals(output, passed.getOutput());
+        TrialResult failed = reloaded.lookup(PROGRAM, new TestCase("3", "4"), 0, 0);
+        assertFalse(failed.isPassed());
+        assertEquals("", failed.getOutput());
+        assertFalse(Files.exists(dir.resolve("results.txt.tmp")));
+        assertEquals(3, Files.readAllLines(dir.resolve("results.txt")).size());
+    }
+
+    // Пошкоджений файл кешу ігнорується і перезаписується при наступному збереженні.
+    @Test
+    void corruptFileIsIgnored() throws IOException {
+        Path file = dir.resolve("results.txt");
+        Files.writeString(file, "# Flowchart editor test results v2\nkey\tbroken \\q\n");
+        ResultCache cache = cache();
+        assertNull(cache.lookup(PROGRAM, new TestCase("1", "2"), 0, 0));
+        cache.store(PROGRAM, new TestCase("1", "2"), true, "2");
+        cache.save();
+        assertNotNull(cache().lookup(PROGRAM, new TestCase("1", "2"), 0, 0));
+    }
+}
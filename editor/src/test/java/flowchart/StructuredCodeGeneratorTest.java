@@ -0,0 +1,227 @@
+package flowchart;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StructuredCodeGeneratorTest {
+    private final List<Block> blocks = new ArrayList<>();
+    private final List<Connection> connections = new ArrayList<>();
+
+    private Block block(BlockType type, String code) {
+        Block block = new Block(type, 0, 0);
+        block.setCode(code);
+        blocks.add(block);
+        return block;
+    }
+
+    private void link(Block from, Block to, Boolean condition) {
+        Connection conn = new Connection(from, to);
+        if (condition != null) conn.setCondition(condition);
+        connections.add(conn);
+    }
+
+    private String generate() throws IOException {
+        FlowchartData data = new FlowchartData();
+        data.setBlocks(blocks);
+        data.setConnections(connections);
+        StringWriter code = new StringWriter();
+        new FlowchartCodeWriter(data, List.of("x", "y", "i", "n")).write(new PythonEmitter(code));
+        return code.toString();
+    }
+
+    // k послідовних "if x < ...: цикл", після яких усі гілки сходяться в y = 99.
+    private String sequentialIfLoops(int k, boolean doWhile) throws IOException {
+        blocks.clear();
+        connections.clear();
+        List<Block> ends = new ArrayList<>(List.of(block(BlockType.START, "")));
+        List<Boolean> branches = new ArrayList<>(java.util.Collections.singletonList(null));
+        for (int i = 0; i < k; i++) {
+            Block condition = block(BlockType.CONDITION, "x < " + (i + 5));
+            for (int e = 0; e < ends.size(); e++) {
+                link(ends.get(e), condition, branches.get(e));
+            }
+            Block loopExit;
+            if (doWhile) {
+                Block body = block(BlockType.ASSIGNMENT, "x = x + 1");
+                loopExit = block(BlockType.CONDITION, "x % 3 != 0");
+                link(condition, body, true);
+                link(body, loopExit, null);
+                link(loopExit, body, true);
+            } else {
+                loopExit = block(BlockType.CONDITION, "x % 3 != 0");
+                Block body = block(BlockType.ASSIGNMENT, "x = x + 1");
+                link(condition, loopExit, true);
+                link(loopExit, body, true);
+                link(body, loopExit, null);
+            }
+            ends = new ArrayList<>(List.of(loopExit, condition));
+            branches = new ArrayList<>(List.of(false, false));
+        }
+        Block tail = block(BlockType.ASSIGNMENT, "y = 99");
+        for (int e = 0; e < ends.size(); e++) {
+            link(ends.get(e), tail, branches.get(e));
+        }
+        link(tail, block(BlockType.END, ""), null);
+        return generate();
+    }
+
+    private static int lines(String code) {
+        return code.split("\n").length;
+    }
+
+    private static int occurrences(String code, String line) {
+        return code.split("\n *" + java.util.regex.Pattern.quote(line) + "\n", -1).length - 1;
+    }
+
+    @Test
+    void sequentialIfDoWhileGrowsLinearly() throws IOException {
+        int four = lines(sequentialIfLoops(4, true));
+        int eight = lines(sequentialIfLoops(8, true));
+        int sixteen = lines(sequentialIfLoops(16, true));
+        assertEquals(eight - four, (sixteen - eight) / 2);
+        assertEquals(1, occurrences(sequentialIfLoops(16, true), "y = 99"));
+    }
+
+    @Test
+    void sequentialIfWhileGrowsLinearly() throws IOException {
+        int four = lines(sequentialIfLoops(4, false));
+        int eight = lines(sequentialIfLoops(8, false));
+        int sixteen = lines(sequentialIfLoops(16, false));
+        assertEquals(eight - four, (sixteen - eight) / 2);
+        assertEquals(1, occurrences(sequentialIfLoops(16, false), "y = 99"));
+    }
+
+    @Test
+    void ifWithDoWhileJoinsAfterTheLoop() throws IOException {
+        assertEquals(String.join("\n",
+                "# Початок потоку",
+                "if x < 5:",
+                "    while True:",
+                "        x = x + 1",
+                "        if x % 3 != 0:",
+                "            continue",
+                "        else:",
+                "            pass",
+                "        break",
+                "else:",
+                "    pass",
+                "y = 99",
+                "# Кінець потоку",
+                ""), sequentialIfLoops(1, true));
+    }
+
+    @Test
+    void doWhileNestedInWhileKeepsTailInOuterBody() throws IOException {
+        Block start = block(BlockType.START, "");
+        Block init = block(BlockType.ASSIGNMENT, "i = 0");
+        Block outer = block(BlockType.CONDITION, "i < 3");
+        Block reset = block(BlockType.ASSIGNMENT, "n = 0");
+        Block body = block(BlockType.ASSIGNMENT, "n = n + 1");
+        Block inner = block(BlockType.CONDITION, "n < 2");
+        Block add = block(BlockType.ASSIGNMENT, "n = n + 10");
+        Block step = block(BlockType.ASSIGNMENT, "i = i + 1");
+        Block output = block(BlockType.OUTPUT, "n");
+        Block end = block(BlockType.END, "");
+        link(start, init, null);
+        link(init, outer, null);
+        link(outer, reset, true);
+        link(reset, body, null);
+        link(body, inner, null);
+        link(inner, body, true);
+        link(inner, add, false);
+        link(add, step, null);
+        link(step, outer, null);
+        link(outer, output, false);
+        link(output, end, null);
+
+        assertEquals(String.join("\n",
+                "# Початок потоку",
+                "i = 0",
+                "while i < 3:",
+                "    n = 0",
+                "    while True:",
+                "        n = n + 1",
+                "        if n < 2:",
+                "            continue",
+                "        else:",
+                "            pass",
+                "        break",
+                "    n = n + 10",
+                "    i = i + 1",
+                "print(f'n = {n}')",
+                "# Кінець потоку",
+                ""), generate());
+    }
+
+    @Test
+    void whileNestedInWhile() throws IOException {
+        Block start = block(BlockType.START, "");
+        Block init = block(BlockType.ASSIGNMENT, "i = 0");
+        Block outer = block(BlockType.CONDITION, "i < 3");
+        Block reset = block(BlockType.ASSIGNMENT, "n = 0");
+        Block inner = block(BlockType.CONDITION, "n < 2");
+        Block body = block(BlockType.ASSIGNMENT, "n = n + 1");
+        Block step = block(BlockType.ASSIGNMENT, "i = i + 1");
+        Block output = block(BlockType.OUTPUT, "n");
+        Block end = block(BlockType.END, "");
+        link(start, init, null);
+        link(init, outer, null);
+        link(outer, reset, true);
+        link(reset, inner, null);
+        link(inner, body, true);
+        link(body, inner, null);
+        link(inner, step, false);
+        link(step, outer, null);
+        link(outer, output, false);
+        link(output, end, null);
+
+        assertEquals(String.join("\n",
+                "# Початок потоку",
+                "i = 0",
+                "while i < 3:",
+                "    n = 0",
+                "    while n < 2:",
+                "        n = n + 1",
+                "    i = i + 1",
+                "print(f'n = {n}')",
+                "# Кінець потоку",
+                ""), generate());
+    }
+
+    // Вихід з do-while всередині while прямо на заголовок зовнішнього циклу (continue).
+    @Test
+    void doWhileExitingToOuterHeader() throws IOException {
+        Block start = block(BlockType.START, "");
+        Block outer = block(BlockType.CONDITION, "i < 3");
+        Block body = block(BlockType.ASSIGNMENT, "i = i + 1");
+        Block inner = block(BlockType.CONDITION, "i % 2 == 1");
+        Block output = block(BlockType.OUTPUT, "i");
+        Block end = block(BlockType.END, "");
+        link(start, outer, null);
+        link(outer, body, true);
+        link(body, inner, null);
+        link(inner, body, true);
+        link(inner, outer, false);
+        link(outer, output, false);
+        link(output, end, null);
+
+        assertEquals(String.join("\n",
+                "# Початок потоку",
+                "while i < 3:",
+                "    while True:",
+                "        i = i + 1",
+                "        if i % 2 == 1:",
+                "            continue",
+                "        else:",
+                "            break",
+                "print(f'i = {i}')",
+                "# Кінець потоку",
+                ""), generate());
+    }
+}
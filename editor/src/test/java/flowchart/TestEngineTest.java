@@ -0,0 +1,221 @@
+package flowchart;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestEngineTest {
+    @TempDir
+    Path dir;
+
+    // Виконавець, що друкує вхід і не реагує на переривання — як процес,
+    // який встиг завершитись уже після скасування запуску.
+    private static class StubExecutor implements TrialExecutor {
+        private final AtomicInteger closed;
+        private final long delayMillis;
+
+        StubExecutor(AtomicInteger closed, long delayMillis) {
+            this.closed = closed;
+            this.delayMillis = delayMillis;
+        }
+
+        @Override
+        public void execute(String input, OutputMatcher matcher, long timeoutMillis) {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMillis);
+            boolean interrupted = false;
+            while (System.nanoTime() < deadline) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(deadline - System.nanoTime());
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            char[] output = input.toCharArray();
+            matcher.channel().feed(output, 0, output.length);
+            if (interrupted) Thread.currentThread().interrupt();
+        }
+
+        @Override
+        public boolean isAlive() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+            closed.incrementAndGet();
+        }
+    }
+
+    private static List<TestCase> suite(int size) {
+        List<TestCase> testCases = new ArrayList<>();
+        for (int i = 0; i < size; i++) testCases.add(new TestCase("out" + i, "out" + (i % 2 == 0 ? i : -1)));
+        return testCases;
+    }
+
+    @Test
+    void reusesExecutorsAndClosesThemAfterTheRun() throws InterruptedException {
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger closed = new AtomicInteger();
+        TestEngine engine = new TestEngine(() -> {
+            created.incrementAndGet();
+            return new StubExecutor(closed, 0);
+        }, 2, 1000);
+
+        TestReport report = engine.run(suite(4), 5, null);
+
+        for (int i = 0; i < 4; i++) {
+            for (int trial = 0; trial < 5; trial++) {
+                assertEquals(i % 2 == 0, report.getResult(i, trial).isPassed());
+            }
+        }
+        assertTrue(created.get() <= 2, "created = " + created.get());
+        assertEquals(created.get(), closed.get());
+    }
+
+    // Випробування, що завершились після скасування, не повертають виконавця
+    // у вже спорожнений пул: закривається кожен створений виконавець.
+    @Test
+    void cancellationClosesEveryExecutor() throws InterruptedException {
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger closed = new AtomicInteger();
+        TestEngine engine = new TestEngine(() -> {
+            created.incrementAndGet();
+            return new StubExecutor(closed, 300);
+        }, 4, 1000);
+
+        Thread runner = new Thread(() -> {
+            try {
+                engine.run(suite(8), 10, null);
+                fail("run was not cancelled");
+            } catch (InterruptedException expected) {
+            }
+        });
+        runner.start();
+        Thread.sleep(100);
+        runner.interrupt();
+        runner.join(5000);
+        assertFalse(runner.isAlive());
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (closed.get() < created.get() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(4, created.get());
+        assertEquals(created.get(), closed.get());
+    }
+
+    // Виконавець, що падає з RuntimeException, закривається, а запуск
+    // записує помилку випробування замість того, щоб обірватися.
+    @Test
+    void runtimeFailureClosesTheExecutor() throws InterruptedException {
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger closed = new AtomicInteger();
+        TestEngine engine = new TestEngine(() -> {
+            created.incrementAndGet();
+            return new StubExecutor(closed, 0) {
+                @Override
+                public void execute(String input, OutputMatcher matcher, long timeoutMillis) {
+                    if (input.equals("out1")) throw new IllegalStateException("збій");
+                    super.execute(input, matcher, timeoutMillis);
+                }
+            };
+        }, 2, 1000);
+
+        TestReport report = engine.run(suite(3), 2, null);
+
+        for (int trial = 0; trial < 2; trial++) {
+            assertTrue(report.getResult(1, trial).isError());
+            assertTrue(report.getResult(0, trial).isPassed());
+            assertTrue(report.getResult(2, trial).isPassed());
+        }
+        assertEquals(created.get(), closed.get());
+    }
+
+    // Виконавець, поведінка якого задана входом: "pass" і "fail" завжди
+    // однакові, "flaky" чергує результат, а "slow" і "broken" один раз із
+    // кількох виконань дають тайм-аут чи помилку запуску.
+    private static class ScriptedExecutor implements TrialExecutor {
+        private final AtomicInteger runs;
+
+        ScriptedExecutor(AtomicInteger runs) {
+            this.runs = runs;
+        }
+
+        @Override
+        public void execute(String input, OutputMatcher matcher, long timeoutMillis)
+                throws IOException, TimeoutException {
+            int run = runs.incrementAndGet();
+            String output = input;
+            switch (input) {
+                case "fail":
+                    output = "wrong";
+                    break;
+                case "flaky":
+                    if (run % 2 == 0) output = "wrong";
+                    break;
+                case "slow":
+                    if (run % 3 == 0) throw new TimeoutException();
+                    break;
+                case "broken":
+                    if (run % 3 == 0) throw new IOException("не вдалося запустити");
+                    break;
+                default:
+                    break;
+            }
+            char[] chars = output.toCharArray();
+            matcher.channel().feed(chars, 0, chars.length);
+        }
+
+        @Override
+        public boolean isAlive() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    // У кеш потрапляє лише вердикт, однаковий в усіх випробуваннях тесту.
+    @Test
+    void cachesOnlyUnanimousVerdicts() throws InterruptedException {
+        List<TestCase> suite = new ArrayList<>();
+        for (String input : List.of("pass", "fail", "flaky", "slow", "broken")) {
+            suite.add(new TestCase(input, input));
+        }
+        ResultCache cache = new ResultCache(dir.resolve("results.txt").toFile());
+        AtomicInteger runs = new AtomicInteger();
+        TestEngine engine = new TestEngine(() -> new ScriptedExecutor(runs), 1, 1000);
+        engine.setCache(cache, "program");
+
+        TestReport report = engine.run(suite, 6, null);
+        assertEquals("Кеш результатів: влучань 0, промахів 5", report.formatCacheStatistics());
+
+        assertTrue(cache.lookup("program", suite.get(0), 0, 0).isPassed());
+        assertFalse(cache.lookup("program", suite.get(1), 1, 0).isPassed());
+        assertNull(cache.lookup("program", suite.get(2), 2, 0));
+        assertNull(cache.lookup("program", suite.get(3), 3, 0));
+        assertNull(cache.lookup("program", suite.get(4), 4, 0));
+
+        // Повторний запуск бере кешовані тести з кешу і не виконує їх.
+        runs.set(0);
+        TestReport again = engine.run(suite, 6, null);
+        for (int trial = 0; trial < 6; trial++) {
+            assertTrue(again.getResult(0, trial).isCached());
+            assertTrue(again.getResult(0, trial).isPassed());
+            assertTrue(again.getResult(1, trial).isCached());
+            assertFalse(again.getResult(2, trial).isCached());
+        }
+        assertEquals(3 * 6, runs.get());
+        assertEquals("Кеш результатів: влучань 2, промахів 3", again.formatCacheStatistics());
+    }
+}
@@ -0,0 +1,133 @@
+package flowchart;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UndoHistoryTest {
+    private final List<Block> blocks = new ArrayList<>();
+    private final List<Connection> connections = new ArrayList<>();
+    private final UndoHistory history = new UndoHistory();
+
+    private Block block(int x, int y) {
+        Block block = new Block(BlockType.ASSIGNMENT, x, y);
+        block.setCode("x = " + x);
+        blocks.add(block);
+        return block;
+    }
+
+    private static List<Integer> xs(UndoHistory.State state) {
+        List<Integer> xs = new ArrayList<>();
+        for (int i = 0; i < state.blocks.size(); i++) {
+            UndoHistory.BlockState s = state.blocks.get(i);
+            if (s != null) xs.add(s.x);
+        }
+        return xs;
+    }
+
+    @Test
+    void undoAndRedoRestoreEachStep() {
+        Block a = block(0, 0);
+        Block b = block(100, 0);
+        history.reset(blocks, connections);
+
+        a.move(10, 0);
+        history.blockChanged(a);
+        history.commit();
+
+        Block c = block(200, 0);
+        history.blockChanged(c);
+        Connection conn = new Connection(a, c);
+        history.connectionChanged(conn);
+        history.commit();
+
+        history.blockRemoved(b);
+        history.commit();
+
+        UndoHistory.State state = history.undo();
+        assertEquals(List.of(10, 100, 200), xs(state));
+        assertEquals(1, state.connections.size());
+        assertSame(conn, state.connections.get(0).connection);
+
+        state = history.undo();
+        assertEquals(List.of(10, 100), xs(state));
+        assertEquals(0, state.connections.size());
+
+        state = history.undo();
+        assertEquals(List.of(0, 100), xs(state));
+        assertNull(history.undo());
+
+        assertEquals(List.of(10, 100), xs(history.redo()));
+        assertEquals(List.of(10, 100, 200), xs(history.redo()));
+        assertEquals(List.of(10, 200), xs(history.redo()));
+        assertNull(history.redo());
+    }
+
+    @Test
+    void newStepDropsRedo() {
+        Block a = block(0, 0);
+        history.reset(blocks, connections);
+        a.move(5, 0);
+        history.blockChanged(a);
+        history.commit();
+
+        history.undo();
+        a.move(-5, 7);
+        history.blockChanged(a);
+        history.commit();
+
+        assertNull(history.redo());
+        assertEquals(List.of(0), xs(history.undo()));
+    }
+
+    @Test
+    void emptyStepIsNotRecorded() {
+        block(0, 0);
+        history.reset(blocks, connections);
+        history.commit();
+        assertNull(history.undo());
+    }
+
+    @Test
+    void statesShareUnchangedBlocks() {
+        for (int i = 0; i < 2000; i++) block(i, 0);
+        history.reset(blocks, connections);
+
+        Block moved = blocks.get(1500);
+        moved.move(0, 50);
+        history.blockChanged(moved);
+        history.commit();
+
+        UndoHistory.State after = history.undo();
+        UndoHistory.State before = after;
+        after = history.redo();
+        assertNotSame(before.blocks, after.blocks);
+        assertSame(before.connections, after.connections);
+        for (int i = 0; i < 2000; i++) {
+            if (i == 1500) {
+                assertEquals(0, before.blocks.get(i).y);
+                assertEquals(50, after.blocks.get(i).y);
+            } else {
+                assertSame(before.blocks.get(i), after.blocks.get(i));
+            }
+        }
+    }
+
+    @Test
+    void depthLimitsUndoSteps() {
+        Block a = block(0, 0);
+        history.reset(blocks, connections);
+        history.setDepth(3);
+        for (int i = 0; i < 10; i++) {
+            a.move(1, 0);
+            history.blockChanged(a);
+            history.commit();
+        }
+        int steps = 0;
+        while (history.undo() != null) steps++;
+        assertEquals(3, steps);
+    }
+}